@@ -0,0 +1,100 @@
+package elearningspringboot.benchmark;
+
+import elearningspringboot.enumeration.TokenType;
+import elearningspringboot.service.impl.JwtServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token validations per second through JwtServiceImpl, against the way
+ * validation worked before it kept one key and parser per TokenType: every
+ * extractEmail/extractExpiration decoded the secret, built a parser and
+ * verified the HS256 signature again, three times per request. No Spring
+ * context is started. Run with
+ * {@code mvn -Pbenchmark test-compile exec:exec -Djmh.include=JwtVerificationBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+
+    private static final String EMAIL = "benchmark-user@example.com";
+
+    @Param({ "ACCESS_TOKEN", "REFRESH_TOKEN" })
+    public TokenType tokenType;
+
+    private JwtServiceImpl jwtService;
+    private UserDetails user;
+    private String secret;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        jwtService = new JwtServiceImpl();
+        for (String field : new String[] { "SECRET_KEY", "REFRESH_KEY", "RESET_KEY", "CONFIRM_KEY" }) {
+            byte[] key = new byte[48];
+            random.nextBytes(key);
+            ReflectionTestUtils.setField(jwtService, field, Base64.getEncoder().encodeToString(key));
+        }
+        ReflectionTestUtils.setField(jwtService, "expiryHour", 1L);
+        ReflectionTestUtils.setField(jwtService, "expiryDay", 3L);
+        ReflectionTestUtils.setField(jwtService, "provider", "benchmark");
+        ReflectionTestUtils.invokeMethod(jwtService, "initKeys");
+
+        user = User.withUsername(EMAIL).password("").authorities("STUDENT").build();
+        secret = ReflectionTestUtils.invokeMethod(jwtService, "getSecret", tokenType);
+        token = tokenType == TokenType.ACCESS_TOKEN
+                ? jwtService.issueAccessToken(user).token()
+                : jwtService.issueRefreshToken(user).token();
+    }
+
+    // One verification with the parser built at startup, then the checks on the parsed claims.
+    @Benchmark
+    public boolean parseOnce() {
+        Claims claims = jwtService.extractAllClaims(token, tokenType);
+        return jwtService.isTokenValid(claims, user, tokenType);
+    }
+
+    // The filter's extractEmail, then isTokenValid's extractEmail and extractExpiration.
+    @Benchmark
+    public boolean legacyThreeVerifications() {
+        String filterEmail = legacyClaims().getSubject();
+        String email = legacyClaims().getSubject();
+        return filterEmail != null && user.isEnabled() && email.equals(user.getUsername())
+                && !legacyClaims().getExpiration().before(new Date());
+    }
+
+    private Claims legacyClaims() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
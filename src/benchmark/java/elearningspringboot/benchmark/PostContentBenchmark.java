@@ -0,0 +1,134 @@
+package elearningspringboot.benchmark;
+
+import elearningspringboot.service.StorageService;
+import elearningspringboot.util.HtmlImageProcessor;
+import elearningspringboot.util.HtmlImageProcessor.ProcessedContent;
+import elearningspringboot.util.TagUtils;
+import org.jsoup.Jsoup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Proxy;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Derivation of a saved post's HTML, text, tags and reading time from editor
+ * output of 50 to 500 KB: HtmlImageProcessor.processContent, which parses
+ * once, cleans and walks the DOM once, against the passes PostServiceImpl
+ * made before it (process, Jsoup.parse(..).text(), the hashtag regex over the
+ * HTML and a word count that parsed the HTML again). The posts have no data:
+ * images, so no uploads are measured. Run with
+ * {@code mvn -Pbenchmark test-compile exec:exec -Djmh.include=PostContentBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PostContentBenchmark {
+
+    private static final String[] WORDS = { "học", "tiếng", "Anh", "giao", "tiếp", "thì", "hiện", "tại", "đơn",
+            "present", "simple", "grammar", "vocabulary", "luyện", "nghe", "nói", "đọc", "viết", "câu", "ví", "dụ",
+            "của", "và", "là", "không", "bài", "tập", "speaking", "listening", "IELTS" };
+
+    @Param({ "50", "200", "500" })
+    public int sizeKb;
+
+    private HtmlImageProcessor processor;
+    private String html;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StorageService storage = (StorageService) Proxy.newProxyInstance(StorageService.class.getClassLoader(),
+                new Class<?>[] { StorageService.class }, (proxy, method, args) -> {
+                    throw new UnsupportedOperationException("benchmark posts have no inline images");
+                });
+        processor = new HtmlImageProcessor(storage, 1, 1, 60);
+        html = editorPost(sizeKb * 1024, new Random(42));
+    }
+
+    @Benchmark
+    public ProcessedContent singleWalk() {
+        return processor.processContent(html);
+    }
+
+    @Benchmark
+    public void legacyMultiPass(Blackhole blackhole) {
+        String processed = processor.process(html);
+        blackhole.consume(processed);
+        blackhole.consume(Jsoup.parse(processed).text());
+        blackhole.consume(TagUtils.extractTagsAsPipe(processed));
+        blackhole.consume(Math.max(1, countWords(processed) / 200));
+    }
+
+    // AppUtils.countWords as PostServiceImpl used it.
+    private static int countWords(String html) {
+        String text = Jsoup.parse(html).text();
+        if (text.isBlank())
+            return 0;
+        return text.trim().split("\\s+").length;
+    }
+
+    // Quill-shaped markup: headings, aligned and coloured paragraphs with links
+    // and hashtags, lists, code blocks, hosted images and the odd video.
+    private static String editorPost(int targetBytes, Random random) {
+        StringBuilder post = new StringBuilder(targetBytes + 1024);
+        int block = 0;
+        while (post.length() < targetBytes) {
+            switch (block++ % 8) {
+                case 0 -> post.append("<h2 class=\"ql-align-center\">").append(sentence(random, 6)).append("</h2>");
+                case 3 -> {
+                    post.append("<ol>");
+                    for (int i = 0; i < 5; i++) {
+                        post.append("<li data-list=\"bullet\" class=\"ql-indent-").append(i % 2).append("\">")
+                                .append(sentence(random, 10)).append("</li>");
+                    }
+                    post.append("</ol>");
+                }
+                case 5 -> post.append("<pre class=\"ql-syntax\" spellcheck=\"false\">")
+                        .append("for (int i = 0; i &lt; n; i++) {\n    total += i;\n}").append("</pre>");
+                case 6 -> post.append("<p><img class=\"ql-image\" src=\"https://res.cloudinary.com/demo/image/upload/")
+                        .append(random.nextInt(100_000)).append(".jpg\"></p>");
+                case 7 -> {
+                    if (random.nextInt(4) == 0)
+                        post.append("<iframe class=\"ql-video\" frameborder=\"0\" allowfullscreen=\"true\" ")
+                                .append("src=\"https://www.youtube.com/embed/").append(random.nextInt(1000))
+                                .append("\"></iframe>");
+                    else
+                        post.append("<p><br></p>");
+                }
+                default -> post.append("<p class=\"ql-align-justify\">").append(sentence(random, 25))
+                        .append(" <span style=\"color: rgb(230, 0, 0);\">").append(sentence(random, 4))
+                        .append("</span> <a href=\"/courses/").append(random.nextInt(500))
+                        .append("\" rel=\"noopener noreferrer\" target=\"_blank\">").append(sentence(random, 3))
+                        .append("</a> <strong>").append(sentence(random, 3)).append("</strong> #")
+                        .append(WORDS[random.nextInt(WORDS.length)].toLowerCase()).append(' ')
+                        .append(sentence(random, 20)).append("</p>");
+            }
+        }
+        return post.toString();
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0)
+                sentence.append(' ');
+            sentence.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sentence.toString();
+    }
+}
@@ -0,0 +1,92 @@
+package elearningspringboot.benchmark;
+
+import elearningspringboot.ELearningSpringBootApplication;
+import elearningspringboot.configuration.AuthenticatedUser;
+import elearningspringboot.dto.response.CourseResponse;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-stage cost of an authenticated request, in nanoseconds, against the
+ * application context running on H2 (profile "benchmark"). Run with
+ * {@code mvn -Pbenchmark test-compile exec:exec}; pass
+ * {@code -Djmh.include=SecurityPathBenchmark.tokenParse} to pick one stage.
+ * The state is per thread because the security context is thread-bound.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SecurityPathBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private SecurityPathFixture fixture;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(ELearningSpringBootApplication.class)
+                .profiles("benchmark")
+                .run();
+        fixture = SecurityPathFixture.create(context);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+    @Benchmark
+    public Claims tokenParse() {
+        return fixture.parseToken();
+    }
+
+    @Benchmark
+    public AuthenticatedUser userLookup() {
+        return fixture.lookupUser();
+    }
+
+    @Benchmark
+    public boolean whitelistCheck() {
+        return fixture.checkWhitelist();
+    }
+
+    @Benchmark
+    public Long userIdFromContext() {
+        return fixture.userIdFromContext();
+    }
+
+    @Benchmark
+    public boolean spelAuthorization() {
+        return fixture.authorizeGetById();
+    }
+
+    @Benchmark
+    public CourseResponse getById() {
+        return fixture.getById();
+    }
+
+    // FilterChainProxy installs and clears its own security context per request.
+    @Benchmark
+    public int filterChain() throws Exception {
+        return fixture.filterChain();
+    }
+}
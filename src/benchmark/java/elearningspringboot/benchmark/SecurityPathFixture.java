@@ -0,0 +1,174 @@
+package elearningspringboot.benchmark;
+
+import elearningspringboot.configuration.AuthenticatedUser;
+import elearningspringboot.dto.response.CourseResponse;
+import elearningspringboot.entity.Course;
+import elearningspringboot.entity.User;
+import elearningspringboot.enumeration.Gender;
+import elearningspringboot.enumeration.Status;
+import elearningspringboot.enumeration.StatusCourse;
+import elearningspringboot.enumeration.TokenType;
+import elearningspringboot.enumeration.UserRole;
+import elearningspringboot.repository.CourseRepository;
+import elearningspringboot.repository.RoleRepository;
+import elearningspringboot.repository.UserRepository;
+import elearningspringboot.service.CourseService;
+import elearningspringboot.service.JwtService;
+import elearningspringboot.service.PrincipalCacheService;
+import elearningspringboot.service.WhitelistTokenService;
+import elearningspringboot.service.impl.CourseServiceImpl;
+import elearningspringboot.util.AppUtils;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.Filter;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.context.ApplicationContext;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.access.expression.ExpressionUtils;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.prepost.PostAuthorize;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.lang.reflect.Method;
+
+/**
+ * A teacher, one of their courses and a whitelisted access token in the
+ * benchmark database, plus one method per stage of an authenticated request:
+ * token parse, user lookup, whitelist check, SpEL authorization of
+ * CourseServiceImpl.getById, and the whole filter chain. The JMH benchmark
+ * and the integration benchmark both drive these, so they measure the same
+ * calls the application makes.
+ */
+final class SecurityPathFixture {
+
+    static final String TEACHER_EMAIL = "benchmark-teacher@example.com";
+
+    private final JwtService jwtService;
+    private final PrincipalCacheService principalCacheService;
+    private final WhitelistTokenService whitelistTokenService;
+    private final CourseService courseService;
+    private final Filter springSecurityFilterChain;
+
+    private final DefaultMethodSecurityExpressionHandler expressionHandler;
+    private final Expression postAuthorize;
+    private final MethodInvocation getByIdInvocation;
+
+    private final String accessToken;
+    private final Long courseId;
+    private final Authentication authentication;
+    private final CourseResponse course;
+
+    private SecurityPathFixture(ApplicationContext context) throws NoSuchMethodException {
+        this.jwtService = context.getBean(JwtService.class);
+        this.principalCacheService = context.getBean(PrincipalCacheService.class);
+        this.whitelistTokenService = context.getBean(WhitelistTokenService.class);
+        this.courseService = context.getBean(CourseService.class);
+        this.springSecurityFilterChain = context.getBean("springSecurityFilterChain", Filter.class);
+
+        User teacher = saveTeacher(context);
+        this.courseId = saveCourse(context, teacher).getId();
+
+        AuthenticatedUser principal = principalCacheService.loadPrincipal(TEACHER_EMAIL);
+        this.accessToken = jwtService.issueAccessToken(principal).token();
+        whitelistTokenService.createToken(accessToken, TokenType.ACCESS_TOKEN, TEACHER_EMAIL);
+        this.authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+
+        // The same expression and handler defaults @EnableMethodSecurity applies to getById.
+        Method getById = CourseServiceImpl.class.getMethod("getById", Long.class);
+        this.expressionHandler = new DefaultMethodSecurityExpressionHandler();
+        this.expressionHandler.setApplicationContext(context);
+        this.postAuthorize = expressionHandler.getExpressionParser()
+                .parseExpression(getById.getAnnotation(PostAuthorize.class).value());
+        this.getByIdInvocation = new SimpleMethodInvocation(context.getBean(CourseServiceImpl.class), getById, courseId);
+
+        authenticate();
+        this.course = courseService.getById(courseId);
+    }
+
+    static SecurityPathFixture create(ApplicationContext context) {
+        try {
+            return new SecurityPathFixture(context);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("CourseServiceImpl.getById(Long) is gone", e);
+        }
+    }
+
+    // Puts the teacher into the calling thread's security context.
+    void authenticate() {
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
+    Long courseId() {
+        return courseId;
+    }
+
+    String bearer() {
+        return "Bearer " + accessToken;
+    }
+
+    Claims parseToken() {
+        return jwtService.extractAllClaims(accessToken, TokenType.ACCESS_TOKEN);
+    }
+
+    AuthenticatedUser lookupUser() {
+        return principalCacheService.loadPrincipal(TEACHER_EMAIL);
+    }
+
+    boolean checkWhitelist() {
+        return whitelistTokenService.existsByToken(accessToken);
+    }
+
+    Long userIdFromContext() {
+        return AppUtils.getUserIdFromSecurityContext();
+    }
+
+    boolean authorizeGetById() {
+        EvaluationContext context = expressionHandler.createEvaluationContext(authentication, getByIdInvocation);
+        expressionHandler.setReturnObject(course, context);
+        return ExpressionUtils.evaluateAsBoolean(postAuthorize, context);
+    }
+
+    // getById through its proxy: @PostAuthorize plus the outline lookup.
+    CourseResponse getById() {
+        return courseService.getById(courseId);
+    }
+
+    // GET /api/v1/courses/{id} through SecurityConfig.securityFilterChain,
+    // stopping where the DispatcherServlet would take over.
+    int filterChain() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/courses/" + courseId);
+        request.addHeader("Authorization", bearer());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        springSecurityFilterChain.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    private static User saveTeacher(ApplicationContext context) {
+        UserRepository users = context.getBean(UserRepository.class);
+        return users.findByEmail(TEACHER_EMAIL).orElseGet(() -> users.save(User.builder()
+                .fullName("Benchmark Teacher")
+                .email(TEACHER_EMAIL)
+                .noPassword(true)
+                .status(Status.ACTIVE)
+                .gender(Gender.MALE)
+                .role(context.getBean(RoleRepository.class).findByRole(UserRole.TEACHER).orElseThrow())
+                .build()));
+    }
+
+    private static Course saveCourse(ApplicationContext context, User teacher) {
+        Course course = new Course();
+        course.setTitle("Benchmark course");
+        course.setStatus(StatusCourse.HIDDEN);
+        course.setPrice(0.0);
+        course.setIsFree(true);
+        course.setCommissionRate(0.3);
+        course.setTeacher(teacher);
+        return context.getBean(CourseRepository.class).save(course);
+    }
+}
@@ -0,0 +1,107 @@
+package elearningspringboot.benchmark;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Walks GET /api/v1/courses/{id} as the course's teacher against H2 and
+ * prints the p50, p99 and mean nanoseconds of each stage, from token parse
+ * to the full MockMvc request. The numbers are for comparing runs on one
+ * machine; the assertions only check that every stage takes the happy path.
+ * Run with {@code mvn -Pbenchmark test -Dtest=SecurityPathIntegrationBenchmarkTest}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("benchmark")
+class SecurityPathIntegrationBenchmarkTest {
+
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 10_000;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private SecurityPathFixture fixture;
+
+    @BeforeEach
+    void setUp() {
+        fixture = SecurityPathFixture.create(context);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void reportsNanosPerStage() throws Exception {
+        RequestBuilder request = get("/api/v1/courses/{id}", fixture.courseId())
+                .header("Authorization", fixture.bearer());
+        mockMvc.perform(request).andExpect(status().isOk());
+        assertThat(fixture.filterChain()).isEqualTo(200);
+
+        fixture.authenticate();
+        assertThat(fixture.parseToken().getSubject()).isEqualTo(SecurityPathFixture.TEACHER_EMAIL);
+        assertThat(fixture.checkWhitelist()).isTrue();
+        assertThat(fixture.authorizeGetById()).isTrue();
+        Long teacherId = fixture.lookupUser().getId();
+        assertThat(fixture.userIdFromContext()).isEqualTo(teacherId);
+
+        Map<String, long[]> samples = new LinkedHashMap<>();
+        samples.put("token parse", measure(fixture::parseToken));
+        samples.put("user lookup", measure(fixture::lookupUser));
+        samples.put("whitelist check", measure(fixture::checkWhitelist));
+        samples.put("user id from context", measure(fixture::userIdFromContext));
+        samples.put("SpEL authorization", measure(fixture::authorizeGetById));
+        samples.put("getById (proxied)", measure(fixture::getById));
+        samples.put("security filter chain", measure(fixture::filterChain));
+        samples.put("full request", measure(() -> mockMvc.perform(request).andReturn()));
+
+        StringBuilder report = new StringBuilder(String.format("%n%-24s %12s %12s %12s%n", "stage", "p50 ns", "p99 ns", "mean ns"));
+        samples.forEach((stage, nanos) -> report.append(String.format("%-24s %12d %12d %12d%n",
+                stage, percentile(nanos, 50), percentile(nanos, 99), (long) Arrays.stream(nanos).average().orElse(0))));
+        System.out.println(report);
+    }
+
+    // The filter chain clears the security context, so every sample starts authenticated again.
+    private long[] measure(Callable<?> stage) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            fixture.authenticate();
+            stage.call();
+        }
+        long[] nanos = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            fixture.authenticate();
+            long start = System.nanoTime();
+            stage.call();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+    }
+}
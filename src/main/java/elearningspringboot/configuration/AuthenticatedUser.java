@@ -0,0 +1,49 @@
+package elearningspringboot.configuration;
+
+import elearningspringboot.entity.User;
+import elearningspringboot.enumeration.Status;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Slim, immutable principal placed in the security context by
+ * {@link JwtAuthenticationFilter}. It carries only what authorization needs,
+ * so it can be cached without holding on to the User entity graph.
+ */
+@Getter
+public final class AuthenticatedUser implements UserDetails {
+    private final Long id;
+    private final String email;
+    private final Status status;
+    private final List<GrantedAuthority> authorities;
+
+    public AuthenticatedUser(Long id, String email, Status status, Collection<? extends GrantedAuthority> authorities) {
+        this.id = id;
+        this.email = email;
+        this.status = status;
+        this.authorities = List.copyOf(authorities);
+    }
+
+    public static AuthenticatedUser from(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getStatus(), user.getAuthorities());
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return this.email;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return this.status == Status.ACTIVE || this.status == Status.PENDING;
+    }
+}
@@ -0,0 +1,121 @@
+package elearningspringboot.configuration;
+
+import elearningspringboot.dto.response.PasswordEncoderStatsResponse;
+import elearningspringboot.exception.ServiceBusyException;
+import elearningspringboot.util.LatencyHistogram;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * BCrypt encoder that runs every hash and verify on a small dedicated pool
+ * with a bounded queue. When the queue is full the caller gets a
+ * ServiceBusyException straight away instead of piling up on the CPU, so a
+ * login storm cannot tie up every request thread. The queue bounds the wait
+ * too: an accepted caller waits for at most queue-capacity / threads hashes
+ * ahead of its own. There is no separate timeout, because a BCrypt round
+ * cannot be interrupted once it has started.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder rejected = new LongAdder();
+    private final LatencyHistogram encodeLatency = new LatencyHistogram();
+    private final LatencyHistogram matchesLatency = new LatencyHistogram();
+
+    public BoundedPasswordEncoder(int strength, int threads, int queueCapacity) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+        this.queueCapacity = queueCapacity;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword), encodeLatency);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword), matchesLatency);
+    }
+
+    // True when the stored hash was made with a lower cost than the configured
+    // one; DaoAuthenticationProvider then re-encodes it after a successful login.
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public PasswordEncoderStatsResponse stats() {
+        return PasswordEncoderStatsResponse.builder()
+                .strength(strength)
+                .threads(executor.getMaximumPoolSize())
+                .queueCapacity(queueCapacity)
+                .queueDepth(executor.getQueue().size())
+                .activeCount(executor.getActiveCount())
+                .rejectedCount(rejected.sum())
+                .latencies(List.of(encodeLatency.snapshot("encode"), matchesLatency.snapshot("matches")))
+                .build();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private <T> T execute(Callable<T> task, LatencyHistogram latency) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    latency.record(System.nanoTime() - start);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Password hashing queue is full ({} pending), rejecting request", executor.getQueue().size());
+            throw new ServiceBusyException("Password hashing queue is full", e);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            // Keeps a still-queued hash from running; one already running finishes regardless.
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
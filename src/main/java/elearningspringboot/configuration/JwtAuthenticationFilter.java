@@ -1,19 +1,22 @@
 package elearningspringboot.configuration;
 
-import elearningspringboot.entity.User;
+import elearningspringboot.enumeration.AccessTokenMode;
 import elearningspringboot.enumeration.TokenType;
 import elearningspringboot.exception.InvalidTokenException;
 import elearningspringboot.service.JwtService;
+import elearningspringboot.service.PrincipalCacheService;
+import elearningspringboot.service.TokenRevocationService;
 import elearningspringboot.service.WhitelistTokenService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -26,8 +29,12 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final PrincipalCacheService principalCacheService;
     private final WhitelistTokenService whitelistTokenService;
+    private final TokenRevocationService tokenRevocationService;
+
+    @Value("${jwt.access-token-mode:WHITELIST}")
+    private AccessTokenMode accessTokenMode;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -44,18 +51,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             String token = authHeader.substring(7);
-            String email = jwtService.extractEmail(token, TokenType.ACCESS_TOKEN);
+            Claims claims = jwtService.extractAllClaims(token, TokenType.ACCESS_TOKEN);
+            String email = claims.getSubject();
 
             if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                User userDetails = (User) userDetailsService.loadUserByUsername(email);
+                AuthenticatedUser principal = principalCacheService.loadPrincipal(email);
 
-                if (jwtService.isTokenValid(token, userDetails, TokenType.ACCESS_TOKEN)
-                        && whitelistTokenService.existsByToken(token)) {
+                if (jwtService.isTokenValid(claims, principal, TokenType.ACCESS_TOKEN)
+                        && isNotRevoked(token, claims)) {
 
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
+                            principal,
                             null,
-                            userDetails.getAuthorities());
+                            principal.getAuthorities());
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
@@ -68,4 +76,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private boolean isNotRevoked(String token, Claims claims) {
+        if (accessTokenMode == AccessTokenMode.STATELESS) {
+            return !tokenRevocationService.isRevoked(claims);
+        }
+        return whitelistTokenService.existsByToken(token);
+    }
 }
@@ -0,0 +1,58 @@
+package elearningspringboot.configuration;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Makes existing post slugs unique so uk_posts_slug can be created. Empty
+ * slugs become "post-<id>" and every duplicate except the oldest row gets its
+ * id appended. It does nothing once the index exists.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@Order(5)
+public class PostSlugMigration implements CommandLineRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        try {
+            if (uniqueIndexExists()) {
+                return;
+            }
+            migrate();
+        } catch (Exception e) {
+            log.error("Failed to make post slugs unique: {}", e.getMessage());
+        }
+    }
+
+    private boolean uniqueIndexExists() {
+        Integer count = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM information_schema.statistics
+                WHERE table_schema = DATABASE()
+                  AND table_name = 'posts'
+                  AND index_name = 'uk_posts_slug'
+                """, Integer.class);
+        return count != null && count > 0;
+    }
+
+    private void migrate() {
+        int filled = jdbcTemplate.update("UPDATE posts SET slug = CONCAT('post-', id) WHERE slug IS NULL OR slug = ''");
+        int renamed = jdbcTemplate.update("""
+                UPDATE posts p
+                JOIN (SELECT slug, MIN(id) AS keep_id FROM posts GROUP BY slug HAVING COUNT(*) > 1) d
+                  ON p.slug = d.slug AND p.id <> d.keep_id
+                SET p.slug = CONCAT(p.slug, '-', p.id)
+                """);
+        log.info("Filled {} empty and renamed {} duplicate post slugs", filled, renamed);
+
+        jdbcTemplate.execute("CREATE UNIQUE INDEX uk_posts_slug ON posts (slug)");
+        log.info("Created unique index uk_posts_slug");
+    }
+}
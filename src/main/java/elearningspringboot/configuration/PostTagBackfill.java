@@ -0,0 +1,61 @@
+package elearningspringboot.configuration;
+
+import elearningspringboot.repository.PostRepository;
+import elearningspringboot.repository.PostRepository.PostTagSource;
+import elearningspringboot.repository.PostTagRepository;
+import elearningspringboot.service.TagService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * One-off fill of post_tags and tags from the pipe-joined Post.tags column for
+ * posts written before the tag tables existed. It does nothing once post_tags
+ * has rows.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@Order(10)
+public class PostTagBackfill implements CommandLineRunner {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final PostRepository postRepository;
+    private final PostTagRepository postTagRepository;
+    private final TagService tagService;
+
+    @Override
+    public void run(String... args) {
+        try {
+            if (postTagRepository.count() > 0) {
+                return;
+            }
+            backfill();
+        } catch (Exception e) {
+            log.error("Failed to backfill post tags: {}", e.getMessage());
+        }
+    }
+
+    private void backfill() {
+        long lastId = 0;
+        int total = 0;
+        List<PostTagSource> batch;
+        do {
+            batch = postRepository.findTagSourcesAfter(lastId, PageRequest.of(0, BATCH_SIZE));
+            for (PostTagSource source : batch) {
+                tagService.syncPostTags(source.getId(), source.getTags(), source.getStatus());
+                lastId = source.getId();
+            }
+            total += batch.size();
+        } while (batch.size() == BATCH_SIZE);
+        if (total > 0) {
+            log.info("Backfilled tags for {} posts", total);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package elearningspringboot.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * The short periodic jobs (view flushes, token purges, cleanup) run on
+ * "taskScheduler", sized by spring.task.scheduling. The index and aggregate
+ * rebuilds can take minutes, so they name "rebuildScheduler" in their
+ * {@code @Scheduled} and never hold a thread the short jobs are waiting for.
+ * {@code @Async} methods (mail sending) run on "taskExecutor", sized by
+ * spring.task.execution.
+ */
+@Configuration
+public class SchedulingConfig {
+
+    public static final String REBUILD_SCHEDULER = "rebuildScheduler";
+
+    // Declared here because Boot backs off from its own scheduler once any other TaskScheduler bean exists.
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    // Both schedulers are Executors, so Boot no longer creates applicationTaskExecutor either, and without a bean
+    // named "taskExecutor" @Async would fall back to a new thread per call.
+    @Bean
+    public ThreadPoolTaskExecutor taskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(REBUILD_SCHEDULER)
+    public ThreadPoolTaskScheduler rebuildScheduler(@Value("${rebuild-scheduler.pool-size:3}") int poolSize) {
+        return new ThreadPoolTaskSchedulerBuilder()
+                .poolSize(poolSize)
+                .threadNamePrefix("rebuild-")
+                .build();
+    }
+}
@@ -0,0 +1,86 @@
+package elearningspringboot.configuration;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * One-off migration from the raw VARCHAR whitelist_token.token column to the
+ * fixed-width token_hash column. Existing rows are hashed in place with the
+ * same digest as TokenHashUtils.sha256, then the old column (and its wide
+ * unique index) is dropped. It does nothing once the old column is gone.
+ * It runs while the context is still being created, right after Hibernate
+ * has added token_hash and before the web server accepts sign-ins, and a
+ * failure aborts startup: with the old NOT NULL column in place every new
+ * whitelist INSERT would fail anyway.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class WhitelistTokenMigration implements InitializingBean {
+
+    private static final int BATCH_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        try {
+            if (!legacyColumnExists()) {
+                return;
+            }
+            migrate();
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to migrate whitelist tokens to hashed storage", e);
+        }
+    }
+
+    private boolean legacyColumnExists() {
+        Integer count = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM information_schema.columns
+                WHERE table_schema = DATABASE()
+                  AND table_name = 'whitelist_token'
+                  AND column_name = 'token'
+                """, Integer.class);
+        return count != null && count > 0;
+    }
+
+    // Walks id ranges rather than "token_hash IS NULL": Hibernate adds the NOT
+    // NULL column to existing rows with an all-zero value, not NULL.
+    private void migrate() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM whitelist_token", Long.class);
+        long total = 0;
+        for (long from = 1; maxId != null && from <= maxId; from += BATCH_SIZE) {
+            total += jdbcTemplate.update("""
+                    UPDATE whitelist_token SET token_hash = UNHEX(SHA2(token, 256))
+                    WHERE id BETWEEN ? AND ? AND token IS NOT NULL
+                    """, from, from + BATCH_SIZE - 1);
+        }
+        // Rows without a raw token can never be presented again.
+        jdbcTemplate.update("DELETE FROM whitelist_token WHERE token IS NULL");
+        log.info("Hashed {} existing whitelist tokens", total);
+
+        jdbcTemplate.execute("ALTER TABLE whitelist_token DROP COLUMN token");
+        log.info("Dropped legacy whitelist_token.token column");
+
+        // Hibernate could not create it while every existing row held the same zero hash.
+        if (!uniqueIndexExists()) {
+            jdbcTemplate.execute("ALTER TABLE whitelist_token ADD CONSTRAINT uk_whitelist_token_hash UNIQUE (token_hash)");
+            log.info("Created unique index uk_whitelist_token_hash");
+        }
+    }
+
+    private boolean uniqueIndexExists() {
+        Integer count = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM information_schema.statistics
+                WHERE table_schema = DATABASE()
+                  AND table_name = 'whitelist_token'
+                  AND index_name = 'uk_whitelist_token_hash'
+                """, Integer.class);
+        return count != null && count > 0;
+    }
+}
@@ -56,6 +56,13 @@ public class AuthenticationController {
         return ResponseBuilder.noData(HttpStatus.OK, message);
     }
 
+    @PostMapping("/sign-out-all")
+    public ResponseEntity<ResponseData<Void>> signOutAll(@RequestHeader("Y-Token") String refreshToken) {
+        authenticationService.signOutAll(refreshToken);
+        String message = messageSource.getMessage("auth.logout.all.success", null, LocaleContextHolder.getLocale());
+        return ResponseBuilder.noData(HttpStatus.OK, message);
+    }
+
     @PostMapping("/sign-up")
     public ResponseEntity<ResponseData<UserResponse>> registerUser(
             @RequestBody @Validated({ OnCreate.class, Default.class }) UserRequest request)
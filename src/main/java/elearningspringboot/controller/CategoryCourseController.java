@@ -5,6 +5,7 @@ import elearningspringboot.dto.response.CategoryCourseResponse;
 import elearningspringboot.dto.response.PageResponse;
 import elearningspringboot.dto.response.ResponseData;
 import elearningspringboot.service.CategoryCourseService;
+import elearningspringboot.service.SlugService;
 import elearningspringboot.util.ResponseBuilder;
 import elearningspringboot.validation.OnCreate;
 import elearningspringboot.validation.OnUpdate;
@@ -30,6 +31,7 @@ import java.util.List;
 public class CategoryCourseController {
 
         private final CategoryCourseService service;
+        private final SlugService slugService;
         private final MessageSource messageSource;
 
         @GetMapping
@@ -59,6 +61,15 @@ public class CategoryCourseController {
                 return ResponseBuilder.withData(HttpStatus.OK, message, dto);
         }
 
+        @GetMapping("/slug/{slug}")
+        public ResponseEntity<ResponseData<CategoryCourseResponse>> getBySlug(@PathVariable("slug") String slug) {
+                log.info("Request: Get category course by slug = {}", slug);
+                CategoryCourseResponse dto = service.getById(slugService.resolveCategoryCourseId(slug));
+                String message = messageSource.getMessage("categoryCourse.get.success", null,
+                                LocaleContextHolder.getLocale());
+                return ResponseBuilder.withData(HttpStatus.OK, message, dto);
+        }
+
         @PostMapping
         @PreAuthorize("hasRole('ADMIN')")
         public ResponseEntity<ResponseData<CategoryCourseResponse>> create(
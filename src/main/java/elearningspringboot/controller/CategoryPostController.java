@@ -5,6 +5,7 @@ import elearningspringboot.dto.response.CategoryPostResponse;
 import elearningspringboot.dto.response.PageResponse;
 import elearningspringboot.dto.response.ResponseData;
 import elearningspringboot.service.CategoryPostService;
+import elearningspringboot.service.SlugService;
 import elearningspringboot.util.ResponseBuilder;
 import elearningspringboot.validation.OnCreate;
 import elearningspringboot.validation.OnUpdate;
@@ -30,6 +31,7 @@ import java.util.List;
 public class CategoryPostController {
 
     private final CategoryPostService service;
+    private final SlugService slugService;
     private final MessageSource messageSource;
 
     @GetMapping
@@ -56,6 +58,14 @@ public class CategoryPostController {
         return ResponseBuilder.withData(HttpStatus.OK, message, dto);
     }
 
+    @GetMapping("/slug/{slug}")
+    public ResponseEntity<ResponseData<CategoryPostResponse>> getBySlug(@PathVariable("slug") String slug) {
+        log.info("Request: Get category post by slug = {}", slug);
+        CategoryPostResponse dto = service.getById(slugService.resolveCategoryPostId(slug));
+        String message = messageSource.getMessage("categoryPost.get.success", null, LocaleContextHolder.getLocale());
+        return ResponseBuilder.withData(HttpStatus.OK, message, dto);
+    }
+
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ResponseData<CategoryPostResponse>> create(
@@ -1,6 +1,7 @@
 package elearningspringboot.controller;
 
 import elearningspringboot.dto.request.ChangeOrderRequest;
+import elearningspringboot.dto.request.MoveOrderRequest;
 import elearningspringboot.dto.request.ChapterRequest;
 import elearningspringboot.dto.response.ChapterResponse;
 import elearningspringboot.dto.response.ResponseData;
@@ -8,6 +9,7 @@ import elearningspringboot.service.ChapterService;
 import elearningspringboot.util.ResponseBuilder;
 import elearningspringboot.validation.OnCreate;
 import elearningspringboot.validation.OnUpdate;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.groups.Default;
 import lombok.RequiredArgsConstructor;
@@ -74,6 +76,18 @@ public class ChapterController {
         return ResponseBuilder.noData(HttpStatus.OK, message);
     }
 
+    @PatchMapping("/order/{courseId}/move")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<ResponseData<Void>> moveOrder(
+            @PathVariable("courseId") @Min(value = 1, message = "{validation.id.min}") Long id,
+            @Valid @RequestBody MoveOrderRequest request) {
+        log.info("Request: Move chapter id={} after id={} in course id={}", request.getId(), request.getAfterId(), id);
+        service.moveOrder(id, request);
+        String message = messageSource.getMessage("chapter.update.order.success", null,
+                LocaleContextHolder.getLocale());
+        return ResponseBuilder.noData(HttpStatus.OK, message);
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
     public ResponseEntity<ResponseData<ChapterResponse>> update(
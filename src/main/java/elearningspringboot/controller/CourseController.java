@@ -4,6 +4,9 @@ import elearningspringboot.dto.request.CourseRequest;
 import elearningspringboot.dto.response.CourseResponse;
 import elearningspringboot.dto.response.PageResponse;
 import elearningspringboot.dto.response.ResponseData;
+import elearningspringboot.enumeration.CatalogSort;
+import elearningspringboot.enumeration.DurationBucket;
+import elearningspringboot.enumeration.PriceBucket;
 import elearningspringboot.enumeration.StatusCourse;
 import elearningspringboot.service.CourseService;
 import elearningspringboot.util.AppUtils;
@@ -68,12 +71,36 @@ public class CourseController {
             @RequestParam(required = false) List<String> sorts,
             @RequestParam(defaultValue = "") String keyword,
             @RequestParam(required = false) Long categoryId,
-            @RequestParam(required = false) Long teacherId) {
+            @RequestParam(required = false) Long teacherId,
+            @RequestParam(required = false) String cursor) {
         log.info("Request: Get courses pageNumber={}, pageSize={}, sorts={}, keyword={}", pageNumber, pageSize, sorts,
                 keyword);
-        PageResponse<List<CourseResponse>> response = service.getAllWithPagination(pageNumber, pageSize, sorts, keyword,
-                categoryId,
-                teacherId, StatusCourse.PUBLIC);
+        // Any cursor parameter, even an empty one for the first page, switches to keyset paging.
+        PageResponse<List<CourseResponse>> response = cursor != null
+                ? service.getByCursor(cursor, Math.min(pageSize, 50), sorts, keyword, categoryId, teacherId,
+                        StatusCourse.PUBLIC)
+                : service.getAllWithPagination(pageNumber, pageSize, sorts, keyword, categoryId, teacherId,
+                        StatusCourse.PUBLIC);
+        String message = messageSource.getMessage("course.get.list.success", null, LocaleContextHolder.getLocale());
+        return ResponseBuilder.withData(HttpStatus.OK, message, response);
+    }
+
+    @GetMapping("/public/catalog")
+    public ResponseEntity<ResponseData<PageResponse<List<CourseResponse>>>> searchCatalog(
+            @RequestParam(defaultValue = "1") @Min(value = 1, message = "{validation.page.number.min}") int pageNumber,
+            @RequestParam(defaultValue = "12") @Min(value = 1, message = "{validation.page.size.min}") int pageSize,
+            @RequestParam(defaultValue = "") String keyword,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long teacherId,
+            @RequestParam(required = false) PriceBucket priceBucket,
+            @RequestParam(required = false) Boolean free,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(required = false) DurationBucket durationBucket,
+            @RequestParam(defaultValue = "POPULAR") CatalogSort sort) {
+        log.info("Request: Search course catalog pageNumber={}, pageSize={}, keyword={}, sort={}", pageNumber,
+                pageSize, keyword, sort);
+        PageResponse<List<CourseResponse>> response = service.searchCatalog(pageNumber, Math.min(pageSize, 50),
+                keyword, categoryId, teacherId, priceBucket, free, minRating, durationBucket, sort);
         String message = messageSource.getMessage("course.get.list.success", null, LocaleContextHolder.getLocale());
         return ResponseBuilder.withData(HttpStatus.OK, message, response);
     }
@@ -138,6 +165,28 @@ public class CourseController {
         return ResponseBuilder.withData(HttpStatus.OK, message, dtoList);
     }
 
+    @GetMapping("/public/{courseId}/also-taken")
+    public ResponseEntity<ResponseData<List<CourseResponse>>> getAlsoTaken(
+            @PathVariable @Min(value = 1, message = "{validation.id.min}") Long courseId,
+            @RequestParam(defaultValue = "6") @Min(value = 1, message = "{validation.count.min}") int n) {
+        log.info("Request: Get courses also taken with course id={}, n={}", courseId, n);
+        List<CourseResponse> dtoList = service.getAlsoTaken(courseId, Math.min(n, 20));
+        String message = messageSource.getMessage("course.get.recommendations.success", null,
+                LocaleContextHolder.getLocale());
+        return ResponseBuilder.withData(HttpStatus.OK, message, dtoList);
+    }
+
+    @GetMapping("/recommended")
+    public ResponseEntity<ResponseData<List<CourseResponse>>> getRecommended(
+            @RequestParam(defaultValue = "8") @Min(value = 1, message = "{validation.count.min}") int n) {
+        Long studentId = AppUtils.getUserIdFromSecurityContext();
+        log.info("Request: Get recommended courses for user id={}, n={}", studentId, n);
+        List<CourseResponse> dtoList = service.getRecommended(studentId, Math.min(n, 20));
+        String message = messageSource.getMessage("course.get.recommendations.success", null,
+                LocaleContextHolder.getLocale());
+        return ResponseBuilder.withData(HttpStatus.OK, message, dtoList);
+    }
+
     @PostMapping("/by-ids")
     public ResponseEntity<ResponseData<List<CourseResponse>>> getCoursesByIds(
             @RequestBody Map<String, List<Long>> payload) {
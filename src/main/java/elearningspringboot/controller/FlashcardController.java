@@ -35,9 +35,13 @@ public class FlashcardController {
             @RequestParam(defaultValue = "10") @Min(1) int size,
             @RequestParam(required = false) String keyword,
             @RequestParam(required = false) String category,
-            @RequestParam(defaultValue = "newest") String sort
+            @RequestParam(defaultValue = "newest") String sort,
+            @RequestParam(required = false) String cursor
     ) {
-        var result = service.getAll(page, size, keyword, category, sort);
+        // Có tham số cursor (kể cả rỗng cho trang đầu) thì phân trang theo keyset, luôn mới nhất trước
+        var result = cursor != null
+                ? service.getAllByCursor(cursor, Math.min(size, 50), keyword, category)
+                : service.getAll(page, size, keyword, category, sort);
         return ResponseBuilder.withData(HttpStatus.OK, "Lấy danh sách thành công", result);
     }
 
@@ -1,6 +1,7 @@
 package elearningspringboot.controller;
 
 import elearningspringboot.dto.request.ChangeOrderRequest;
+import elearningspringboot.dto.request.MoveOrderRequest;
 import elearningspringboot.dto.request.LessonRequest;
 import elearningspringboot.dto.response.LessonResponse;
 import elearningspringboot.dto.response.ResponseData;
@@ -8,6 +9,7 @@ import elearningspringboot.service.LessonService;
 import elearningspringboot.util.ResponseBuilder;
 import elearningspringboot.validation.OnCreate;
 import elearningspringboot.validation.OnUpdate;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.groups.Default;
 import lombok.RequiredArgsConstructor;
@@ -89,6 +91,18 @@ public class LessonController {
         return ResponseBuilder.noData(HttpStatus.OK, message);
     }
 
+    @PatchMapping("/order/{chapterId}/move")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<ResponseData<Void>> moveOrder(
+            @PathVariable("chapterId") @Min(value = 1, message = "{validation.id.min}") Long chapterId,
+            @Valid @RequestBody MoveOrderRequest request) {
+        log.info("Request: Move lesson id={} after id={} in chapter id={}", request.getId(), request.getAfterId(),
+                chapterId);
+        service.moveOrder(chapterId, request);
+        String message = messageSource.getMessage("lesson.update.order.success", null, LocaleContextHolder.getLocale());
+        return ResponseBuilder.noData(HttpStatus.OK, message);
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
     public ResponseEntity<ResponseData<Void>> delete(
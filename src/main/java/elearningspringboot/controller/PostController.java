@@ -4,7 +4,10 @@ import elearningspringboot.dto.request.PostRequest;
 import elearningspringboot.dto.response.PageResponse;
 import elearningspringboot.dto.response.PostResponse;
 import elearningspringboot.dto.response.ResponseData;
+import elearningspringboot.dto.response.TagResponse;
 import elearningspringboot.service.PostService;
+import elearningspringboot.service.PostViewService;
+import elearningspringboot.service.SlugService;
 import elearningspringboot.util.AppUtils;
 import elearningspringboot.util.ResponseBuilder;
 import elearningspringboot.validation.OnCreate;
@@ -37,6 +40,8 @@ import java.util.List;
 public class PostController {
 
     private final PostService service;
+    private final PostViewService postViewService;
+    private final SlugService slugService;
     private final MessageSource messageSource;
 
     @GetMapping
@@ -71,9 +76,12 @@ public class PostController {
             @RequestParam(defaultValue = "10") @Min(value = 1, message = "{validation.page.size.min}") int pageSize,
             @RequestParam(required = false) List<String> sorts,
             @RequestParam(defaultValue = "") String keyword,
-            @RequestParam(required = false) Long categoryId) {
-        PageResponse<List<PostResponse>> response = service.getAll(pageNumber, pageSize, sorts, keyword, categoryId,
-                true, null);
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String cursor) {
+        // Any cursor parameter, even an empty one for the first page, switches to keyset paging.
+        PageResponse<List<PostResponse>> response = cursor != null
+                ? service.getPublicByCursor(cursor, Math.min(pageSize, 50), sorts, keyword, categoryId)
+                : service.getAll(pageNumber, pageSize, sorts, keyword, categoryId, true, null);
         String message = messageSource.getMessage("post.get.list.success", null, LocaleContextHolder.getLocale());
         return ResponseBuilder.withData(HttpStatus.OK, message, response);
     }
@@ -83,6 +91,17 @@ public class PostController {
             @PathVariable("id") @Min(value = 1, message = "{validation.id.min}") Long id) {
         log.info("Request: Get post by id = {}", id);
         PostResponse dto = service.getById(id);
+        // Only reads that passed the visibility check are counted.
+        postViewService.recordView(dto.getId());
+        String message = messageSource.getMessage("post.get.success", null, LocaleContextHolder.getLocale());
+        return ResponseBuilder.withData(HttpStatus.OK, message, dto);
+    }
+
+    @GetMapping("/public/slug/{slug}")
+    public ResponseEntity<ResponseData<PostResponse>> getBySlug(@PathVariable("slug") String slug) {
+        log.info("Request: Get post by slug = {}", slug);
+        PostResponse dto = service.getById(slugService.resolvePostId(slug));
+        postViewService.recordView(dto.getId());
         String message = messageSource.getMessage("post.get.success", null, LocaleContextHolder.getLocale());
         return ResponseBuilder.withData(HttpStatus.OK, message, dto);
     }
@@ -157,6 +176,16 @@ public class PostController {
         return ResponseBuilder.withData(HttpStatus.OK, message, data);
     }
 
+    @GetMapping("/public/popular")
+    public ResponseEntity<ResponseData<List<PostResponse>>> getPopularPosts(
+            @RequestParam(defaultValue = "7") @Min(value = 1, message = "{validation.count.min}") int days,
+            @RequestParam(defaultValue = "10") @Min(value = 1, message = "{validation.page.size.min}") int limit) {
+        log.info("Request: Get popular posts for the last {} days with limit={}", days, limit);
+        List<PostResponse> data = service.getPopularPosts(days, Math.min(limit, 50));
+        String message = messageSource.getMessage("post.get.list.success", null, LocaleContextHolder.getLocale());
+        return ResponseBuilder.withData(HttpStatus.OK, message, data);
+    }
+
     @GetMapping("/public/latest")
     public ResponseEntity<ResponseData<List<PostResponse>>> getLatestPosts(
             @RequestParam(defaultValue = "10") @Min(value = 1, message = "{validation.page.size.min}") int limit) {
@@ -166,6 +195,26 @@ public class PostController {
         return ResponseBuilder.withData(HttpStatus.OK, message, data);
     }
 
+    @GetMapping("/public/tags")
+    public ResponseEntity<ResponseData<List<TagResponse>>> getTrendingTags(
+            @RequestParam(defaultValue = "20") @Min(value = 1, message = "{validation.page.size.min}") int limit) {
+        log.info("Request: Get trending tags with limit={}", limit);
+        List<TagResponse> data = service.getTrendingTags(Math.min(limit, 100));
+        String message = messageSource.getMessage("tag.get.list.success", null, LocaleContextHolder.getLocale());
+        return ResponseBuilder.withData(HttpStatus.OK, message, data);
+    }
+
+    @GetMapping("/public/tags/{tag}/posts")
+    public ResponseEntity<ResponseData<PageResponse<List<PostResponse>>>> getPublicPostsByTag(
+            @PathVariable("tag") String tag,
+            @RequestParam(defaultValue = "1") @Min(value = 1, message = "{validation.page.number.min}") int pageNumber,
+            @RequestParam(defaultValue = "10") @Min(value = 1, message = "{validation.page.size.min}") int pageSize) {
+        log.info("Request: Get public posts with tag={}, pageNumber={}, pageSize={}", tag, pageNumber, pageSize);
+        PageResponse<List<PostResponse>> response = service.getPublicByTag(tag, pageNumber, Math.min(pageSize, 50));
+        String message = messageSource.getMessage("post.get.list.success", null, LocaleContextHolder.getLocale());
+        return ResponseBuilder.withData(HttpStatus.OK, message, response);
+    }
+
     @GetMapping("/me")
     public ResponseEntity<ResponseData<PageResponse<List<PostResponse>>>> getMyPosts(
             @RequestParam(defaultValue = "1") @Min(value = 1, message = "{validation.page.number.min}") int pageNumber,
@@ -1,5 +1,8 @@
 package elearningspringboot.controller;
 
+import elearningspringboot.dto.response.CacheStatsResponse;
+import elearningspringboot.dto.response.CleanupRunResponse;
+import elearningspringboot.dto.response.PasswordEncoderStatsResponse;
 import elearningspringboot.dto.response.DashboardStatisticsResponse;
 import elearningspringboot.dto.response.ResponseData;
 import elearningspringboot.service.StatisticsService;
@@ -12,6 +15,8 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/statistics")
 @RequiredArgsConstructor
@@ -25,4 +30,25 @@ public class StatisticsController {
         DashboardStatisticsResponse stats = statisticsService.getDashboardStatistics();
         return ResponseBuilder.withData(HttpStatus.OK, "Lấy thống kê thành công", stats);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/caches")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseData<List<CacheStatsResponse>>> getCacheStats() {
+        List<CacheStatsResponse> stats = statisticsService.getCacheStatistics();
+        return ResponseBuilder.withData(HttpStatus.OK, "Lấy thống kê cache thành công", stats);
+    }
+
+    @GetMapping("/password-encoder")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseData<PasswordEncoderStatsResponse>> getPasswordEncoderStats() {
+        PasswordEncoderStatsResponse stats = statisticsService.getPasswordEncoderStatistics();
+        return ResponseBuilder.withData(HttpStatus.OK, "Lấy thống kê mã hoá mật khẩu thành công", stats);
+    }
+
+    @GetMapping("/cleanup")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseData<List<CleanupRunResponse>>> getCleanupRuns() {
+        List<CleanupRunResponse> runs = statisticsService.getCleanupRuns();
+        return ResponseBuilder.withData(HttpStatus.OK, "Lấy thống kê dọn dẹp thành công", runs);
+    }
+}
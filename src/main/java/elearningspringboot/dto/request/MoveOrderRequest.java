@@ -0,0 +1,14 @@
+package elearningspringboot.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class MoveOrderRequest {
+    @NotNull(message = "{validation.order.id.notNull}")
+    private Long id;
+    // Null moves the item to the front.
+    private Long afterId;
+}
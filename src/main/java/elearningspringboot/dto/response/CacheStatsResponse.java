@@ -0,0 +1,15 @@
+package elearningspringboot.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class CacheStatsResponse {
+    private String name;
+    private Integer size;
+    private Integer maxSize;
+    private Long hitCount;
+    private Long missCount;
+    private Double hitRatio;
+}
@@ -0,0 +1,17 @@
+package elearningspringboot.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class CleanupRunResponse {
+    private String job;
+    private Long rowsDeleted;
+    private Integer batches;
+    private Long durationMillis;
+    private Integer lockWaits;
+    private LocalDateTime finishedAt;
+}
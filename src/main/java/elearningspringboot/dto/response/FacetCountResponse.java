@@ -0,0 +1,11 @@
+package elearningspringboot.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class FacetCountResponse {
+    private String value;
+    private Integer count;
+}
@@ -0,0 +1,16 @@
+package elearningspringboot.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@Builder
+public class LatencyHistogramResponse {
+    private String name;
+    private Long count;
+    private Double meanMillis;
+    private Double maxMillis;
+    private Map<String, Long> buckets;
+}
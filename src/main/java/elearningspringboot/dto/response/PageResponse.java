@@ -1,8 +1,12 @@
 package elearningspringboot.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Getter;
 
+import java.util.List;
+import java.util.Map;
+
 @Getter
 @Builder
 public class PageResponse<T> {
@@ -11,4 +15,10 @@ public class PageResponse<T> {
     private Integer totalPages;
     private Integer numberOfElements;
     private T items;
+    // Set only in cursor mode; null on the last page.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+    // Set only by faceted searches: facet name to value counts.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, List<FacetCountResponse>> facets;
 }
\ No newline at end of file
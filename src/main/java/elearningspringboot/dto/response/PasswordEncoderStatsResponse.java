@@ -0,0 +1,18 @@
+package elearningspringboot.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class PasswordEncoderStatsResponse {
+    private Integer strength;
+    private Integer threads;
+    private Integer queueCapacity;
+    private Integer queueDepth;
+    private Integer activeCount;
+    private Long rejectedCount;
+    private List<LatencyHistogramResponse> latencies;
+}
@@ -24,4 +24,6 @@ public class PostResponse extends BaseResponse {
     private CategoryPostResponse category;
     private UserSummaryResponse author;
     private StatusPost status;
+    // Only set by the popular-posts listing: views within the requested window.
+    private Long viewCount;
 }
\ No newline at end of file
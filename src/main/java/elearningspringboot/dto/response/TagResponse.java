@@ -0,0 +1,11 @@
+package elearningspringboot.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class TagResponse {
+    private String name;
+    private Integer postCount;
+}
@@ -29,4 +29,11 @@ public class Chapter extends BaseEntity {
 
     @OneToMany(mappedBy = "chapter", cascade = CascadeType.REMOVE)
     private List<Lesson> lessons;
+
+    // Maintained like the Course aggregates.
+    @Column(nullable = false, updatable = false, columnDefinition = "int default 0")
+    private Integer lessonCount = 0;
+
+    @Column(nullable = false, updatable = false, columnDefinition = "int default 0")
+    private Integer totalDuration = 0;
 }
@@ -6,7 +6,6 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import org.hibernate.annotations.Formula;
 
 import java.util.List;
 
@@ -15,7 +14,10 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "courses")
+@Table(name = "courses", indexes = {
+        @Index(name = "idx_courses_status_updated", columnList = "status, updated_at"),
+        @Index(name = "idx_courses_status_created", columnList = "status, created_at")
+})
 public class Course extends BaseEntity {
     private String title;
     private String shortDescription;
@@ -45,9 +47,21 @@ public class Course extends BaseEntity {
     @Column(nullable = false, columnDefinition = "double default 0.3")
     private Double commissionRate;
 
-    @Formula("(SELECT AVG(r.rating) FROM ratings r WHERE r.course_id = id)")
-    private Double averageRating;
+    // Aggregates kept in step by the lesson, chapter and rating services with
+    // relative UPDATEs and recomputed by CourseAggregateJob. They are never
+    // written from the entity, so saving a stale Course can't roll them back.
+    @Column(nullable = false, updatable = false, columnDefinition = "int default 0")
+    private Integer lessonCount = 0;
+
+    @Column(nullable = false, updatable = false, columnDefinition = "int default 0")
+    private Integer totalDuration = 0;
+
+    @Column(nullable = false, updatable = false, columnDefinition = "int default 0")
+    private Integer ratingCount = 0;
 
-    @Formula("(SELECT COUNT(r.id) FROM ratings r WHERE r.course_id = id)")
-    private Integer ratingCount;
+    @Column(nullable = false, updatable = false, columnDefinition = "bigint default 0")
+    private Long ratingSum = 0L;
+
+    @Column(updatable = false)
+    private Double averageRating;
 }
@@ -11,7 +11,9 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "flashcard_sets")
+@Table(name = "flashcard_sets", indexes = {
+        @Index(name = "idx_flashcard_sets_created", columnList = "created_at")
+})
 public class FlashcardSet extends BaseEntity {
 
     @Column(nullable = false)
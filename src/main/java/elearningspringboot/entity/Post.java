@@ -12,9 +12,13 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "posts", indexes = {
+@Table(name = "posts", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_posts_slug", columnNames = "slug"),
+}, indexes = {
         @Index(name = "idx_posts_title", columnList = "title"),
         @Index(name = "idx_posts_tags", columnList = "tags"),
+        @Index(name = "idx_posts_status_created", columnList = "status, created_at"),
+        @Index(name = "idx_posts_status_updated", columnList = "status, updated_at"),
 })
 public class Post extends BaseEntity {
     @Column(nullable = false)
@@ -0,0 +1,30 @@
+package elearningspringboot.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "post_tags", indexes = {
+        @Index(name = "idx_post_tags_tag_public_post", columnList = "tag_id, is_public, post_id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_post_tags_post_tag", columnNames = {"post_id", "tag_id"})
+})
+public class PostTag extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "post_id", nullable = false)
+    private Post post;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "tag_id", nullable = false)
+    private Tag tag;
+
+    // Copy of post.status == PUBLIC so public tag listings never touch the posts table.
+    @Column(name = "is_public", nullable = false)
+    private Boolean publicPost;
+}
@@ -0,0 +1,30 @@
+package elearningspringboot.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "post_view_daily", indexes = {
+        @Index(name = "idx_post_view_daily_date_post", columnList = "view_date, post_id, view_count")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_post_view_daily_post_date", columnNames = {"post_id", "view_date"})
+})
+public class PostViewDaily extends BaseEntity {
+    // Plain id rather than a relation: counters flushed after a post is deleted
+    // must not fail the batch on a foreign key. Listings join posts anyway.
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+
+    @Column(name = "view_date", nullable = false)
+    private LocalDate viewDate;
+
+    @Column(name = "view_count", nullable = false)
+    private Long viewCount;
+}
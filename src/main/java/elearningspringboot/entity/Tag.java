@@ -0,0 +1,24 @@
+package elearningspringboot.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "tags", indexes = {
+        @Index(name = "idx_tags_post_count", columnList = "post_count")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_tags_name", columnNames = "name")
+})
+public class Tag extends BaseEntity {
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    // Number of PUBLIC posts carrying the tag, adjusted in place as posts change.
+    @Column(name = "post_count", nullable = false)
+    private Integer postCount;
+}
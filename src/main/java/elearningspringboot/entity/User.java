@@ -20,7 +20,9 @@ import java.util.Set;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_status_createdAt", columnList = "status, createdAt")
+})
 public class User extends BaseEntity implements UserDetails {
     @Column(nullable = false)
     private String fullName;
@@ -13,14 +13,21 @@ import java.time.LocalDateTime;
 @Builder
 @Entity
 @Table(name = "whitelist_token", indexes = {
-                @Index(name = "idx_whitelist_token_email", columnList = "email"),
+                @Index(name = "idx_whitelist_token_email_session", columnList = "email, session_id"),
                 @Index(name = "idx_whitelist_token_expiredTime", columnList = "expiredTime")
+}, uniqueConstraints = {
+                @UniqueConstraint(name = "uk_whitelist_token_hash", columnNames = "token_hash")
 })
 public class WhitelistToken extends BaseEntity {
         @Column(nullable = false)
         private String email;
-        @Column(unique = true, nullable = false)
-        private String token;
+        // SHA-256 of the JWT; the raw token is never stored.
+        @Column(name = "token_hash", nullable = false, columnDefinition = "BINARY(32)")
+        private byte[] tokenHash;
+        // jti of the refresh token the row belongs to; access tokens issued from
+        // that refresh token share it. Null for reset tokens.
+        @Column(name = "session_id", length = 36)
+        private String sessionId;
         @Enumerated(EnumType.STRING)
         private TokenType tokenType;
         private LocalDateTime expiredTime;
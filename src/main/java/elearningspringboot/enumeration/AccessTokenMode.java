@@ -0,0 +1,6 @@
+package elearningspringboot.enumeration;
+
+public enum AccessTokenMode {
+    WHITELIST,
+    STATELESS
+}
@@ -0,0 +1,9 @@
+package elearningspringboot.enumeration;
+
+public enum CatalogSort {
+    POPULAR,
+    RATING,
+    NEWEST,
+    PRICE_ASC,
+    PRICE_DESC
+}
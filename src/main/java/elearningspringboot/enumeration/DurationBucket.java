@@ -0,0 +1,26 @@
+package elearningspringboot.enumeration;
+
+// Catalog ranges over a course's total lesson duration in minutes.
+public enum DurationBucket {
+    UNDER_1H(0, 60),
+    FROM_1H_TO_3H(60, 180),
+    FROM_3H_TO_6H(180, 360),
+    FROM_6H_TO_17H(360, 1020),
+    OVER_17H(1020, Integer.MAX_VALUE);
+
+    private final int minMinutes;
+    private final int maxMinutes;
+
+    DurationBucket(int minMinutes, int maxMinutes) {
+        this.minMinutes = minMinutes;
+        this.maxMinutes = maxMinutes;
+    }
+
+    public static DurationBucket of(int minutes) {
+        for (DurationBucket bucket : values()) {
+            if (minutes >= bucket.minMinutes && minutes < bucket.maxMinutes)
+                return bucket;
+        }
+        return UNDER_1H;
+    }
+}
@@ -0,0 +1,25 @@
+package elearningspringboot.enumeration;
+
+// Catalog price ranges over the price actually charged (the discount price when there is one).
+public enum PriceBucket {
+    UNDER_200K(0, 200_000),
+    FROM_200K_TO_500K(200_000, 500_000),
+    FROM_500K_TO_1M(500_000, 1_000_000),
+    OVER_1M(1_000_000, Double.MAX_VALUE);
+
+    private final double min;
+    private final double max;
+
+    PriceBucket(double min, double max) {
+        this.min = min;
+        this.max = max;
+    }
+
+    public static PriceBucket of(double price) {
+        for (PriceBucket bucket : values()) {
+            if (price >= bucket.min && price < bucket.max)
+                return bucket;
+        }
+        return UNDER_200K;
+    }
+}
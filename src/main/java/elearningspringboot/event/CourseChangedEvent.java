@@ -0,0 +1,5 @@
+package elearningspringboot.event;
+
+// Published when a course, or one of its chapters or lessons, is created, updated or deleted.
+public record CourseChangedEvent(Long courseId) {
+}
@@ -0,0 +1,5 @@
+package elearningspringboot.event;
+
+// Published when a student is enrolled in or removed from a course.
+public record EnrollmentChangedEvent(Long courseId, Long studentId, boolean enrolled) {
+}
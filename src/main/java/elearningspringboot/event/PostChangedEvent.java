@@ -0,0 +1,5 @@
+package elearningspringboot.event;
+
+// Published when a post is created, updated or deleted.
+public record PostChangedEvent(Long postId) {
+}
@@ -145,6 +145,18 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.UNAUTHORIZED, message, request, null);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursorException(InvalidCursorException e, WebRequest request) {
+        String message = messageSource.getMessage("error.cursor.invalid", null, LocaleContextHolder.getLocale());
+        return buildErrorResponse(HttpStatus.BAD_REQUEST, message, request, null);
+    }
+
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<ErrorResponse> handleServiceBusyException(ServiceBusyException e, WebRequest request) {
+        String message = messageSource.getMessage("error.server.busy", null, LocaleContextHolder.getLocale());
+        return buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, message, request, null);
+    }
+
     @ExceptionHandler(AccountStatusException.class)
     public ResponseEntity<ErrorResponse> handleAccountStatusException(AccountStatusException e, WebRequest request) {
         String message = messageSource.getMessage("error.disableAccount", null, LocaleContextHolder.getLocale());
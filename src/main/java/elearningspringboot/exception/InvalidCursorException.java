@@ -0,0 +1,14 @@
+package elearningspringboot.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException() {
+    }
+
+    public InvalidCursorException(String msg) {
+        super(msg);
+    }
+
+    public InvalidCursorException(String msg, Throwable cause) {
+        super(msg, cause);
+    }
+}
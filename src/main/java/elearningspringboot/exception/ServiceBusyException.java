@@ -0,0 +1,14 @@
+package elearningspringboot.exception;
+
+public class ServiceBusyException extends RuntimeException {
+    public ServiceBusyException() {
+    }
+
+    public ServiceBusyException(String msg) {
+        super(msg);
+    }
+
+    public ServiceBusyException(String msg, Throwable cause) {
+        super(msg, cause);
+    }
+}
@@ -13,6 +13,8 @@ public interface ChapterMapper {
     @Mapping(target = "status", expression = "java(StatusCourse.fromValue(request.getStatus()))")
     Chapter toEntity(ChapterRequest request);
 
+    @Mapping(target = "numberOfLessons", source = "lessonCount")
+    @Mapping(target = "duration", source = "totalDuration")
     ChapterResponse toDTO(Chapter entity);
 
     List<ChapterResponse> toDTOs(List<Chapter> entities);
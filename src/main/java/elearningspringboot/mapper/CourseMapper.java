@@ -11,6 +11,8 @@ public interface CourseMapper {
     Course toEntity(CourseRequest request);
 
     @Mapping(target = "teacher", ignore = true)
+    @Mapping(target = "numberOfLessons", source = "lessonCount")
+    @Mapping(target = "duration", source = "totalDuration")
     CourseResponse toDTO(Course entity);
 
     @Mapping(target = "status", ignore = true)
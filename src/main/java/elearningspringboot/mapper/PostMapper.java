@@ -16,6 +16,7 @@ public interface PostMapper {
     Post toEntity(PostRequest request);
 
     @Mapping(target = "author", ignore = true)
+    @Mapping(target = "viewCount", ignore = true)
     PostResponse toDTO(Post entity);
 
     @Mapping(target = "slug", ignore = true)
@@ -8,12 +8,25 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface CategoryCourseRepository extends JpaRepository<CategoryCourse, Long> {
     boolean existsByTitle(String title);
 
     boolean existsByTitleAndIdNot(String title, Long id);
 
+    @Query("select c.id from CategoryCourse c where c.slug = :slug")
+    Optional<Long> findIdBySlug(@Param("slug") String slug);
+
+    @Query("""
+            select c.slug from CategoryCourse c
+            where (c.slug = :slug or c.slug like concat(:slug, '-%'))
+              and (:excludeId is null or c.id <> :excludeId)
+            """)
+    List<String> findSlugsStartingWith(@Param("slug") String slug, @Param("excludeId") Long excludeId);
+
     @Query("select c from CategoryCourse c where lower(c.title) like %:keyword% OR lower(c.description) like %:keyword%")
     Page<CategoryCourse> searchCategories(@Param("keyword") String keyword, Pageable pageable);
 }
@@ -8,6 +8,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface CategoryPostRepository extends JpaRepository<CategoryPost, Long> {
     boolean existsByTitle(String title);
@@ -18,6 +21,16 @@ public interface CategoryPostRepository extends JpaRepository<CategoryPost, Long
 
     boolean existsBySlugAndIdNot(String slug, Long id);
 
+    @Query("select c.id from CategoryPost c where c.slug = :slug")
+    Optional<Long> findIdBySlug(@Param("slug") String slug);
+
+    @Query("""
+            select c.slug from CategoryPost c
+            where (c.slug = :slug or c.slug like concat(:slug, '-%'))
+              and (:excludeId is null or c.id <> :excludeId)
+            """)
+    List<String> findSlugsStartingWith(@Param("slug") String slug, @Param("excludeId") Long excludeId);
+
     @Query("select c from CategoryPost c where lower(c.title) like %:keyword% OR lower(c.description) like %:keyword%")
     Page<CategoryPost> searchCategories(@Param("keyword") String keyword, Pageable pageable);
 }
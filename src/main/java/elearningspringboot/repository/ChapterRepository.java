@@ -4,6 +4,7 @@ import elearningspringboot.entity.Chapter;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,9 +14,18 @@ import java.util.List;
 @Repository
 public interface ChapterRepository extends JpaRepository<Chapter, Long> {
 
-    @Query("select c from Chapter c left join fetch c.lessons where :courseId is null or c.course.id = :courseId order by c.orderIndex asc")
+    @Query("select c from Chapter c where :courseId is null or c.course.id = :courseId order by c.orderIndex asc")
     List<Chapter> searchByCourseId(@Param("courseId") Long courseId);
 
     @Query("select coalesce(max(c.orderIndex), 0) from Chapter c where c.course.id = :courseId")
     Integer getOrderIndexMax(Long courseId);
+
+    @Modifying
+    @Query(value = """
+            UPDATE chapters
+            SET lesson_count = lesson_count + :lessons, total_duration = total_duration + :duration
+            WHERE id = :chapterId
+            """, nativeQuery = true)
+    int adjustLessonTotals(@Param("chapterId") Long chapterId, @Param("lessons") int lessons,
+            @Param("duration") int duration);
 }
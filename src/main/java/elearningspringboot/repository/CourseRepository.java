@@ -4,17 +4,33 @@ import elearningspringboot.entity.Course;
 import elearningspringboot.enumeration.StatusCourse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CourseRepository extends JpaRepository<Course, Long> {
 
+        // Everything the catalog index keeps per course, aggregates included.
+        String CATALOG_SELECT = """
+                        SELECT c.id AS id, c.title AS title, c.shortDescription AS shortDescription,
+                               cat.id AS categoryId, t.id AS teacherId, c.price AS price,
+                               c.discountPrice AS discountPrice, c.isFree AS isFree,
+                               c.averageRating AS averageRating, c.ratingCount AS ratingCount,
+                               c.totalDuration AS totalDuration, c.createdAt AS createdAt,
+                               (SELECT COUNT(e) FROM Enrollment e WHERE e.course = c) AS enrollmentCount
+                        FROM Course c LEFT JOIN c.category cat LEFT JOIN c.teacher t
+                        """;
+
+        @EntityGraph(attributePaths = { "teacher", "teacher.role", "category" })
         @Query("select c from Course c where " +
                         "(:categoryId is null or c.category.id = :categoryId) and " +
                         "(:teacherId is null or c.teacher.id = :teacherId) and " +
@@ -26,12 +42,122 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
                         @Param("status") StatusCourse status,
                         Pageable pageable);
 
+        // Keyset pages: rows strictly after (cursorTime, cursorId), no count query.
+        @EntityGraph(attributePaths = { "teacher", "teacher.role", "category" })
+        @Query("select c from Course c where " +
+                        "(:categoryId is null or c.category.id = :categoryId) and " +
+                        "(:teacherId is null or c.teacher.id = :teacherId) and " +
+                        "c.status = :status and " +
+                        "(lower(c.title) like %:keyword% or lower(c.shortDescription) like %:keyword% or lower(c.detailDescription) like %:keyword%) and " +
+                        "(:cursorTime is null or c.updatedAt < :cursorTime or (c.updatedAt = :cursorTime and c.id < :cursorId)) " +
+                        "order by c.updatedAt desc, c.id desc")
+        List<Course> findPageByUpdatedAt(@Param("keyword") String keyword,
+                        @Param("categoryId") Long categoryId,
+                        @Param("teacherId") Long teacherId,
+                        @Param("status") StatusCourse status,
+                        @Param("cursorTime") LocalDateTime cursorTime,
+                        @Param("cursorId") Long cursorId,
+                        Pageable pageable);
+
+        @EntityGraph(attributePaths = { "teacher", "teacher.role", "category" })
+        @Query("select c from Course c where " +
+                        "(:categoryId is null or c.category.id = :categoryId) and " +
+                        "(:teacherId is null or c.teacher.id = :teacherId) and " +
+                        "c.status = :status and " +
+                        "(lower(c.title) like %:keyword% or lower(c.shortDescription) like %:keyword% or lower(c.detailDescription) like %:keyword%) and " +
+                        "(:cursorTime is null or c.createdAt < :cursorTime or (c.createdAt = :cursorTime and c.id < :cursorId)) " +
+                        "order by c.createdAt desc, c.id desc")
+        List<Course> findPageByCreatedAt(@Param("keyword") String keyword,
+                        @Param("categoryId") Long categoryId,
+                        @Param("teacherId") Long teacherId,
+                        @Param("status") StatusCourse status,
+                        @Param("cursorTime") LocalDateTime cursorTime,
+                        @Param("cursorId") Long cursorId,
+                        Pageable pageable);
+
         @Query("select distinct c from Course c " +
                         "left join fetch c.chapters ch " +
-                        "where c.id = :id")
+                        "where c.id = :id " +
+                        "order by ch.orderIndex, ch.id")
         Optional<Course> findByIdWithChaptersAndLessons(Long id);
 
+        @EntityGraph(attributePaths = { "teacher", "teacher.role", "category" })
+        List<Course> findByIdIn(Collection<Long> ids);
+
+        @EntityGraph(attributePaths = { "teacher", "teacher.role", "category" })
         List<Course> findByStatusOrderByCreatedAtDesc(StatusCourse status, Pageable pageable);
 
         long countByStatus(StatusCourse status);
+
+        @Query(CATALOG_SELECT + """
+                        WHERE c.status = :status AND c.id > :afterId
+                        ORDER BY c.id
+                        """)
+        List<CatalogSource> findCatalogSourcesAfter(@Param("status") StatusCourse status,
+                        @Param("afterId") Long afterId, Pageable pageable);
+
+        @Query(CATALOG_SELECT + """
+                        WHERE c.status = :status AND c.id = :id
+                        """)
+        Optional<CatalogSource> findCatalogSource(@Param("status") StatusCourse status, @Param("id") Long id);
+
+        @Modifying
+        @Query(value = """
+                        UPDATE courses
+                        SET lesson_count = lesson_count + :lessons, total_duration = total_duration + :duration
+                        WHERE id = :courseId
+                        """, nativeQuery = true)
+        int adjustLessonTotals(@Param("courseId") Long courseId, @Param("lessons") int lessons,
+                        @Param("duration") int duration);
+
+        // Takes a chapter's lessons off its course before the chapter is deleted.
+        @Modifying
+        @Query(value = """
+                        UPDATE courses c JOIN chapters ch ON ch.course_id = c.id
+                        SET c.lesson_count = c.lesson_count - ch.lesson_count,
+                            c.total_duration = c.total_duration - ch.total_duration
+                        WHERE ch.id = :chapterId
+                        """, nativeQuery = true)
+        int subtractChapterTotals(@Param("chapterId") Long chapterId);
+
+        // average_rating is assigned first because MySQL evaluates single-table
+        // SET clauses left to right, each one seeing the columns already updated.
+        @Modifying
+        @Query(value = """
+                        UPDATE courses
+                        SET average_rating = IF(rating_count + :count > 0,
+                                (rating_sum + :sum) / (rating_count + :count), NULL),
+                            rating_count = rating_count + :count,
+                            rating_sum = rating_sum + :sum
+                        WHERE id = :courseId
+                        """, nativeQuery = true)
+        int adjustRatingTotals(@Param("courseId") Long courseId, @Param("count") int count, @Param("sum") int sum);
+
+        interface CatalogSource {
+                Long getId();
+
+                String getTitle();
+
+                String getShortDescription();
+
+                Long getCategoryId();
+
+                Long getTeacherId();
+
+                Double getPrice();
+
+                Double getDiscountPrice();
+
+                Boolean getIsFree();
+
+                Double getAverageRating();
+
+                Integer getRatingCount();
+
+                Integer getTotalDuration();
+
+                LocalDateTime getCreatedAt();
+
+                Long getEnrollmentCount();
+        }
 }
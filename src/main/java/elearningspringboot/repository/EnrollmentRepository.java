@@ -39,5 +39,25 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
             @Param("keyword") String keyword,
             Pageable pageable);
 
+    // Keyset pages of every enrollment with the student's rating of the course, if any.
+    @Query("""
+            SELECT e.id AS id, e.student.id AS studentId, e.course.id AS courseId,
+                   (SELECT MAX(r.rating) FROM RatingCourse r
+                    WHERE r.course = e.course AND r.author = e.student) AS rating
+            FROM Enrollment e
+            WHERE e.id > :afterId
+            ORDER BY e.id
+            """)
+    List<EnrollmentSignal> findSignalsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    interface EnrollmentSignal {
+        Long getId();
+
+        Long getStudentId();
+
+        Long getCourseId();
+
+        Integer getRating();
+    }
 }
 
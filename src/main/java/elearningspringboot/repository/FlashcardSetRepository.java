@@ -8,6 +8,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface FlashcardSetRepository extends JpaRepository<FlashcardSet, Long> {
 
@@ -22,6 +25,23 @@ public interface FlashcardSetRepository extends JpaRepository<FlashcardSet, Long
                                         @Param("userId") Long userId,
                                         Pageable pageable);
 
+    // Keyset pages, newest first: rows strictly after (cursorTime, cursorId), no count query.
+    @Query("SELECT f FROM FlashcardSet f " +
+            "WHERE (:keyword IS NULL OR :keyword = '' OR " +
+            "lower(f.title) LIKE lower(concat('%', :keyword, '%')) OR " +
+            "lower(f.description) LIKE lower(concat('%', :keyword, '%'))) " +
+            "AND (:category IS NULL OR :category = 'Tất cả' OR f.category = :category) " +
+            "AND (f.isPublic = true OR f.author.id = :userId) " +
+            "AND (:cursorTime IS NULL OR f.createdAt < :cursorTime " +
+            "OR (f.createdAt = :cursorTime AND f.id < :cursorId)) " +
+            "ORDER BY f.createdAt DESC, f.id DESC")
+    List<FlashcardSet> findPageByCreatedAt(@Param("keyword") String keyword,
+                                           @Param("category") String category,
+                                           @Param("userId") Long userId,
+                                           @Param("cursorTime") LocalDateTime cursorTime,
+                                           @Param("cursorId") Long cursorId,
+                                           Pageable pageable);
+
     // Đếm số lượng bài của user
     long countByAuthorId(Long authorId);
 
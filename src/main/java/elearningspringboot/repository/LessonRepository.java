@@ -16,6 +16,9 @@ public interface LessonRepository extends JpaRepository<Lesson, Long> {
     @Query("select l from Lesson l where l.chapter.id = :chapterId order by l.orderIndex asc")
     List<Lesson> findByChapterId(Long chapterId);
 
+    @Query("select l from Lesson l join fetch l.chapter c where c.course.id = :courseId order by l.orderIndex, l.id")
+    List<Lesson> findByCourseId(@Param("courseId") Long courseId);
+
     @Query("select coalesce(max(l.orderIndex), 0) from Lesson l where l.chapter.id = :chapterId")
     Integer getOrderIndexMax(Long chapterId);
 }
@@ -2,6 +2,7 @@ package elearningspringboot.repository;
 
 import elearningspringboot.entity.Post;
 import elearningspringboot.enumeration.StatusPost;
+import elearningspringboot.enumeration.UserRole;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -10,36 +11,103 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
 
-        @Query("select p from Post p join p.category c" +
-                " where (:categoryId is null or c.id = :categoryId)" +
-                " and (:authorId is null or p.author.id = :authorId)" +
-                " and (lower(p.title) like concat('%', :keyword, '%')" +
-                " OR lower(p.content) like concat('%', :keyword, '%')" +
-                " OR lower(p.author.fullName) like concat('%', :keyword, '%'))"
-        )
-        Page<Post> searchPosts(@Param("keyword") String keyword,
-                               @Param("categoryId") Long categoryId, Long authorId, Pageable pageable);
+        // List columns only: no content/contentText, and category and author summary joined in the same row.
+        String SUMMARY_SELECT = """
+                        SELECT p.id AS id, p.title AS title, p.excerpt AS excerpt, p.thumbnailUrl AS thumbnailUrl,
+                               p.tags AS tags, p.slug AS slug, p.readingTimeMinutes AS readingTimeMinutes,
+                               p.status AS status, p.createdAt AS createdAt, p.updatedAt AS updatedAt,
+                               c.id AS categoryId, c.title AS categoryTitle, c.slug AS categorySlug,
+                               a.id AS authorId, a.fullName AS authorFullName, a.avatarUrl AS authorAvatarUrl,
+                               r.role AS authorRole
+                        FROM Post p JOIN p.category c JOIN p.author a JOIN a.role r
+                        """;
 
+        @Query(value = SUMMARY_SELECT + """
+                        WHERE (:categoryId IS NULL OR c.id = :categoryId)
+                          AND (:authorId IS NULL OR a.id = :authorId)
+                          AND (lower(p.title) LIKE concat('%', :keyword, '%')
+                               OR lower(p.content) LIKE concat('%', :keyword, '%')
+                               OR lower(a.fullName) LIKE concat('%', :keyword, '%'))
+                        """,
+                countQuery = """
+                        SELECT count(p) FROM Post p JOIN p.author a
+                        WHERE (:categoryId IS NULL OR p.category.id = :categoryId)
+                          AND (:authorId IS NULL OR a.id = :authorId)
+                          AND (lower(p.title) LIKE concat('%', :keyword, '%')
+                               OR lower(p.content) LIKE concat('%', :keyword, '%')
+                               OR lower(a.fullName) LIKE concat('%', :keyword, '%'))
+                        """)
+        Page<PostSummary> searchPosts(@Param("keyword") String keyword,
+                                      @Param("categoryId") Long categoryId,
+                                      @Param("authorId") Long authorId, Pageable pageable);
 
-        @Query("select p from Post p join p.category c" +
-                " where (:categoryId is null or c.id = :categoryId)" +
-                " and (lower(p.title) like concat('%', :keyword, '%')" +
-                " OR lower(p.content) like concat('%', :keyword, '%')" +
-                " OR lower(p.author.fullName) like concat('%', :keyword, '%'))" +
-                " and p.status = :publicStatus"
-        )
-        Page<Post> searchPublicPosts(@Param("keyword") String keyword,
-                                     @Param("categoryId") Long categoryId,
-                                     @Param("publicStatus") StatusPost publicStatus, Pageable pageable);
+        @Query(value = SUMMARY_SELECT + """
+                        WHERE (:categoryId IS NULL OR c.id = :categoryId)
+                          AND (lower(p.title) LIKE concat('%', :keyword, '%')
+                               OR lower(p.content) LIKE concat('%', :keyword, '%')
+                               OR lower(a.fullName) LIKE concat('%', :keyword, '%'))
+                          AND p.status = :publicStatus
+                        """,
+                countQuery = """
+                        SELECT count(p) FROM Post p JOIN p.author a
+                        WHERE (:categoryId IS NULL OR p.category.id = :categoryId)
+                          AND (lower(p.title) LIKE concat('%', :keyword, '%')
+                               OR lower(p.content) LIKE concat('%', :keyword, '%')
+                               OR lower(a.fullName) LIKE concat('%', :keyword, '%'))
+                          AND p.status = :publicStatus
+                        """)
+        Page<PostSummary> searchPublicPosts(@Param("keyword") String keyword,
+                                            @Param("categoryId") Long categoryId,
+                                            @Param("publicStatus") StatusPost publicStatus, Pageable pageable);
 
+        // Keyset pages for the public feed: rows strictly after (cursorTime, cursorId), no count query.
+        @Query(SUMMARY_SELECT + """
+                        WHERE p.status = :status
+                          AND (:categoryId IS NULL OR c.id = :categoryId)
+                          AND (lower(p.title) LIKE concat('%', :keyword, '%')
+                               OR lower(p.content) LIKE concat('%', :keyword, '%')
+                               OR lower(a.fullName) LIKE concat('%', :keyword, '%'))
+                          AND (:cursorTime IS NULL OR p.updatedAt < :cursorTime
+                               OR (p.updatedAt = :cursorTime AND p.id < :cursorId))
+                        ORDER BY p.updatedAt DESC, p.id DESC
+                        """)
+        List<PostSummary> findPublicPageByUpdatedAt(@Param("keyword") String keyword,
+                                                    @Param("categoryId") Long categoryId,
+                                                    @Param("status") StatusPost status,
+                                                    @Param("cursorTime") LocalDateTime cursorTime,
+                                                    @Param("cursorId") Long cursorId,
+                                                    Pageable pageable);
+
+        @Query(SUMMARY_SELECT + """
+                        WHERE p.status = :status
+                          AND (:categoryId IS NULL OR c.id = :categoryId)
+                          AND (lower(p.title) LIKE concat('%', :keyword, '%')
+                               OR lower(p.content) LIKE concat('%', :keyword, '%')
+                               OR lower(a.fullName) LIKE concat('%', :keyword, '%'))
+                          AND (:cursorTime IS NULL OR p.createdAt < :cursorTime
+                               OR (p.createdAt = :cursorTime AND p.id < :cursorId))
+                        ORDER BY p.createdAt DESC, p.id DESC
+                        """)
+        List<PostSummary> findPublicPageByCreatedAt(@Param("keyword") String keyword,
+                                                    @Param("categoryId") Long categoryId,
+                                                    @Param("status") StatusPost status,
+                                                    @Param("cursorTime") LocalDateTime cursorTime,
+                                                    @Param("cursorId") Long cursorId,
+                                                    Pageable pageable);
+
+        @Query(SUMMARY_SELECT + "WHERE p.id IN :ids")
+        List<PostSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
 
         @Query(value = """
-                        SELECT p.* FROM posts p
+                        SELECT p.id FROM posts p
                         WHERE p.status = 'PUBLIC'
                           AND p.id <> :excludeId
                           AND MATCH(p.title, p.content_text) AGAINST(:searchText IN BOOLEAN MODE)
@@ -47,39 +115,130 @@ public interface PostRepository extends JpaRepository<Post, Long> {
                         LIMIT :limit
                         """, nativeQuery = true
         )
-        List<Post> findRelatedByFullTextSearch(@Param("excludeId") Long excludeId,
-                                               @Param("searchText") String searchText,
-                                               @Param("limit") int limit);
+        List<Long> findRelatedIdsByFullTextSearch(@Param("excludeId") Long excludeId,
+                                                  @Param("searchText") String searchText,
+                                                  @Param("limit") int limit);
 
-        @Query("""
-                        SELECT p FROM Post p
+        @Query(SUMMARY_SELECT + """
                         WHERE p.status = :status
-                          AND p.category.id = :categoryId
+                          AND c.id = :categoryId
                           AND p.id <> :excludeId
                         ORDER BY p.updatedAt DESC
                         """)
-        List<Post> findRelatedByCategory(@Param("status") StatusPost status,
-                                         @Param("categoryId") Long categoryId,
-                                         @Param("excludeId") Long excludeId,
-                                         Pageable pageable);
+        List<PostSummary> findRelatedByCategory(@Param("status") StatusPost status,
+                                                @Param("categoryId") Long categoryId,
+                                                @Param("excludeId") Long excludeId,
+                                                Pageable pageable);
 
 
-        @Query("""
-                        SELECT p FROM Post p
+        @Query(SUMMARY_SELECT + """
                         WHERE p.status = :status
                           AND p.id <> :excludeId
                         ORDER BY p.updatedAt DESC
                         """)
-        List<Post> findLatestPosts(@Param("status") StatusPost status,
-                                   @Param("excludeId") Long excludeId,
-                                   Pageable pageable);
+        List<PostSummary> findLatestPosts(@Param("status") StatusPost status,
+                                          @Param("excludeId") Long excludeId,
+                                          Pageable pageable);
 
 
-        @Query("""
-                        SELECT p FROM Post p
+        @Query(SUMMARY_SELECT + """
                         WHERE p.status = :status
                         ORDER BY p.updatedAt DESC
                         """)
-        List<Post> findLatestPublicPosts(@Param("status") StatusPost status, Pageable pageable);
+        List<PostSummary> findLatestPublicPosts(@Param("status") StatusPost status, Pageable pageable);
+
+        @Query("SELECT p.id FROM Post p WHERE p.slug = :slug")
+        Optional<Long> findIdBySlug(@Param("slug") String slug);
+
+        // The slug itself plus every "<slug>-n" variant, read off uk_posts_slug.
+        @Query("""
+                        SELECT p.slug FROM Post p
+                        WHERE (p.slug = :slug OR p.slug LIKE CONCAT(:slug, '-%'))
+                          AND (:excludeId IS NULL OR p.id <> :excludeId)
+                        """)
+        List<String> findSlugsStartingWith(@Param("slug") String slug, @Param("excludeId") Long excludeId);
+
+        @Query("""
+                        SELECT p.id AS id, p.title AS title, p.contentText AS contentText, p.tags AS tags,
+                               p.status AS status, p.category.id AS categoryId, p.author.id AS authorId,
+                               p.author.fullName AS authorName, p.createdAt AS createdAt, p.updatedAt AS updatedAt
+                        FROM Post p
+                        WHERE p.id > :afterId
+                        ORDER BY p.id
+                        """)
+        List<PostSearchSource> findSearchSourcesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+        @Query("""
+                        SELECT p.id AS id, p.tags AS tags, p.status AS status
+                        FROM Post p
+                        WHERE p.id > :afterId AND p.tags IS NOT NULL AND p.tags <> ''
+                        ORDER BY p.id
+                        """)
+        List<PostTagSource> findTagSourcesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+        interface PostSummary {
+                Long getId();
+
+                String getTitle();
+
+                String getExcerpt();
+
+                String getThumbnailUrl();
+
+                String getTags();
+
+                String getSlug();
+
+                Integer getReadingTimeMinutes();
+
+                StatusPost getStatus();
+
+                LocalDateTime getCreatedAt();
+
+                LocalDateTime getUpdatedAt();
+
+                Long getCategoryId();
+
+                String getCategoryTitle();
+
+                String getCategorySlug();
+
+                Long getAuthorId();
+
+                String getAuthorFullName();
+
+                String getAuthorAvatarUrl();
+
+                UserRole getAuthorRole();
+        }
+
+        interface PostTagSource {
+                Long getId();
+
+                String getTags();
+
+                StatusPost getStatus();
+        }
+
+        interface PostSearchSource {
+                Long getId();
+
+                String getTitle();
+
+                String getContentText();
+
+                String getTags();
+
+                StatusPost getStatus();
+
+                Long getCategoryId();
+
+                Long getAuthorId();
+
+                String getAuthorName();
+
+                LocalDateTime getCreatedAt();
 
-}
\ No newline at end of file
+                LocalDateTime getUpdatedAt();
+        }
+}
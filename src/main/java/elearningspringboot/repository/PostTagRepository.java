@@ -0,0 +1,49 @@
+package elearningspringboot.repository;
+
+import elearningspringboot.entity.PostTag;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PostTagRepository extends JpaRepository<PostTag, Long> {
+
+    @Query("""
+            select pt.id as id, t.id as tagId, t.name as tagName, pt.publicPost as publicPost
+            from PostTag pt join pt.tag t
+            where pt.post.id = :postId
+            """)
+    List<PostTagEntry> findEntriesByPostId(@Param("postId") Long postId);
+
+    // Newest first; answered from idx_post_tags_tag_public_post alone.
+    @Query("""
+            select pt.post.id from PostTag pt
+            where pt.tag.id = :tagId and pt.publicPost = true
+            order by pt.post.id desc
+            """)
+    List<Long> findPublicPostIdsByTagId(@Param("tagId") Long tagId, Pageable pageable);
+
+    @Modifying
+    @Query("delete from PostTag pt where pt.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update PostTag pt set pt.publicPost = :publicPost where pt.id in :ids")
+    int updatePublicPost(@Param("ids") Collection<Long> ids, @Param("publicPost") boolean publicPost);
+
+    interface PostTagEntry {
+        Long getId();
+
+        Long getTagId();
+
+        String getTagName();
+
+        Boolean getPublicPost();
+    }
+}
@@ -0,0 +1,31 @@
+package elearningspringboot.repository;
+
+import elearningspringboot.entity.PostViewDaily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface PostViewDailyRepository extends JpaRepository<PostViewDaily, Long> {
+
+    // Range over idx_post_view_daily_date_post, summed per post.
+    @Query(value = """
+            SELECT v.post_id AS postId, CAST(SUM(v.view_count) AS SIGNED) AS views
+            FROM post_view_daily v JOIN posts p ON p.id = v.post_id
+            WHERE v.view_date >= :since AND p.status = 'PUBLIC'
+            GROUP BY v.post_id
+            ORDER BY views DESC, v.post_id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<ViewTotal> findTopPublicPostsSince(@Param("since") LocalDate since, @Param("limit") int limit);
+
+    interface ViewTotal {
+        Long getPostId();
+
+        Long getViews();
+    }
+}
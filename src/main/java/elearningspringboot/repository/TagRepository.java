@@ -0,0 +1,27 @@
+package elearningspringboot.repository;
+
+import elearningspringboot.entity.Tag;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TagRepository extends JpaRepository<Tag, Long> {
+    Optional<Tag> findByName(String name);
+
+    List<Tag> findByNameIn(Collection<String> names);
+
+    @Query("select t from Tag t where t.postCount > 0 order by t.postCount desc, t.id")
+    List<Tag> findTrending(Pageable pageable);
+
+    @Modifying
+    @Query("update Tag t set t.postCount = t.postCount + :delta where t.id in :ids")
+    int adjustPostCount(@Param("ids") Collection<Long> ids, @Param("delta") int delta);
+}
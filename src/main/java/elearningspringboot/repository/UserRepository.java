@@ -36,9 +36,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
         @Transactional
         @Modifying
-        @Query("DELETE FROM User u WHERE u.status = :status AND u.createdAt < :expiredAt")
-        void deleteExpiredPendingUsers(@Param("status") Status status,
-                        @Param("expiredAt") LocalDateTime expiredAt);
+        @Query(value = "DELETE FROM users WHERE status = :status AND created_at < :expiredAt LIMIT :limit",
+                        nativeQuery = true)
+        int deleteExpiredUsersBatch(@Param("status") String status,
+                        @Param("expiredAt") LocalDateTime expiredAt,
+                        @Param("limit") int limit);
 
         @Query("select u.noPassword from User u where u.email = :email")
         Boolean getStatusPassword(@Param("email") String email);
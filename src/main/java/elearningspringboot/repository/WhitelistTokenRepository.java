@@ -1,6 +1,7 @@
 package elearningspringboot.repository;
 
 import elearningspringboot.entity.WhitelistToken;
+import elearningspringboot.enumeration.TokenType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -9,17 +10,57 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface WhitelistTokenRepository extends JpaRepository<WhitelistToken, Long> {
-    void deleteByToken(String token);
+    @Modifying
+    @Query("delete from WhitelistToken t where t.tokenHash = :tokenHash")
+    void deleteByTokenHash(@Param("tokenHash") byte[] tokenHash);
 
-    void deleteByEmail(String email);
+    @Modifying
+    @Query("delete from WhitelistToken t where t.email = :email")
+    int deleteByEmail(@Param("email") String email);
 
-    boolean existsByToken(String token);
+    @Modifying
+    @Query("delete from WhitelistToken t where t.email = :email and t.sessionId in :sessionIds")
+    int deleteByEmailAndSessionIdIn(@Param("email") String email,
+            @Param("sessionIds") Collection<String> sessionIds);
+
+    @Modifying
+    @Query("delete from WhitelistToken t where t.email = :email and t.sessionId = :sessionId and t.tokenType = :tokenType")
+    int deleteByEmailAndSessionIdAndTokenType(@Param("email") String email, @Param("sessionId") String sessionId,
+            @Param("tokenType") TokenType tokenType);
+
+    // Newest first
+    @Query("""
+            select t.sessionId from WhitelistToken t
+            where t.email = :email and t.tokenType = :tokenType and t.sessionId is not null and t.expiredTime > :now
+            order by t.createdAt desc, t.id desc
+            """)
+    List<String> findActiveSessionIds(@Param("email") String email, @Param("tokenType") TokenType tokenType,
+            @Param("now") LocalDateTime now);
+
+    @Query("""
+            select t.email as email, t.sessionId as sessionId, t.tokenType as tokenType, t.expiredTime as expiredTime
+            from WhitelistToken t where t.tokenHash = :tokenHash
+            """)
+    Optional<TokenEntry> findEntryByTokenHash(@Param("tokenHash") byte[] tokenHash);
 
     @Modifying
     @Transactional
-    @Query("delete from WhitelistToken t where t.expiredTime < :now")
-    void deleteByExpiredToken(@Param("now") LocalDateTime now);
+    @Query(value = "DELETE FROM whitelist_token WHERE expired_time < :now LIMIT :limit", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    interface TokenEntry {
+        String getEmail();
+
+        String getSessionId();
+
+        TokenType getTokenType();
+
+        LocalDateTime getExpiredTime();
+    }
 }
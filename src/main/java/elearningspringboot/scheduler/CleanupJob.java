@@ -4,27 +4,113 @@ import elearningspringboot.enumeration.Status;
 import elearningspringboot.repository.UserRepository;
 import elearningspringboot.repository.WhitelistTokenRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntSupplier;
 
 @Component
 @RequiredArgsConstructor
+@Slf4j
 public class CleanupJob {
 
     private final WhitelistTokenRepository whitelistTokenRepository;
     private final UserRepository userRepository;
 
-    @Scheduled(fixedRate = 1000 * 60 * 60 * 2)
+    @Value("${cleanup.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${cleanup.pause-millis:100}")
+    private long pauseMillis;
+
+    @Value("${cleanup.max-lock-retries:3}")
+    private int maxLockRetries;
+
+    private final AtomicBoolean tokenCleanupRunning = new AtomicBoolean();
+    private final AtomicBoolean pendingUserCleanupRunning = new AtomicBoolean();
+    private final Map<String, CleanupRun> lastRuns = new ConcurrentHashMap<>();
+
+    @Scheduled(fixedDelay = 1000 * 60 * 60 * 2)
     public void cleanupToken() {
-        whitelistTokenRepository.deleteByExpiredToken(LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        runInChunks("whitelistToken", tokenCleanupRunning,
+                () -> whitelistTokenRepository.deleteExpiredBatch(now, batchSize));
     }
 
-    @Scheduled(fixedRate = 1000 * 60 * 60 * 24)
+    @Scheduled(fixedDelay = 1000 * 60 * 60 * 24)
     public void cleanupExpiredPendingUser() {
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime expiredAt = now.minusDays(1);
-        userRepository.deleteExpiredPendingUsers(Status.PENDING, expiredAt);
+        LocalDateTime expiredAt = LocalDateTime.now().minusDays(1);
+        runInChunks("pendingUser", pendingUserCleanupRunning,
+                () -> userRepository.deleteExpiredUsersBatch(Status.PENDING.name(), expiredAt, batchSize));
+    }
+
+    public Map<String, CleanupRun> getLastRuns() {
+        return Map.copyOf(lastRuns);
+    }
+
+    /**
+     * Deletes one batch per transaction until a batch comes back short, so no
+     * single statement holds locks over the whole range. A lock wait timeout or
+     * deadlock on one batch is counted and retried after a pause.
+     */
+    private void runInChunks(String job, AtomicBoolean running, IntSupplier deleteBatch) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Cleanup job {} is still running, skipping", job);
+            return;
+        }
+        long start = System.nanoTime();
+        long rowsDeleted = 0;
+        int batches = 0;
+        int lockWaits = 0;
+        try {
+            while (true) {
+                int affected;
+                try {
+                    affected = deleteBatch.getAsInt();
+                } catch (PessimisticLockingFailureException e) {
+                    lockWaits++;
+                    if (lockWaits > maxLockRetries) {
+                        log.warn("Cleanup job {} gave up after {} lock waits: {}", job, lockWaits, e.getMessage());
+                        break;
+                    }
+                    if (!pause())
+                        break;
+                    continue;
+                }
+                rowsDeleted += affected;
+                batches++;
+                if (affected < batchSize || !pause())
+                    break;
+            }
+        } catch (Exception e) {
+            log.error("Cleanup job {} failed: {}", job, e.getMessage());
+        } finally {
+            long durationMillis = (System.nanoTime() - start) / 1_000_000;
+            lastRuns.put(job, new CleanupRun(rowsDeleted, batches, durationMillis, lockWaits, LocalDateTime.now()));
+            log.info("Cleanup job {} deleted {} rows in {} batches, {} ms, {} lock waits",
+                    job, rowsDeleted, batches, durationMillis, lockWaits);
+            running.set(false);
+        }
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public record CleanupRun(long rowsDeleted, int batches, long durationMillis, int lockWaits,
+            LocalDateTime finishedAt) {
     }
 }
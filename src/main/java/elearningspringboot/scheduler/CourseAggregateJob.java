@@ -0,0 +1,82 @@
+package elearningspringboot.scheduler;
+
+import elearningspringboot.configuration.SchedulingConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Recomputes the lesson, duration and rating aggregates on chapters and
+ * courses from the underlying rows, one course id range per statement pair.
+ * Runs once at startup, which also fills the columns on an existing database,
+ * and then on a fixed delay to repair any drift.
+ */
+@Component
+@Slf4j
+public class CourseAggregateJob {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public CourseAggregateJob(JdbcTemplate jdbcTemplate,
+            @Value("${course-aggregates.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(scheduler = SchedulingConfig.REBUILD_SCHEDULER,
+            fixedDelayString = "${course-aggregates.rebuild-millis:86400000}")
+    public void rebuild() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Course aggregate rebuild is still running, skipping");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM courses", Long.class);
+            if (maxId == null)
+                return;
+            for (long from = 1; from <= maxId; from += batchSize) {
+                rebuildRange(from, from + batchSize - 1);
+            }
+            log.info("Rebuilt course aggregates up to course {} in {} ms", maxId,
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Failed to rebuild course aggregates: {}", e.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void rebuildRange(long fromId, long toId) {
+        jdbcTemplate.update("""
+                UPDATE chapters ch
+                LEFT JOIN (SELECT l.chapter_id, COUNT(*) AS lessons, COALESCE(SUM(l.duration), 0) AS duration
+                           FROM lessons l JOIN chapters c ON c.id = l.chapter_id
+                           WHERE c.course_id BETWEEN ? AND ?
+                           GROUP BY l.chapter_id) t ON t.chapter_id = ch.id
+                SET ch.lesson_count = COALESCE(t.lessons, 0), ch.total_duration = COALESCE(t.duration, 0)
+                WHERE ch.course_id BETWEEN ? AND ?
+                """, fromId, toId, fromId, toId);
+        jdbcTemplate.update("""
+                UPDATE courses co
+                LEFT JOIN (SELECT course_id, SUM(lesson_count) AS lessons, SUM(total_duration) AS duration
+                           FROM chapters WHERE course_id BETWEEN ? AND ?
+                           GROUP BY course_id) ch ON ch.course_id = co.id
+                LEFT JOIN (SELECT course_id, COUNT(*) AS ratings, COALESCE(SUM(rating), 0) AS rating_sum
+                           FROM ratings WHERE course_id BETWEEN ? AND ?
+                           GROUP BY course_id) r ON r.course_id = co.id
+                SET co.lesson_count = COALESCE(ch.lessons, 0),
+                    co.total_duration = COALESCE(ch.duration, 0),
+                    co.rating_count = COALESCE(r.ratings, 0),
+                    co.rating_sum = COALESCE(r.rating_sum, 0),
+                    co.average_rating = r.rating_sum / r.ratings
+                WHERE co.id BETWEEN ? AND ?
+                """, fromId, toId, fromId, toId, fromId, toId);
+    }
+}
@@ -11,4 +11,6 @@ public interface AuthenticationService {
     TokenResponse refreshToken(String refreshToken);
 
     void signOut(String accessToken, String refreshToken);
+
+    void signOutAll(String refreshToken);
 }
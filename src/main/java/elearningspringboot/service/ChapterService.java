@@ -2,6 +2,7 @@ package elearningspringboot.service;
 
 import elearningspringboot.dto.request.ChangeOrderRequest;
 import elearningspringboot.dto.request.ChapterRequest;
+import elearningspringboot.dto.request.MoveOrderRequest;
 import elearningspringboot.dto.response.ChapterResponse;
 import elearningspringboot.dto.response.PageResponse;
 import jakarta.validation.constraints.Min;
@@ -20,4 +21,6 @@ public interface ChapterService {
     List<ChapterResponse> getChaptersByCourseId(Long courseId);
 
     void updateOrder(Long id, List<ChangeOrderRequest> request);
+
+    void moveOrder(Long courseId, MoveOrderRequest request);
 }
@@ -0,0 +1,26 @@
+package elearningspringboot.service;
+
+import elearningspringboot.dto.response.FacetCountResponse;
+import elearningspringboot.enumeration.CatalogSort;
+import elearningspringboot.enumeration.DurationBucket;
+import elearningspringboot.enumeration.PriceBucket;
+
+import java.util.List;
+import java.util.Map;
+
+public interface CourseCatalogService {
+    void rebuild();
+
+    boolean isReady();
+
+    CatalogHits search(CatalogQuery query);
+
+    // Null filters match everything; minRating keeps courses rated at least that much.
+    record CatalogQuery(String keyword, Long categoryId, Long teacherId, PriceBucket priceBucket, Boolean free,
+            Double minRating, DurationBucket durationBucket, CatalogSort sort, int offset, int limit) {
+    }
+
+    // Course ids for the requested page, the total number of matches and the value counts per facet.
+    record CatalogHits(List<Long> ids, int total, Map<String, List<FacetCountResponse>> facets) {
+    }
+}
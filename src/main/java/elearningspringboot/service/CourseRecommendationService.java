@@ -0,0 +1,15 @@
+package elearningspringboot.service;
+
+import java.util.List;
+
+public interface CourseRecommendationService {
+    void rebuild();
+
+    boolean isReady();
+
+    // Courses most often taken by the students of the given one, best first, padded with popular courses.
+    List<Long> getAlsoTakenIds(Long courseId, int limit);
+
+    // Courses closest to everything the student is enrolled in, never one they already have.
+    List<Long> getRecommendedIds(Long studentId, int limit);
+}
@@ -1,8 +1,12 @@
 package elearningspringboot.service;
 
 import elearningspringboot.dto.request.CourseRequest;
+import elearningspringboot.dto.response.CacheStatsResponse;
 import elearningspringboot.dto.response.CourseResponse;
 import elearningspringboot.dto.response.PageResponse;
+import elearningspringboot.enumeration.CatalogSort;
+import elearningspringboot.enumeration.DurationBucket;
+import elearningspringboot.enumeration.PriceBucket;
 import elearningspringboot.enumeration.StatusCourse;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -17,12 +21,31 @@ public interface CourseService {
 
     CourseResponse getById(Long id);
 
+    // The outline is cached and shared between requests; do not modify it.
     CourseResponse getDetailsCourseById(Long id);
 
     PageResponse<List<CourseResponse>> getAllWithPagination(int pageNumber, int pageSize, List<String> sorts,
             String keyword, Long categoryId, Long teacherId, StatusCourse status);
 
+    PageResponse<List<CourseResponse>> getByCursor(String cursor, int pageSize, List<String> sorts,
+            String keyword, Long categoryId, Long teacherId, StatusCourse status);
+
+    // Faceted search over public courses; falls back to getAllWithPagination while the catalog is loading.
+    PageResponse<List<CourseResponse>> searchCatalog(int pageNumber, int pageSize, String keyword, Long categoryId,
+            Long teacherId, PriceBucket priceBucket, Boolean free, Double minRating, DurationBucket durationBucket,
+            CatalogSort sort);
+
     // New: return newest public courses limited by n
     List<CourseResponse> getNewest(int n);
     List<CourseResponse> getCoursesByIds(List<Long> ids);
+
+    // Public courses taken by students of the given course, best first.
+    List<CourseResponse> getAlsoTaken(Long courseId, int n);
+
+    // Public courses recommended from the student's enrollments; newest courses until recommendations are built.
+    List<CourseResponse> getRecommended(Long studentId, int n);
+
+    CacheStatsResponse getNewestCacheStats();
+
+    CacheStatsResponse getOutlineCacheStats();
 }
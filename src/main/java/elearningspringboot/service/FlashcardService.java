@@ -18,5 +18,7 @@ public interface FlashcardService {
     FlashcardSetResponse getById(Long id);
     PageResponse<List<FlashcardSetResponse>> getAll(int page, int size, String keyword, String category, String sort);
 
+    PageResponse<List<FlashcardSetResponse>> getAllByCursor(String cursor, int size, String keyword, String category);
+
     PageResponse<List<FlashcardSetResponse>> getAllForManagement(int page, int size, String keyword, String category, String sort, Long authorId);
 }
\ No newline at end of file
@@ -11,6 +11,10 @@ public interface JwtService {
 
     String generateRefreshToken(UserDetails userDetails);
 
+    IssuedToken issueAccessToken(UserDetails userDetails);
+
+    IssuedToken issueRefreshToken(UserDetails userDetails);
+
     String generateToken(UserDetails userDetails, TokenType tokenType, long hour);
 
     Claims extractAllClaims(String token, TokenType tokenType);
@@ -20,4 +24,11 @@ public interface JwtService {
     Date extractExpiration(String token, TokenType tokenType);
 
     boolean isTokenValid(String token, UserDetails userDetails, TokenType tokenType);
+
+    boolean isTokenValid(Claims claims, UserDetails userDetails, TokenType tokenType);
+
+    // A freshly signed token together with the expiry that was put into it, so
+    // callers can persist it without parsing the token again.
+    record IssuedToken(String token, TokenType tokenType, String id, Date expiration) {
+    }
 }
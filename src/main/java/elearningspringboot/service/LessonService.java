@@ -2,6 +2,7 @@ package elearningspringboot.service;
 
 import elearningspringboot.dto.request.ChangeOrderRequest;
 import elearningspringboot.dto.request.LessonRequest;
+import elearningspringboot.dto.request.MoveOrderRequest;
 import elearningspringboot.dto.response.LessonResponse;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -19,4 +20,6 @@ public interface LessonService {
     LessonResponse create(LessonRequest request, MultipartFile attachment, MultipartFile video);
 
     void updateOrder( Long chapterId, List<ChangeOrderRequest> request);
+
+    void moveOrder(Long chapterId, MoveOrderRequest request);
 }
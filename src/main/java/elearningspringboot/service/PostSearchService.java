@@ -0,0 +1,24 @@
+package elearningspringboot.service;
+
+import elearningspringboot.entity.Post;
+import elearningspringboot.enumeration.StatusPost;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+public interface PostSearchService {
+    void index(Post post);
+
+    void remove(Long postId);
+
+    void rebuild();
+
+    boolean isReady();
+
+    SearchHits search(String keyword, Long categoryId, Long authorId, StatusPost status, Sort sort, int offset,
+            int limit);
+
+    // Matching post ids for the requested page, best first, and the total number of matches.
+    record SearchHits(List<Long> ids, int total) {
+    }
+}
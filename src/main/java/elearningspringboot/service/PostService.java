@@ -1,8 +1,10 @@
 package elearningspringboot.service;
 
 import elearningspringboot.dto.request.PostRequest;
+import elearningspringboot.dto.response.CacheStatsResponse;
 import elearningspringboot.dto.response.PostResponse;
 import elearningspringboot.dto.response.PageResponse;
+import elearningspringboot.dto.response.TagResponse;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
@@ -19,7 +21,18 @@ public interface PostService {
     PageResponse<List<PostResponse>> getAll(int pageNumber, int pageSize, List<String> sorts, String keyword,
             Long categoryId, boolean isPublic, Long authorId);
 
+    PageResponse<List<PostResponse>> getPublicByCursor(String cursor, int pageSize, List<String> sorts,
+            String keyword, Long categoryId);
+
     List<PostResponse> getRelated(Long postId, int limit);
 
     List<PostResponse> getLatestPosts(int limit);
+
+    PageResponse<List<PostResponse>> getPublicByTag(String tag, int pageNumber, int pageSize);
+
+    List<TagResponse> getTrendingTags(int limit);
+
+    CacheStatsResponse getLatestPostsCacheStats();
+
+    List<PostResponse> getPopularPosts(int days, int limit);
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package elearningspringboot.service;
+
+import elearningspringboot.repository.PostViewDailyRepository.ViewTotal;
+
+import java.util.List;
+
+public interface PostViewService {
+    void recordView(Long postId);
+
+    void flush();
+
+    // Public posts with the most views over the last `days` days, most viewed first.
+    List<ViewTotal> getPopular(int days, int limit);
+}
@@ -0,0 +1,14 @@
+package elearningspringboot.service;
+
+import elearningspringboot.configuration.AuthenticatedUser;
+import elearningspringboot.dto.response.CacheStatsResponse;
+
+public interface PrincipalCacheService {
+    AuthenticatedUser loadPrincipal(String email);
+
+    void evict(String email);
+
+    void evictAll();
+
+    CacheStatsResponse getCacheStats();
+}
@@ -0,0 +1,19 @@
+package elearningspringboot.service;
+
+import elearningspringboot.entity.Post;
+
+import java.util.List;
+
+public interface RelatedPostService {
+    void index(Post post);
+
+    void remove(Long postId);
+
+    void refresh();
+
+    boolean isReady();
+
+    boolean contains(Long postId);
+
+    List<Long> getRelatedIds(Long postId, int limit);
+}
@@ -0,0 +1,24 @@
+package elearningspringboot.service;
+
+import elearningspringboot.dto.response.CacheStatsResponse;
+
+public interface SlugService {
+    // Slug for the title that no other row uses yet; excludeId is the row being renamed, or null.
+    String generatePostSlug(String title, Long excludeId);
+
+    String generateCategoryPostSlug(String title, Long excludeId);
+
+    String generateCategoryCourseSlug(String title, Long excludeId);
+
+    Long resolvePostId(String slug);
+
+    Long resolveCategoryPostId(String slug);
+
+    Long resolveCategoryCourseId(String slug);
+
+    void evictCategoryPost(Long id);
+
+    void evictCategoryCourse(Long id);
+
+    CacheStatsResponse getCacheStats();
+}
@@ -1,7 +1,18 @@
 package elearningspringboot.service;
 
+import elearningspringboot.dto.response.CacheStatsResponse;
+import elearningspringboot.dto.response.CleanupRunResponse;
+import elearningspringboot.dto.response.PasswordEncoderStatsResponse;
 import elearningspringboot.dto.response.DashboardStatisticsResponse;
 
+import java.util.List;
+
 public interface StatisticsService {
     DashboardStatisticsResponse getDashboardStatistics();
+
+    List<CacheStatsResponse> getCacheStatistics();
+
+    PasswordEncoderStatsResponse getPasswordEncoderStatistics();
+
+    List<CleanupRunResponse> getCleanupRuns();
 }
\ No newline at end of file
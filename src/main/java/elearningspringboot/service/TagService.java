@@ -0,0 +1,21 @@
+package elearningspringboot.service;
+
+import elearningspringboot.dto.response.TagResponse;
+import elearningspringboot.enumeration.StatusPost;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+public interface TagService {
+    void syncPostTags(Long postId, String tags, StatusPost status);
+
+    void removePost(Long postId);
+
+    TaggedPosts findPublicPostIds(String tag, Pageable pageable);
+
+    List<TagResponse> getTrending(int limit);
+
+    // Post ids for the requested page, newest first, and the tag's public post count.
+    record TaggedPosts(List<Long> ids, int total) {
+    }
+}
@@ -0,0 +1,13 @@
+package elearningspringboot.service;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+public interface TokenRevocationService {
+    void revoke(String jti, Date expiration);
+
+    void revokeAllIssuedBefore(String subject, Date issuedBefore);
+
+    boolean isRevoked(Claims claims);
+}
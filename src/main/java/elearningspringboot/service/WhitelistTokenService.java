@@ -1,11 +1,23 @@
 package elearningspringboot.service;
 
+import elearningspringboot.dto.response.CacheStatsResponse;
 import elearningspringboot.enumeration.TokenType;
+import elearningspringboot.service.JwtService.IssuedToken;
+
+import java.util.List;
 
 public interface WhitelistTokenService {
     void createToken(String token, TokenType tokenType, String email);
 
+    void createSession(String sessionId, List<IssuedToken> tokens, String email);
+
+    void rotateAccessToken(String sessionId, IssuedToken accessToken, String email);
+
     void deleteByToken(String token);
 
+    int deleteAllByEmail(String email);
+
     boolean existsByToken(String token);
+
+    CacheStatsResponse getCacheStats();
 }
@@ -5,6 +5,7 @@ import elearningspringboot.dto.request.SignInRequest;
 import elearningspringboot.dto.response.*;
 import elearningspringboot.entity.Role;
 import elearningspringboot.entity.User;
+import elearningspringboot.enumeration.AccessTokenMode;
 import elearningspringboot.enumeration.ErrorCode;
 import elearningspringboot.enumeration.Gender;
 import elearningspringboot.enumeration.Status;
@@ -15,6 +16,8 @@ import elearningspringboot.repository.UserRepository;
 import elearningspringboot.repository.httpclient.GoogleIdentityClient;
 import elearningspringboot.repository.httpclient.GoogleUserInfoClient;
 import elearningspringboot.service.*;
+import elearningspringboot.service.JwtService.IssuedToken;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -26,6 +29,9 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Date;
+import java.util.List;
+
 @Service
 @Transactional
 @RequiredArgsConstructor
@@ -41,6 +47,8 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private final GoogleUserInfoClient googleUserInfoClient;
     private final UserRepository userRepository;
     private final RoleService roleService;
+    private final PrincipalCacheService principalCacheService;
+    private final TokenRevocationService tokenRevocationService;
 
     @Value("${oauth2.google.client-id}")
     private String CLIENT_ID;
@@ -51,6 +59,9 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     @Value("${oauth2.google.redirect-uri}")
     private String REDIRECT_URI;
 
+    @Value("${jwt.access-token-mode:WHITELIST}")
+    private AccessTokenMode accessTokenMode;
+
     @Override
     public TokenResponse signIn(SignInRequest request) {
         authenticationManager.authenticate(
@@ -59,15 +70,14 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         if (user.getStatus().equals(Status.PENDING)) {
             throw new AppException(ErrorCode.PENDING_ACCOUNT);
         }
-        String accessToken = jwtService.generateAccessToken(user);
-        String refreshToken = jwtService.generateRefreshToken(user);
+        IssuedToken accessToken = jwtService.issueAccessToken(user);
+        IssuedToken refreshToken = jwtService.issueRefreshToken(user);
 
-        whitelistTokenService.createToken(accessToken, TokenType.ACCESS_TOKEN, request.getEmail());
-        whitelistTokenService.createToken(refreshToken, TokenType.REFRESH_TOKEN, request.getEmail());
+        whitelistTokenPair(accessToken, refreshToken, request.getEmail());
 
         return TokenResponse.builder()
-                .accessToken(accessToken)
-                .refreshToken(refreshToken)
+                .accessToken(accessToken.token())
+                .refreshToken(refreshToken.token())
                 .user(UserResponse.builder()
                         .id(user.getId())
                         .phoneNumber(user.getPhoneNumber())
@@ -116,17 +126,17 @@ public class AuthenticationServiceImpl implements AuthenticationService {
             userResponse = userService.findUserByEmail(userInfoResponse.getEmail());
             if (userResponse.getStatus().equals(Status.PENDING)) {
                 userResponse.setStatus(Status.ACTIVE);
+                principalCacheService.evict(userResponse.getEmail());
             }
         }
-        String accessToken = jwtService.generateAccessToken(userResponse);
-        String refreshToken = jwtService.generateRefreshToken(userResponse);
+        IssuedToken accessToken = jwtService.issueAccessToken(userResponse);
+        IssuedToken refreshToken = jwtService.issueRefreshToken(userResponse);
 
-        whitelistTokenService.createToken(accessToken, TokenType.ACCESS_TOKEN, userInfoResponse.getEmail());
-        whitelistTokenService.createToken(refreshToken, TokenType.REFRESH_TOKEN, userInfoResponse.getEmail());
+        whitelistTokenPair(accessToken, refreshToken, userInfoResponse.getEmail());
 
         return TokenResponse.builder()
-                .accessToken(accessToken)
-                .refreshToken(refreshToken)
+                .accessToken(accessToken.token())
+                .refreshToken(refreshToken.token())
                 .user(UserResponse.builder()
                         .id(userResponse.getId())
                         .birthDate(userResponse.getBirthDate())
@@ -150,19 +160,22 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         if (StringUtils.isBlank(refreshToken)) {
             throw new InvalidTokenException();
         }
-        String email = jwtService.extractEmail(refreshToken, TokenType.REFRESH_TOKEN);
+        Claims claims = jwtService.extractAllClaims(refreshToken, TokenType.REFRESH_TOKEN);
+        String email = claims.getSubject();
 
         UserDetails user = userDetailsService.loadUserByUsername(email);
-        if (!jwtService.isTokenValid(refreshToken, user, TokenType.REFRESH_TOKEN)
+        if (!jwtService.isTokenValid(claims, user, TokenType.REFRESH_TOKEN)
                 || !whitelistTokenService.existsByToken(refreshToken)) {
             throw new InvalidTokenException();
         }
-        String newAccessToken = jwtService.generateAccessToken(user);
+        IssuedToken newAccessToken = jwtService.issueAccessToken(user);
 
-        whitelistTokenService.createToken(newAccessToken, TokenType.ACCESS_TOKEN, email);
+        if (accessTokenMode == AccessTokenMode.WHITELIST) {
+            whitelistTokenService.rotateAccessToken(claims.getId(), newAccessToken, email);
+        }
 
         return TokenResponse.builder()
-                .accessToken(newAccessToken)
+                .accessToken(newAccessToken.token())
                 .refreshToken(refreshToken)
                 .build();
     }
@@ -170,14 +183,18 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     @Override
     public void signOut(String accessToken, String refreshToken) {
         if (StringUtils.isNotBlank(accessToken)) {
-            whitelistTokenService.deleteByToken(accessToken);
+            if (accessTokenMode == AccessTokenMode.STATELESS) {
+                revokeAccessToken(accessToken);
+            } else {
+                whitelistTokenService.deleteByToken(accessToken);
+            }
         }
 
         if (StringUtils.isNotBlank(refreshToken)) {
-            String email = jwtService.extractEmail(refreshToken, TokenType.REFRESH_TOKEN);
-            UserDetails user = userDetailsService.loadUserByUsername(email);
+            Claims claims = jwtService.extractAllClaims(refreshToken, TokenType.REFRESH_TOKEN);
+            UserDetails user = userDetailsService.loadUserByUsername(claims.getSubject());
 
-            if (!jwtService.isTokenValid(refreshToken, user, TokenType.REFRESH_TOKEN)) {
+            if (!jwtService.isTokenValid(claims, user, TokenType.REFRESH_TOKEN)) {
                 throw new InvalidTokenException();
             }
 
@@ -188,4 +205,36 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         }
     }
 
+    @Override
+    public void signOutAll(String refreshToken) {
+        if (StringUtils.isBlank(refreshToken)) {
+            throw new InvalidTokenException();
+        }
+        Claims claims = jwtService.extractAllClaims(refreshToken, TokenType.REFRESH_TOKEN);
+        UserDetails user = userDetailsService.loadUserByUsername(claims.getSubject());
+        if (!jwtService.isTokenValid(claims, user, TokenType.REFRESH_TOKEN)
+                || !whitelistTokenService.existsByToken(refreshToken)) {
+            throw new InvalidTokenException();
+        }
+        int deleted = whitelistTokenService.deleteAllByEmail(user.getUsername());
+        tokenRevocationService.revokeAllIssuedBefore(user.getUsername(), new Date());
+        log.info("Signed out user {} everywhere, {} tokens removed", user.getUsername(), deleted);
+    }
+
+    private void whitelistTokenPair(IssuedToken accessToken, IssuedToken refreshToken, String email) {
+        List<IssuedToken> tokens = accessTokenMode == AccessTokenMode.WHITELIST
+                ? List.of(accessToken, refreshToken)
+                : List.of(refreshToken);
+        whitelistTokenService.createSession(refreshToken.id(), tokens, email);
+    }
+
+    private void revokeAccessToken(String accessToken) {
+        try {
+            Claims claims = jwtService.extractAllClaims(accessToken, TokenType.ACCESS_TOKEN);
+            tokenRevocationService.revoke(claims.getId(), claims.getExpiration());
+        } catch (InvalidTokenException e) {
+            log.debug("Access token already invalid on sign-out, nothing to revoke");
+        }
+    }
+
 }
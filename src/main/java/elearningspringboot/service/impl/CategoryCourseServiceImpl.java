@@ -10,6 +10,7 @@ import elearningspringboot.mapper.CategoryCourseMapper;
 import elearningspringboot.util.AppUtils;
 import elearningspringboot.repository.CategoryCourseRepository;
 import elearningspringboot.service.CategoryCourseService;
+import elearningspringboot.service.SlugService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
@@ -26,6 +27,7 @@ public class CategoryCourseServiceImpl implements CategoryCourseService {
     private final CategoryCourseMapper mapper;
     private final CategoryCourseRepository repository;
     private final MessageSource messageSource;
+    private final SlugService slugService;
 
     @Override
     @Transactional
@@ -37,7 +39,7 @@ public class CategoryCourseServiceImpl implements CategoryCourseService {
         }
         CategoryCourse entity = mapper.toEntity(request);
         if (entity.getTitle() != null) {
-            entity.setSlug(AppUtils.toSlug(entity.getTitle()));
+            entity.setSlug(slugService.generateCategoryCourseSlug(entity.getTitle(), null));
         }
         repository.save(entity);
         return mapper.toDTO(entity);
@@ -61,9 +63,10 @@ public class CategoryCourseServiceImpl implements CategoryCourseService {
 
         mapper.updateEntityFromRequest(request, entity);
         if (request.getTitle() != null) {
-            entity.setSlug(AppUtils.toSlug(request.getTitle()));
+            entity.setSlug(slugService.generateCategoryCourseSlug(request.getTitle(), id));
         }
         repository.save(entity);
+        slugService.evictCategoryCourse(id);
         return mapper.toDTO(entity);
     }
 
@@ -77,6 +80,7 @@ public class CategoryCourseServiceImpl implements CategoryCourseService {
                     return new ResourceNotFoundException(message);
                 });
         repository.delete(entity);
+        slugService.evictCategoryCourse(id);
     }
 
     @Override
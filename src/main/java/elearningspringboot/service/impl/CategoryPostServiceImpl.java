@@ -9,6 +9,7 @@ import elearningspringboot.exception.ResourceNotFoundException;
 import elearningspringboot.mapper.CategoryPostMapper;
 import elearningspringboot.repository.CategoryPostRepository;
 import elearningspringboot.service.CategoryPostService;
+import elearningspringboot.service.SlugService;
 import elearningspringboot.util.AppUtils;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.MessageSource;
@@ -27,6 +28,7 @@ public class CategoryPostServiceImpl implements CategoryPostService {
     private final CategoryPostRepository repository;
     private final CategoryPostMapper mapper;
     private final MessageSource messageSource;
+    private final SlugService slugService;
 
     @Override
     @Transactional
@@ -36,14 +38,8 @@ public class CategoryPostServiceImpl implements CategoryPostService {
                     LocaleContextHolder.getLocale());
             throw new ResourceConflictException(message);
         }
-        String slug = AppUtils.toSlug(request.getTitle());
-        if (repository.existsBySlug(slug)) {
-            String message = messageSource.getMessage("categoryPost.exists", new Object[] { request.getTitle() },
-                    LocaleContextHolder.getLocale());
-            throw new ResourceConflictException(message);
-        }
         CategoryPost entity = mapper.toEntity(request);
-        entity.setSlug(slug);
+        entity.setSlug(slugService.generateCategoryPostSlug(request.getTitle(), null));
         repository.save(entity);
         return mapper.toDTO(entity);
     }
@@ -66,9 +62,10 @@ public class CategoryPostServiceImpl implements CategoryPostService {
 
         mapper.updateEntityFromRequest(request, entity);
         if (request.getTitle() != null) {
-            entity.setSlug(AppUtils.toSlug(request.getTitle()));
+            entity.setSlug(slugService.generateCategoryPostSlug(request.getTitle(), id));
         }
         repository.save(entity);
+        slugService.evictCategoryPost(id);
         return mapper.toDTO(entity);
     }
 
@@ -82,6 +79,7 @@ public class CategoryPostServiceImpl implements CategoryPostService {
                     return new ResourceNotFoundException(message);
                 });
         repository.delete(entity);
+        slugService.evictCategoryPost(id);
     }
 
     @Override
@@ -2,18 +2,21 @@ package elearningspringboot.service.impl;
 
 import elearningspringboot.dto.request.ChangeOrderRequest;
 import elearningspringboot.dto.request.ChapterRequest;
+import elearningspringboot.dto.request.MoveOrderRequest;
 import elearningspringboot.dto.response.ChapterResponse;
 import elearningspringboot.dto.response.PageResponse;
 import elearningspringboot.entity.Chapter;
 import elearningspringboot.entity.Course;
-import elearningspringboot.entity.Lesson;
+import elearningspringboot.event.CourseChangedEvent;
 import elearningspringboot.exception.ResourceNotFoundException;
 import elearningspringboot.mapper.ChapterMapper;
 import elearningspringboot.repository.ChapterRepository;
 import elearningspringboot.repository.CourseRepository;
 import elearningspringboot.service.ChapterService;
 import elearningspringboot.util.AppUtils;
+import elearningspringboot.util.OrderIndexWriter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.data.domain.Page;
@@ -26,7 +29,9 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -39,6 +44,8 @@ public class ChapterServiceImpl implements ChapterService {
     private final MessageSource messageSource;
     private final ChapterRepository chapterRepository;
     private final ChapterMapper chapterMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderIndexWriter orderIndexWriter;
 
     @Override
     @Transactional
@@ -49,8 +56,9 @@ public class ChapterServiceImpl implements ChapterService {
                         messageSource.getMessage("course.notFound", null, LocaleContextHolder.getLocale())));
         AppUtils.checkOwnerByCourse(course);
         entity.setCourse(course);
-        entity.setOrderIndex(chapterRepository.getOrderIndexMax(request.getCourseId()) + 1);
+        entity.setOrderIndex(chapterRepository.getOrderIndexMax(request.getCourseId()) + OrderIndexWriter.ORDER_GAP);
         repository.save(entity);
+        eventPublisher.publishEvent(new CourseChangedEvent(course.getId()));
         return mapper.toDTO(entity);
     }
 
@@ -62,6 +70,7 @@ public class ChapterServiceImpl implements ChapterService {
         AppUtils.checkOwnerByChapter(entity);
         mapper.updateEntityFromRequest(request, entity);
         repository.save(entity);
+        eventPublisher.publishEvent(new CourseChangedEvent(entity.getCourse().getId()));
         return mapper.toDTO(entity);
     }
 
@@ -71,7 +80,10 @@ public class ChapterServiceImpl implements ChapterService {
         Chapter entity = repository.findById(id).orElseThrow(() -> new ResourceNotFoundException(
                 messageSource.getMessage("chapter.notFound", null, LocaleContextHolder.getLocale())));
         AppUtils.checkOwnerByChapter(entity);
+        // The chapter's lessons go with it through the cascade.
+        courseRepository.subtractChapterTotals(id);
         repository.delete(entity);
+        eventPublisher.publishEvent(new CourseChangedEvent(entity.getCourse().getId()));
     }
 
     @Override
@@ -88,29 +100,34 @@ public class ChapterServiceImpl implements ChapterService {
                 messageSource.getMessage("course.notFound", null, LocaleContextHolder.getLocale())));
         AppUtils.checkOwnerByCourse(course);
         List<Chapter> chapters = chapterRepository.searchByCourseId(courseId);
-        return chapters.stream().map(c -> {
-            ChapterResponse chapterResponse = mapper.toDTO(c);
-            chapterResponse.setNumberOfLessons(c.getLessons().size());
-            chapterResponse.setDuration(
-                    c.getLessons().stream()
-                            .mapToInt(Lesson::getDuration)
-                            .sum()
-            );
-            return chapterResponse;
-        }).toList();
+        return mapper.toDTOs(chapters);
     }
 
     @Override
+    @Transactional
     public void updateOrder(Long courseId, List<ChangeOrderRequest> request) {
         Course course = courseRepository.findById(courseId).orElseThrow(() -> new ResourceNotFoundException(
                 messageSource.getMessage("course.notFound", null, LocaleContextHolder.getLocale())));
         AppUtils.checkOwnerByCourse(course);
-        request.forEach((entity) -> {
-            Chapter chapter = repository.findById(entity.getId()).orElseThrow(() -> new ResourceNotFoundException(
-                    messageSource.getMessage("chapter.notFound", null, LocaleContextHolder.getLocale())));
-            chapter.setOrderIndex(entity.getOrderIndex());
-            repository.save(chapter);
-        });
+        Map<Long, Integer> indexes = new LinkedHashMap<>();
+        request.forEach(item -> indexes.put(item.getId(), item.getOrderIndex()));
+        if (!orderIndexWriter.childIds(OrderIndexWriter.CHAPTERS, courseId).containsAll(indexes.keySet()))
+            throw new ResourceNotFoundException(
+                    messageSource.getMessage("chapter.notFound", null, LocaleContextHolder.getLocale()));
+        orderIndexWriter.write(OrderIndexWriter.CHAPTERS, courseId, indexes);
+        eventPublisher.publishEvent(new CourseChangedEvent(courseId));
+    }
+
+    @Override
+    @Transactional
+    public void moveOrder(Long courseId, MoveOrderRequest request) {
+        Course course = courseRepository.findById(courseId).orElseThrow(() -> new ResourceNotFoundException(
+                messageSource.getMessage("course.notFound", null, LocaleContextHolder.getLocale())));
+        AppUtils.checkOwnerByCourse(course);
+        if (!orderIndexWriter.move(OrderIndexWriter.CHAPTERS, courseId, request.getId(), request.getAfterId()))
+            throw new ResourceNotFoundException(
+                    messageSource.getMessage("chapter.notFound", null, LocaleContextHolder.getLocale()));
+        eventPublisher.publishEvent(new CourseChangedEvent(courseId));
     }
 
 
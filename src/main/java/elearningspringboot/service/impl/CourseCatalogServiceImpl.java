@@ -0,0 +1,428 @@
+package elearningspringboot.service.impl;
+
+import elearningspringboot.configuration.SchedulingConfig;
+import elearningspringboot.dto.response.FacetCountResponse;
+import elearningspringboot.enumeration.CatalogSort;
+import elearningspringboot.enumeration.DurationBucket;
+import elearningspringboot.enumeration.PriceBucket;
+import elearningspringboot.enumeration.StatusCourse;
+import elearningspringboot.event.CourseChangedEvent;
+import elearningspringboot.event.EnrollmentChangedEvent;
+import elearningspringboot.repository.CourseRepository;
+import elearningspringboot.repository.CourseRepository.CatalogSource;
+import elearningspringboot.service.CourseCatalogService;
+import elearningspringboot.util.SearchTextUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory catalog of public courses kept column by column: one primitive
+ * array per attribute, rebuilt from the entry map on the first search after a
+ * change. A search scans the columns once and collects both the matching rows
+ * and, per facet, the counts of rows that pass every other filter, so a facet
+ * that is already selected still shows its alternatives. Entries are
+ * refreshed after each course or enrollment change commits.
+ */
+@Service
+@Slf4j
+public class CourseCatalogServiceImpl implements CourseCatalogService {
+
+    private static final double[] RATING_THRESHOLDS = { 4.5, 4.0, 3.5, 3.0 };
+    private static final PriceBucket[] PRICE_BUCKETS = PriceBucket.values();
+    private static final DurationBucket[] DURATION_BUCKETS = DurationBucket.values();
+
+    private static final int CATEGORY = 0;
+    private static final int TEACHER = 1;
+    private static final int PRICE = 2;
+    private static final int FREE = 3;
+    private static final int RATING = 4;
+    private static final int DURATION = 5;
+    private static final int FACET_COUNT = 6;
+
+    private final CourseRepository courseRepository;
+    private final int rebuildBatchSize;
+    private final long rebuildMillis;
+    private final long retryMillis;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    // Replaced as a whole by a rebuild; single entries change while holding this.
+    private volatile Map<Long, CatalogEntry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final Object columnsLock = new Object();
+    private volatile Columns columns = Columns.of(List.of(), 0);
+    private volatile boolean ready;
+    private volatile long builtAt;
+    // Courses changed while a rebuild is loading, re-read on top of its snapshot.
+    private Set<Long> changedDuringRebuild;
+
+    public CourseCatalogServiceImpl(CourseRepository courseRepository,
+            @Value("${course-catalog.rebuild-batch-size:500}") int rebuildBatchSize,
+            @Value("${course-catalog.rebuild-millis:3600000}") long rebuildMillis,
+            @Value("${course-catalog.retry-millis:60000}") long retryMillis) {
+        this.courseRepository = courseRepository;
+        this.rebuildBatchSize = rebuildBatchSize;
+        this.rebuildMillis = rebuildMillis;
+        this.retryMillis = retryMillis;
+    }
+
+    /**
+     * Loads every public course without holding the lock, so course and
+     * enrollment changes keep landing in the live entries meanwhile. Those
+     * courses are then re-read under the lock and the new entries swapped in.
+     * A failed build keeps the previous entries; before the first success
+     * catalog search answers 503 until {@link #rebuildWhenDue()} gets through.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            log.warn("Course catalog rebuild is still running, skipping");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            changedDuringRebuild = new HashSet<>();
+        }
+        try {
+            Map<Long, CatalogEntry> loaded = new ConcurrentHashMap<>();
+            long lastId = 0;
+            while (true) {
+                List<CatalogSource> batch = courseRepository.findCatalogSourcesAfter(StatusCourse.PUBLIC, lastId,
+                        PageRequest.of(0, rebuildBatchSize));
+                for (CatalogSource source : batch) {
+                    loaded.put(source.getId(), toEntry(source));
+                    lastId = source.getId();
+                }
+                if (batch.size() < rebuildBatchSize)
+                    break;
+            }
+            synchronized (this) {
+                for (Long courseId : changedDuringRebuild) {
+                    apply(loaded, courseId, courseRepository.findCatalogSource(StatusCourse.PUBLIC, courseId));
+                }
+                entries = loaded;
+                version.incrementAndGet();
+            }
+            builtAt = System.currentTimeMillis();
+            ready = true;
+            log.info("Course catalog built: {} public courses in {} ms", loaded.size(), builtAt - start);
+        } catch (Exception e) {
+            log.error("Failed to build course catalog, {}, retrying in {} ms: {}",
+                    ready ? "keeping the previous one" : "catalog search is unavailable", retryMillis,
+                    e.getMessage());
+        } finally {
+            synchronized (this) {
+                changedDuringRebuild = null;
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    // Retries a failed build and otherwise rebuilds every rebuild-millis, picking up
+    // aggregates that the nightly SQL job updates without publishing events.
+    @Scheduled(scheduler = SchedulingConfig.REBUILD_SCHEDULER,
+            fixedDelayString = "${course-catalog.retry-millis:60000}",
+            initialDelayString = "${course-catalog.retry-millis:60000}")
+    public void rebuildWhenDue() {
+        if (!ready || System.currentTimeMillis() - builtAt >= rebuildMillis)
+            rebuild();
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Runs after the publishing transaction commits, or right away outside one.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        refresh(event.courseId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onEnrollmentChanged(EnrollmentChangedEvent event) {
+        if (changedDuringRebuild != null)
+            changedDuringRebuild.add(event.courseId());
+        entries.computeIfPresent(event.courseId(), (id, entry) -> entry
+                .withEnrollments(Math.max(0, entry.enrollments() + (event.enrolled() ? 1 : -1))));
+        version.incrementAndGet();
+    }
+
+    @Override
+    public CatalogHits search(CatalogQuery query) {
+        Columns cols = currentColumns();
+        List<String> terms = SearchTextUtils.tokenize(query.keyword());
+        Map<Long, Integer> categoryCounts = new HashMap<>();
+        Map<Long, Integer> teacherCounts = new HashMap<>();
+        int[] priceCounts = new int[PRICE_BUCKETS.length];
+        int[] freeCounts = new int[2];
+        int[] ratingCounts = new int[RATING_THRESHOLDS.length];
+        int[] durationCounts = new int[DURATION_BUCKETS.length];
+        int[] hits = new int[cols.size];
+        int hitCount = 0;
+
+        for (int row = 0; row < cols.size; row++) {
+            if (!matchesTerms(cols.text[row], terms))
+                continue;
+            // A row failing exactly one filter still counts toward that filter's facet.
+            int failed = -1;
+            int failures = 0;
+            if (query.categoryId() != null && cols.categoryIds[row] != query.categoryId()) {
+                failed = CATEGORY;
+                failures++;
+            }
+            if (query.teacherId() != null && cols.teacherIds[row] != query.teacherId()) {
+                failed = TEACHER;
+                failures++;
+            }
+            if (query.priceBucket() != null && cols.priceBuckets[row] != query.priceBucket().ordinal()) {
+                failed = PRICE;
+                failures++;
+            }
+            if (query.free() != null && cols.free[row] != query.free()) {
+                failed = FREE;
+                failures++;
+            }
+            if (query.minRating() != null && !(cols.ratings[row] >= query.minRating())) {
+                failed = RATING;
+                failures++;
+            }
+            if (query.durationBucket() != null && cols.durationBuckets[row] != query.durationBucket().ordinal()) {
+                failed = DURATION;
+                failures++;
+            }
+            if (failures > 1)
+                continue;
+
+            for (int facet = 0; facet < FACET_COUNT; facet++) {
+                if (failures == 1 && facet != failed)
+                    continue;
+                switch (facet) {
+                    case CATEGORY -> {
+                        if (cols.categoryIds[row] != 0)
+                            categoryCounts.merge(cols.categoryIds[row], 1, Integer::sum);
+                    }
+                    case TEACHER -> {
+                        if (cols.teacherIds[row] != 0)
+                            teacherCounts.merge(cols.teacherIds[row], 1, Integer::sum);
+                    }
+                    case PRICE -> priceCounts[cols.priceBuckets[row]]++;
+                    case FREE -> freeCounts[cols.free[row] ? 1 : 0]++;
+                    case RATING -> {
+                        for (int t = 0; t < RATING_THRESHOLDS.length; t++) {
+                            if (cols.ratings[row] >= RATING_THRESHOLDS[t])
+                                ratingCounts[t]++;
+                        }
+                    }
+                    default -> durationCounts[cols.durationBuckets[row]]++;
+                }
+            }
+            if (failures == 0)
+                hits[hitCount++] = row;
+        }
+
+        List<Integer> rows = new ArrayList<>(hitCount);
+        for (int i = 0; i < hitCount; i++) {
+            rows.add(hits[i]);
+        }
+        rows.sort(comparator(cols, query.sort()));
+        int from = Math.min(query.offset(), rows.size());
+        int to = Math.min(from + query.limit(), rows.size());
+        List<Long> ids = rows.subList(from, to).stream().map(row -> cols.ids[row]).toList();
+
+        Map<String, List<FacetCountResponse>> facets = new LinkedHashMap<>();
+        facets.put("category", byCount(categoryCounts));
+        facets.put("teacher", byCount(teacherCounts));
+        List<FacetCountResponse> price = new ArrayList<>();
+        for (PriceBucket bucket : PRICE_BUCKETS) {
+            price.add(facetCount(bucket.name(), priceCounts[bucket.ordinal()]));
+        }
+        facets.put("price", price);
+        facets.put("free", List.of(facetCount("true", freeCounts[1]), facetCount("false", freeCounts[0])));
+        List<FacetCountResponse> rating = new ArrayList<>();
+        for (int t = 0; t < RATING_THRESHOLDS.length; t++) {
+            rating.add(facetCount(String.valueOf(RATING_THRESHOLDS[t]), ratingCounts[t]));
+        }
+        facets.put("rating", rating);
+        List<FacetCountResponse> duration = new ArrayList<>();
+        for (DurationBucket bucket : DURATION_BUCKETS) {
+            duration.add(facetCount(bucket.name(), durationCounts[bucket.ordinal()]));
+        }
+        facets.put("duration", duration);
+        return new CatalogHits(ids, hitCount, facets);
+    }
+
+    private synchronized void refresh(Long courseId) {
+        try {
+            if (changedDuringRebuild != null)
+                changedDuringRebuild.add(courseId);
+            apply(entries, courseId, courseRepository.findCatalogSource(StatusCourse.PUBLIC, courseId));
+            version.incrementAndGet();
+        } catch (Exception e) {
+            log.warn("Failed to refresh course {} in the catalog: {}", courseId, e.getMessage());
+        }
+    }
+
+    private static void apply(Map<Long, CatalogEntry> target, Long courseId, Optional<CatalogSource> source) {
+        if (source.isPresent())
+            target.put(courseId, toEntry(source.get()));
+        else
+            target.remove(courseId);
+    }
+
+    // Rebuilds the columns only when an entry changed since they were last built.
+    private Columns currentColumns() {
+        Columns current = columns;
+        if (current.version == version.get())
+            return current;
+        synchronized (columnsLock) {
+            long target = version.get();
+            if (columns.version != target)
+                columns = Columns.of(entries.values(), target);
+            return columns;
+        }
+    }
+
+    private static boolean matchesTerms(String text, List<String> terms) {
+        for (String term : terms) {
+            if (!text.contains(" " + term))
+                return false;
+        }
+        return true;
+    }
+
+    private static Comparator<Integer> comparator(Columns cols, CatalogSort sort) {
+        Comparator<Integer> newest = Comparator.comparingLong((Integer row) -> cols.createdAt[row]).reversed();
+        Comparator<Integer> primary = switch (sort == null ? CatalogSort.POPULAR : sort) {
+            case POPULAR -> Comparator.comparingInt((Integer row) -> cols.enrollments[row]).reversed()
+                    .thenComparing(Comparator.comparingInt((Integer row) -> cols.ratingCounts[row]).reversed());
+            case RATING -> Comparator.comparingDouble((Integer row) -> cols.ratings[row]).reversed()
+                    .thenComparing(Comparator.comparingInt((Integer row) -> cols.ratingCounts[row]).reversed());
+            case NEWEST -> newest;
+            case PRICE_ASC -> Comparator.comparingDouble((Integer row) -> cols.prices[row]);
+            case PRICE_DESC -> Comparator.comparingDouble((Integer row) -> cols.prices[row]).reversed();
+        };
+        return primary.thenComparing(newest)
+                .thenComparing(Comparator.comparingLong((Integer row) -> cols.ids[row]).reversed());
+    }
+
+    private static List<FacetCountResponse> byCount(Map<Long, Integer> counts) {
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .map(e -> facetCount(String.valueOf(e.getKey()), e.getValue()))
+                .toList();
+    }
+
+    private static FacetCountResponse facetCount(String value, int count) {
+        return FacetCountResponse.builder().value(value).count(count).build();
+    }
+
+    private static CatalogEntry toEntry(CatalogSource source) {
+        double price = source.getPrice() != null ? source.getPrice() : 0;
+        if (source.getDiscountPrice() != null && source.getDiscountPrice() >= 0 && source.getDiscountPrice() < price)
+            price = source.getDiscountPrice();
+        boolean free = Boolean.TRUE.equals(source.getIsFree()) || price <= 0;
+        String text = " " + String.join(" ", SearchTextUtils.tokenize(source.getTitle())) + " "
+                + String.join(" ", SearchTextUtils.tokenize(source.getShortDescription()));
+        return new CatalogEntry(source.getId(), text,
+                source.getCategoryId() != null ? source.getCategoryId() : 0,
+                source.getTeacherId() != null ? source.getTeacherId() : 0,
+                free ? 0 : price, free,
+                source.getAverageRating() != null ? source.getAverageRating() : 0,
+                source.getRatingCount() != null ? source.getRatingCount() : 0,
+                source.getTotalDuration() != null ? source.getTotalDuration() : 0,
+                source.getCreatedAt() != null
+                        ? source.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                        : 0,
+                source.getEnrollmentCount() != null ? source.getEnrollmentCount().intValue() : 0);
+    }
+
+    private record CatalogEntry(long id, String text, long categoryId, long teacherId, double price, boolean free,
+            double rating, int ratingCount, int duration, long createdAt, int enrollments) {
+
+        CatalogEntry withEnrollments(int count) {
+            return new CatalogEntry(id, text, categoryId, teacherId, price, free, rating, ratingCount, duration,
+                    createdAt, count);
+        }
+    }
+
+    // Immutable column snapshot; row i of every array describes the same course.
+    private static final class Columns {
+        private final long version;
+        private final int size;
+        private final long[] ids;
+        private final String[] text;
+        private final long[] categoryIds;
+        private final long[] teacherIds;
+        private final double[] prices;
+        private final int[] priceBuckets;
+        private final boolean[] free;
+        private final double[] ratings;
+        private final int[] ratingCounts;
+        private final int[] durationBuckets;
+        private final long[] createdAt;
+        private final int[] enrollments;
+
+        private Columns(long version, int size) {
+            this.version = version;
+            this.size = size;
+            this.ids = new long[size];
+            this.text = new String[size];
+            this.categoryIds = new long[size];
+            this.teacherIds = new long[size];
+            this.prices = new double[size];
+            this.priceBuckets = new int[size];
+            this.free = new boolean[size];
+            this.ratings = new double[size];
+            this.ratingCounts = new int[size];
+            this.durationBuckets = new int[size];
+            this.createdAt = new long[size];
+            this.enrollments = new int[size];
+        }
+
+        static Columns of(Collection<CatalogEntry> source, long version) {
+            CatalogEntry[] rows = source.toArray(new CatalogEntry[0]);
+            Arrays.sort(rows, Comparator.comparingLong(CatalogEntry::id));
+            Columns cols = new Columns(version, rows.length);
+            for (int i = 0; i < rows.length; i++) {
+                CatalogEntry entry = rows[i];
+                cols.ids[i] = entry.id();
+                cols.text[i] = entry.text();
+                cols.categoryIds[i] = entry.categoryId();
+                cols.teacherIds[i] = entry.teacherId();
+                cols.prices[i] = entry.price();
+                cols.priceBuckets[i] = PriceBucket.of(entry.price()).ordinal();
+                cols.free[i] = entry.free();
+                cols.ratings[i] = entry.rating();
+                cols.ratingCounts[i] = entry.ratingCount();
+                cols.durationBuckets[i] = DurationBucket.of(entry.duration()).ordinal();
+                cols.createdAt[i] = entry.createdAt();
+                cols.enrollments[i] = entry.enrollments();
+            }
+            return cols;
+        }
+    }
+}
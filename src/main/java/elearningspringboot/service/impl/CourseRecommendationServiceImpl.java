@@ -0,0 +1,533 @@
+package elearningspringboot.service.impl;
+
+import elearningspringboot.configuration.SchedulingConfig;
+import elearningspringboot.event.EnrollmentChangedEvent;
+import elearningspringboot.repository.EnrollmentRepository;
+import elearningspringboot.repository.EnrollmentRepository.EnrollmentSignal;
+import elearningspringboot.service.CourseRecommendationService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongPredicate;
+
+/**
+ * Item-to-item course recommendations from enrollments. Every student is a
+ * basket of courses, each weighted by the student's rating of it (unrated
+ * counts as 3 stars). Co-occurrence rows are sparse course-index maps, and the
+ * similarity of two courses is the cosine of their student vectors with a
+ * shrink term, so pairs seen together by a handful of students stay low. The
+ * full rebuild computes the rows and the top neighbours of every course on a
+ * fork/join pool; each enrollment change then adds or subtracts that one
+ * basket's pairs and re-ranks the courses in it. Lists of other courses that
+ * point into the basket pick up the changed norms at the next rebuild.
+ */
+@Service
+@Slf4j
+public class CourseRecommendationServiceImpl implements CourseRecommendationService {
+
+    // Added to the cosine denominator: two courses shared by a single student would otherwise score 1.0.
+    private static final double SHRINK = 5.0;
+    private static final double RATING_STEP = 0.25;
+    private static final double EPSILON = 1e-9;
+    private static final int POPULAR_SIZE = 100;
+    private static final int ROWS_PER_TASK = 32;
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final int neighbours;
+    private final int maxBasket;
+    private final int batchSize;
+    private final ForkJoinPool pool;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    // Replaced as a whole by a rebuild; changes to it are made while holding this.
+    private volatile Model model;
+    // Changes committed while a rebuild is reading the database, replayed on top of its snapshot.
+    private List<EnrollmentChangedEvent> changedDuringRebuild;
+
+    public CourseRecommendationServiceImpl(EnrollmentRepository enrollmentRepository,
+            @Value("${recommendations.neighbours:20}") int neighbours,
+            @Value("${recommendations.max-basket:100}") int maxBasket,
+            @Value("${recommendations.batch-size:1000}") int batchSize,
+            @Value("${recommendations.parallelism:4}") int parallelism) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.neighbours = neighbours;
+        this.maxBasket = maxBasket;
+        this.batchSize = batchSize;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Override
+    @Scheduled(scheduler = SchedulingConfig.REBUILD_SCHEDULER,
+            fixedDelayString = "${recommendations.rebuild-millis:21600000}",
+            initialDelayString = "${recommendations.initial-delay-millis:15000}")
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            log.warn("Course recommendation rebuild is still running, skipping");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            changedDuringRebuild = new ArrayList<>();
+        }
+        try {
+            Model next = new Model();
+            loadBaskets(next.baskets);
+            build(next);
+            synchronized (this) {
+                // Replaying is safe for changes the snapshot already saw: baskets ignore repeats.
+                for (EnrollmentChangedEvent event : changedDuringRebuild) {
+                    applyChange(next, event);
+                }
+                model = next;
+            }
+            log.info("Course recommendations rebuilt for {} courses and {} students in {} ms", next.size,
+                    next.baskets.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Failed to rebuild course recommendations: {}", e.getMessage());
+        } finally {
+            synchronized (this) {
+                changedDuringRebuild = null;
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return model != null;
+    }
+
+    @Override
+    public List<Long> getAlsoTakenIds(Long courseId, int limit) {
+        Model current = model;
+        if (current == null)
+            return List.of();
+        LinkedHashSet<Long> result = new LinkedHashSet<>();
+        Neighbours list = current.similar.get(courseId);
+        if (list != null) {
+            for (int i = 0; i < list.ids().length && result.size() < limit; i++) {
+                result.add(list.ids()[i]);
+            }
+        }
+        pad(result, current.popular, limit, id -> id == courseId);
+        return List.copyOf(result);
+    }
+
+    @Override
+    public List<Long> getRecommendedIds(Long studentId, int limit) {
+        Model current = model;
+        if (current == null)
+            return List.of();
+        Basket basket = current.baskets.getOrDefault(studentId, Basket.EMPTY);
+        Map<Long, Double> scores = new HashMap<>();
+        for (int i = 0; i < basket.size(); i++) {
+            Neighbours list = current.similar.get(basket.courseIds()[i]);
+            if (list == null)
+                continue;
+            for (int j = 0; j < list.ids().length; j++) {
+                long candidate = list.ids()[j];
+                if (basket.indexOf(candidate) < 0)
+                    scores.merge(candidate, basket.weights()[i] * list.scores()[j], Double::sum);
+            }
+        }
+        LinkedHashSet<Long> result = new LinkedHashSet<>();
+        scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
+                .limit(limit)
+                .forEach(e -> result.add(e.getKey()));
+        pad(result, current.popular, limit, id -> basket.indexOf(id) >= 0);
+        return List.copyOf(result);
+    }
+
+    // Runs after the enrolling transaction commits, or right away outside one.
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onEnrollmentChanged(EnrollmentChangedEvent event) {
+        if (changedDuringRebuild != null)
+            changedDuringRebuild.add(event);
+        if (model != null)
+            applyChange(model, event);
+    }
+
+    private void loadBaskets(Map<Long, Basket> baskets) {
+        long lastId = 0;
+        while (true) {
+            List<EnrollmentSignal> batch = enrollmentRepository.findSignalsAfter(lastId,
+                    PageRequest.of(0, batchSize));
+            for (EnrollmentSignal signal : batch) {
+                if (signal.getStudentId() != null && signal.getCourseId() != null) {
+                    Basket basket = baskets.getOrDefault(signal.getStudentId(), Basket.EMPTY);
+                    baskets.put(signal.getStudentId(), basket.with(signal.getCourseId(), weightOf(signal.getRating())));
+                }
+                lastId = signal.getId();
+            }
+            if (batch.size() < batchSize)
+                break;
+        }
+    }
+
+    private void build(Model next) {
+        List<Basket> contributing = new ArrayList<>();
+        for (Basket basket : next.baskets.values()) {
+            for (long courseId : basket.courseIds()) {
+                next.indexOf(courseId);
+            }
+            if (basket.size() <= maxBasket)
+                contributing.add(basket);
+        }
+        int courses = next.size;
+        int[] enrolled = new int[courses];
+        for (Basket basket : next.baskets.values()) {
+            for (long courseId : basket.courseIds()) {
+                enrolled[next.courseIndex.get(courseId)]++;
+            }
+        }
+
+        // Dense course indexes per contributing basket, and the baskets holding each course.
+        int[][] items = new int[contributing.size()][];
+        float[][] weights = new float[contributing.size()][];
+        int[] postingSizes = new int[courses];
+        for (int s = 0; s < items.length; s++) {
+            Basket basket = contributing.get(s);
+            items[s] = new int[basket.size()];
+            weights[s] = basket.weights();
+            for (int i = 0; i < basket.size(); i++) {
+                int course = next.courseIndex.get(basket.courseIds()[i]);
+                items[s][i] = course;
+                postingSizes[course]++;
+                next.norms[course] += (double) basket.weights()[i] * basket.weights()[i];
+            }
+        }
+        int[][] postings = new int[courses][];
+        for (int c = 0; c < courses; c++) {
+            postings[c] = new int[postingSizes[c]];
+            postingSizes[c] = 0;
+        }
+        for (int s = 0; s < items.length; s++) {
+            for (int course : items[s]) {
+                postings[course][postingSizes[course]++] = s;
+            }
+        }
+
+        Neighbours[] lists = new Neighbours[courses];
+        pool.invoke(new RowTask(next, items, weights, postings, lists, 0, courses));
+        for (int c = 0; c < courses; c++) {
+            if (lists[c].ids().length > 0)
+                next.similar.put(next.courseIds[c], lists[c]);
+        }
+
+        Integer[] byEnrolled = new Integer[courses];
+        Arrays.setAll(byEnrolled, c -> c);
+        Arrays.sort(byEnrolled, (a, b) -> Integer.compare(enrolled[b], enrolled[a]));
+        next.popular = Arrays.stream(byEnrolled).limit(POPULAR_SIZE).mapToLong(c -> next.courseIds[c]).toArray();
+    }
+
+    private void applyChange(Model target, EnrollmentChangedEvent event) {
+        Basket before = target.baskets.getOrDefault(event.studentId(), Basket.EMPTY);
+        Basket after = event.enrolled() ? before.with(event.courseId(), 1f) : before.without(event.courseId());
+        if (after == before)
+            return;
+        contribute(target, before, -1);
+        contribute(target, after, 1);
+        if (after.size() == 0)
+            target.baskets.remove(event.studentId());
+        else
+            target.baskets.put(event.studentId(), after);
+        // One basket always contains the other, so the larger one lists every changed row.
+        Basket larger = after.size() > before.size() ? after : before;
+        for (long courseId : larger.courseIds()) {
+            int course = target.indexOf(courseId);
+            Neighbours list = topNeighbours(target, course);
+            if (list.ids().length == 0)
+                target.similar.remove(courseId);
+            else
+                target.similar.put(courseId, list);
+        }
+    }
+
+    // Adds (sign 1) or removes (sign -1) the pairs of one basket; oversized baskets never count.
+    private void contribute(Model target, Basket basket, int sign) {
+        if (basket.size() == 0 || basket.size() > maxBasket)
+            return;
+        int[] courses = new int[basket.size()];
+        for (int i = 0; i < courses.length; i++) {
+            courses[i] = target.indexOf(basket.courseIds()[i]);
+        }
+        for (int i = 0; i < courses.length; i++) {
+            double weight = sign * basket.weights()[i];
+            target.norms[courses[i]] += weight * basket.weights()[i];
+            if (Math.abs(target.norms[courses[i]]) < EPSILON)
+                target.norms[courses[i]] = 0;
+            for (int j = 0; j < courses.length; j++) {
+                if (j != i)
+                    target.rows[courses[i]].add(courses[j], weight * basket.weights()[j]);
+            }
+        }
+    }
+
+    private Neighbours topNeighbours(Model source, int course) {
+        CoCounts row = source.rows[course];
+        double norm = source.norms[course];
+        long[] ids = new long[neighbours];
+        double[] scores = new double[neighbours];
+        int count = 0;
+        for (int slot = 0; norm > 0 && slot < row.keys.length; slot++) {
+            if (row.keys[slot] == 0)
+                continue;
+            int other = row.keys[slot] - 1;
+            double score = row.values[slot] / (Math.sqrt(norm * source.norms[other]) + SHRINK);
+            if (score <= 0 || (count == neighbours && score <= scores[count - 1]))
+                continue;
+            int pos = count < neighbours ? count++ : count - 1;
+            while (pos > 0 && scores[pos - 1] < score) {
+                ids[pos] = ids[pos - 1];
+                scores[pos] = scores[pos - 1];
+                pos--;
+            }
+            ids[pos] = source.courseIds[other];
+            scores[pos] = score;
+        }
+        return new Neighbours(Arrays.copyOf(ids, count), Arrays.copyOf(scores, count));
+    }
+
+    private static void pad(LinkedHashSet<Long> result, long[] candidates, int limit, LongPredicate excluded) {
+        for (long id : candidates) {
+            if (result.size() >= limit)
+                return;
+            if (!excluded.test(id))
+                result.add(id);
+        }
+    }
+
+    private static float weightOf(Integer rating) {
+        return rating == null ? 1f : (float) (1 + (rating - 3) * RATING_STEP);
+    }
+
+    // Fills the rows and neighbour lists of a course index range; every course is written by one task only.
+    private final class RowTask extends RecursiveAction {
+        private final Model target;
+        private final int[][] items;
+        private final float[][] weights;
+        private final int[][] postings;
+        private final Neighbours[] lists;
+        private final int from;
+        private final int to;
+
+        private RowTask(Model target, int[][] items, float[][] weights, int[][] postings, Neighbours[] lists,
+                int from, int to) {
+            this.target = target;
+            this.items = items;
+            this.weights = weights;
+            this.postings = postings;
+            this.lists = lists;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > ROWS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RowTask(target, items, weights, postings, lists, from, mid),
+                        new RowTask(target, items, weights, postings, lists, mid, to));
+                return;
+            }
+            for (int course = from; course < to; course++) {
+                CoCounts row = target.rows[course];
+                for (int s : postings[course]) {
+                    int[] basket = items[s];
+                    double own = 0;
+                    for (int i = 0; i < basket.length; i++) {
+                        if (basket[i] == course) {
+                            own = weights[s][i];
+                            break;
+                        }
+                    }
+                    for (int j = 0; j < basket.length; j++) {
+                        if (basket[j] != course)
+                            row.add(basket[j], own * weights[s][j]);
+                    }
+                }
+                lists[course] = topNeighbours(target, course);
+            }
+        }
+    }
+
+    private static final class Model {
+        private final Map<Long, Integer> courseIndex = new HashMap<>();
+        private final Map<Long, Basket> baskets = new ConcurrentHashMap<>();
+        private final Map<Long, Neighbours> similar = new ConcurrentHashMap<>();
+        private long[] courseIds = new long[16];
+        private CoCounts[] rows = new CoCounts[16];
+        private double[] norms = new double[16];
+        private long[] popular = new long[0];
+        private int size;
+
+        private int indexOf(long courseId) {
+            Integer index = courseIndex.get(courseId);
+            if (index != null)
+                return index;
+            if (size == courseIds.length) {
+                courseIds = Arrays.copyOf(courseIds, size * 2);
+                rows = Arrays.copyOf(rows, size * 2);
+                norms = Arrays.copyOf(norms, size * 2);
+            }
+            courseIds[size] = courseId;
+            rows[size] = new CoCounts();
+            courseIndex.put(courseId, size);
+            return size++;
+        }
+    }
+
+    // Immutable, so readers never see a basket half way through a change.
+    private record Basket(long[] courseIds, float[] weights) {
+        private static final Basket EMPTY = new Basket(new long[0], new float[0]);
+
+        private int size() {
+            return courseIds.length;
+        }
+
+        private int indexOf(long courseId) {
+            for (int i = 0; i < courseIds.length; i++) {
+                if (courseIds[i] == courseId)
+                    return i;
+            }
+            return -1;
+        }
+
+        private Basket with(long courseId, float weight) {
+            if (indexOf(courseId) >= 0)
+                return this;
+            long[] ids = Arrays.copyOf(courseIds, size() + 1);
+            float[] newWeights = Arrays.copyOf(weights, size() + 1);
+            ids[size()] = courseId;
+            newWeights[size()] = weight;
+            return new Basket(ids, newWeights);
+        }
+
+        private Basket without(long courseId) {
+            int index = indexOf(courseId);
+            if (index < 0)
+                return this;
+            long[] ids = new long[size() - 1];
+            float[] newWeights = new float[size() - 1];
+            System.arraycopy(courseIds, 0, ids, 0, index);
+            System.arraycopy(courseIds, index + 1, ids, index, ids.length - index);
+            System.arraycopy(weights, 0, newWeights, 0, index);
+            System.arraycopy(weights, index + 1, newWeights, index, newWeights.length - index);
+            return new Basket(ids, newWeights);
+        }
+    }
+
+    private record Neighbours(long[] ids, double[] scores) {
+    }
+
+    // Course index -> summed pair weight, open addressing with linear probing.
+    // Keys hold the course index + 1 so that 0 marks a free slot.
+    static final class CoCounts {
+        private int[] keys = new int[8];
+        private double[] values = new double[8];
+        private int size;
+
+        double get(int course) {
+            int key = course + 1;
+            int mask = keys.length - 1;
+            for (int slot = mix(key) & mask; keys[slot] != 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key)
+                    return values[slot];
+            }
+            return 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int capacity() {
+            return keys.length;
+        }
+
+        void add(int course, double delta) {
+            int key = course + 1;
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (keys[slot] != 0) {
+                if (keys[slot] == key) {
+                    values[slot] += delta;
+                    if (Math.abs(values[slot]) < EPSILON)
+                        removeAt(slot);
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (Math.abs(delta) < EPSILON)
+                return;
+            keys[slot] = key;
+            values[slot] = delta;
+            if (++size * 4 > keys.length * 3)
+                resize();
+        }
+
+        // Backward-shift deletion keeps every probe chain unbroken without tombstones.
+        private void removeAt(int slot) {
+            int mask = keys.length - 1;
+            keys[slot] = 0;
+            values[slot] = 0;
+            size--;
+            int next = (slot + 1) & mask;
+            while (keys[next] != 0) {
+                int home = mix(keys[next]) & mask;
+                if (((next - home) & mask) >= ((next - slot) & mask)) {
+                    keys[slot] = keys[next];
+                    values[slot] = values[next];
+                    keys[next] = 0;
+                    values[next] = 0;
+                    slot = next;
+                }
+                next = (next + 1) & mask;
+            }
+        }
+
+        private void resize() {
+            int[] oldKeys = keys;
+            double[] oldValues = values;
+            keys = new int[oldKeys.length * 2];
+            values = new double[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == 0)
+                    continue;
+                int slot = mix(oldKeys[i]) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+
+        private static int mix(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -6,18 +6,33 @@ import elearningspringboot.entity.CategoryCourse;
 import elearningspringboot.entity.Course;
 import elearningspringboot.entity.Lesson;
 import elearningspringboot.entity.User;
+import elearningspringboot.enumeration.CatalogSort;
+import elearningspringboot.enumeration.DurationBucket;
+import elearningspringboot.enumeration.PriceBucket;
 import elearningspringboot.enumeration.StatusCourse;
+import elearningspringboot.event.CourseChangedEvent;
 import elearningspringboot.exception.ResourceNotFoundException;
+import elearningspringboot.exception.ServiceBusyException;
 import elearningspringboot.mapper.ChapterMapper;
 import elearningspringboot.mapper.CourseMapper;
 import elearningspringboot.mapper.LessonMapper;
 import elearningspringboot.repository.CategoryCourseRepository;
 import elearningspringboot.repository.CourseRepository;
+import elearningspringboot.repository.LessonRepository;
 import elearningspringboot.repository.UserRepository;
+import elearningspringboot.service.CourseCatalogService;
+import elearningspringboot.service.CourseCatalogService.CatalogHits;
+import elearningspringboot.service.CourseCatalogService.CatalogQuery;
+import elearningspringboot.service.CourseRecommendationService;
 import elearningspringboot.service.StorageService;
 import elearningspringboot.service.CourseService;
 import elearningspringboot.util.AppUtils;
+import elearningspringboot.util.PageCursor;
+import elearningspringboot.util.SingleFlightCache;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.data.domain.Page;
@@ -26,9 +41,13 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PostAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -43,6 +62,32 @@ public class CourseServiceImpl implements CourseService {
     private final MessageSource messageSource;
     private final ChapterMapper chapterMapper;
     private final LessonMapper lessonMapper;
+    private final LessonRepository lessonRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CourseCatalogService courseCatalogService;
+    private final CourseRecommendationService recommendationService;
+
+    // Newest public courses for the home page; requests for up to NEWEST_CACHED
+    // courses are served from a prefix of one cached list.
+    private static final int NEWEST_CACHED = 20;
+
+    @Value("${public-feed.ttl-seconds:60}")
+    private long feedTtlSeconds;
+
+    @Value("${course-outline.ttl-seconds:600}")
+    private long outlineTtlSeconds;
+
+    @Value("${course-outline.max-size:1000}")
+    private int outlineMaxSize;
+
+    private SingleFlightCache<String, List<CourseResponse>> newestCache;
+    private SingleFlightCache<Long, CourseResponse> outlineCache;
+
+    @PostConstruct
+    void initCaches() {
+        newestCache = new SingleFlightCache<>(feedTtlSeconds * 1000);
+        outlineCache = new SingleFlightCache<>(outlineTtlSeconds * 1000, outlineMaxSize);
+    }
 
     @Override
     @Transactional
@@ -64,6 +109,7 @@ public class CourseServiceImpl implements CourseService {
             entity.setThumbnailUrl(thumbnailUrl);
         }
         repository.save(entity);
+        eventPublisher.publishEvent(new CourseChangedEvent(entity.getId()));
         CourseResponse res = mapper.toDTO(entity);
         res.setTeacher(UserSummaryResponse.builder()
                 .id(teacher.getId()).fullName(teacher.getFullName()).avatarUrl(teacher.getAvatarUrl())
@@ -99,6 +145,7 @@ public class CourseServiceImpl implements CourseService {
             entity.setThumbnailUrl(thumbnailUrl);
         }
         repository.save(entity);
+        eventPublisher.publishEvent(new CourseChangedEvent(entity.getId()));
         CourseResponse res = mapper.toDTO(entity);
         res.setTeacher(UserSummaryResponse.builder()
                 .id(entity.getTeacher().getId()).fullName(entity.getTeacher().getFullName())
@@ -114,6 +161,7 @@ public class CourseServiceImpl implements CourseService {
         Course entity = repository.findById(id).orElseThrow(() -> new ResourceNotFoundException(
                 messageSource.getMessage("course.notFound", null, LocaleContextHolder.getLocale())));
         repository.delete(entity);
+        eventPublisher.publishEvent(new CourseChangedEvent(id));
     }
 
     @PostAuthorize("hasRole('ADMIN') or (hasRole('TEACHER') and returnObject.teacher.id == authentication.principal.id)")
@@ -127,42 +175,14 @@ public class CourseServiceImpl implements CourseService {
                 .avatarUrl(entity.getTeacher().getAvatarUrl())
                 .role(entity.getTeacher().getRole().getRole().getName())
                 .build());
-        res.setNumberOfLessons(getNumberOfLessons(entity));
         return res;
     }
 
     @PostAuthorize("returnObject.status == T(elearningspringboot.enumeration.StatusCourse).PUBLIC or hasRole('ADMIN') or (hasRole('TEACHER') and returnObject.teacher.id == authentication.principal.id)")
     @Override
     public CourseResponse getDetailsCourseById (Long id) {
-        Course entity = repository.findByIdWithChaptersAndLessons(id).orElseThrow(() -> new ResourceNotFoundException(
-                messageSource.getMessage("course.notFound", null, LocaleContextHolder.getLocale())));
-        CourseResponse res = mapper.toDTO(entity);
-        res.setTeacher(UserSummaryResponse.builder()
-                .id(entity.getTeacher().getId()).fullName(entity.getTeacher().getFullName())
-                .avatarUrl(entity.getTeacher().getAvatarUrl())
-                .role(entity.getTeacher().getRole().getRole().getName())
-                .build());
-        List<ChapterResponse> chaptersDetails = entity.getChapters().stream().map(chapter -> {
-            ChapterResponse chapterResponse = chapterMapper.toDTO(chapter);
-            chapterResponse.setNumberOfLessons(chapter.getLessons().size());
-            chapterResponse.setDuration(
-                    chapter.getLessons().stream()
-                            .mapToInt(Lesson::getDuration)
-                            .sum()
-            );
-            chapterResponse.setLessonsDetails(chapter.getLessons().stream().map(lesson -> {;
-                LessonResponse lessonResponse = lessonMapper.toDTO(lesson);
-                if (!lessonResponse.getIsPreview()) {
-                    lessonResponse.setVideoUrl(null);
-                    lessonResponse.setAttachmentUrl(null);
-                }
-                return lessonResponse;
-            }).collect(Collectors.toList()));
-            return chapterResponse;
-        }).toList();
-        res.setChaptersDetails(chaptersDetails);
-        res.setNumberOfLessons(getNumberOfLessons(entity));
-        return res;
+        // Shared by every reader: the chapter and lesson lists are unmodifiable, and callers only serialize it.
+        return outlineCache.get(id, () -> loadOutline(id));
     }
 
     @Override
@@ -179,9 +199,6 @@ public class CourseServiceImpl implements CourseService {
                     .avatarUrl(entity.getTeacher().getAvatarUrl())
                     .role(entity.getTeacher().getRole().getRole().getName())
                     .build());
-            res.setNumberOfLessons(entity.getChapters().stream().mapToInt(c -> c.getLessons().size()).sum());
-            res.setDuration(entity.getChapters().stream()
-                    .mapToInt(c -> c.getLessons().stream().mapToInt(Lesson::getDuration).sum()).sum());
             return res;
         }).toList();
         return PageResponse.<List<CourseResponse>>builder()
@@ -193,9 +210,176 @@ public class CourseServiceImpl implements CourseService {
                 .build();
     }
 
+    @Override
+    public PageResponse<List<CourseResponse>> getByCursor(String cursor, int pageSize, List<String> sorts,
+            String keyword, Long categoryId, Long teacherId, StatusCourse status) {
+        String kw = keyword == null ? "" : keyword.toLowerCase();
+        List<String> cursorFields = List.of(PageCursor.UPDATED_AT, PageCursor.CREATED_AT);
+        PageCursor after = PageCursor.decode(cursor, cursorFields);
+        String field = after != null ? after.field() : PageCursor.sortField(sorts, cursorFields, PageCursor.UPDATED_AT);
+        LocalDateTime cursorTime = after != null ? after.time() : null;
+        Long cursorId = after != null ? after.id() : null;
+        // One extra row tells whether there is a next page.
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<Course> courses = PageCursor.CREATED_AT.equals(field)
+                ? repository.findPageByCreatedAt(kw, categoryId, teacherId, status, cursorTime, cursorId, pageable)
+                : repository.findPageByUpdatedAt(kw, categoryId, teacherId, status, cursorTime, cursorId, pageable);
+
+        String nextCursor = null;
+        if (courses.size() > pageSize) {
+            courses = courses.subList(0, pageSize);
+            Course last = courses.get(pageSize - 1);
+            nextCursor = PageCursor.of(field,
+                    PageCursor.CREATED_AT.equals(field) ? last.getCreatedAt() : last.getUpdatedAt(),
+                    last.getId()).encode();
+        }
+        List<CourseResponse> items = courses.stream().map(entity -> {
+            CourseResponse res = mapper.toDTO(entity);
+            res.setTeacher(UserSummaryResponse.builder()
+                    .id(entity.getTeacher().getId()).fullName(entity.getTeacher().getFullName())
+                    .avatarUrl(entity.getTeacher().getAvatarUrl())
+                    .role(entity.getTeacher().getRole().getRole().getName())
+                    .build());
+            return res;
+        }).toList();
+        return PageResponse.<List<CourseResponse>>builder()
+                .pageSize(pageSize)
+                .numberOfElements(items.size())
+                .items(items)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    public PageResponse<List<CourseResponse>> searchCatalog(int pageNumber, int pageSize, String keyword,
+            Long categoryId, Long teacherId, PriceBucket priceBucket, Boolean free, Double minRating,
+            DurationBucket durationBucket, CatalogSort sort) {
+        // The database query can honour neither the price, rating and duration filters nor the
+        // popularity and rating sorts, so answering from it would silently widen the result.
+        if (!courseCatalogService.isReady())
+            throw new ServiceBusyException("Course catalog is not loaded yet");
+        // Past the last match any offset is as good as another; clamping keeps it from overflowing.
+        int offset = (int) Math.min(Integer.MAX_VALUE, (pageNumber - 1L) * pageSize);
+        CatalogHits hits = courseCatalogService.search(new CatalogQuery(keyword, categoryId, teacherId,
+                priceBucket, free, minRating, durationBucket, sort, offset, pageSize));
+        Map<Long, Course> courses = repository.findByIdIn(hits.ids()).stream()
+                .collect(Collectors.toMap(Course::getId, course -> course));
+        List<CourseResponse> items = hits.ids().stream()
+                .map(courses::get)
+                .filter(Objects::nonNull)
+                .map(entity -> {
+                    CourseResponse res = mapper.toDTO(entity);
+                    res.setTeacher(UserSummaryResponse.builder()
+                            .id(entity.getTeacher().getId()).fullName(entity.getTeacher().getFullName())
+                            .avatarUrl(entity.getTeacher().getAvatarUrl())
+                            .role(entity.getTeacher().getRole().getRole().getName())
+                            .build());
+                    return res;
+                }).toList();
+        return PageResponse.<List<CourseResponse>>builder()
+                .pageNumber(pageNumber)
+                .pageSize(pageSize)
+                .totalPages((hits.total() + pageSize - 1) / pageSize)
+                .numberOfElements(items.size())
+                .items(items)
+                .facets(hits.facets())
+                .build();
+    }
+
     @Override
     public List<CourseResponse> getNewest(int n) {
         int size = Math.max(1, n);
+        if (size > NEWEST_CACHED)
+            return loadNewest(size);
+        List<CourseResponse> newest = newestCache.get("newest", () -> loadNewest(NEWEST_CACHED));
+        return newest.subList(0, Math.min(size, newest.size()));
+    }
+
+    @Override
+    public List<CourseResponse> getAlsoTaken(Long courseId, int n) {
+        int size = Math.max(1, n);
+        return loadPublicInOrder(recommendationService.getAlsoTakenIds(courseId, size * 2), size);
+    }
+
+    @Override
+    public List<CourseResponse> getRecommended(Long studentId, int n) {
+        int size = Math.max(1, n);
+        if (!recommendationService.isReady())
+            return getNewest(size);
+        return loadPublicInOrder(recommendationService.getRecommendedIds(studentId, size * 2), size);
+    }
+
+    @Override
+    public CacheStatsResponse getNewestCacheStats() {
+        return newestCache.stats("newestCourses");
+    }
+
+    @Override
+    public CacheStatsResponse getOutlineCacheStats() {
+        return outlineCache.stats("courseOutline");
+    }
+
+    // Runs after the publishing transaction commits, or right away outside one.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        newestCache.invalidateAll();
+        outlineCache.invalidate(event.courseId());
+    }
+
+    // The public outline is the same for every reader, so it is built once per
+    // course and shared until that course changes. Lessons for all chapters
+    // come from one query, and URLs of non-preview lessons are stripped here.
+    private CourseResponse loadOutline(Long id) {
+        Course entity = repository.findByIdWithChaptersAndLessons(id).orElseThrow(() -> new ResourceNotFoundException(
+                messageSource.getMessage("course.notFound", null, LocaleContextHolder.getLocale())));
+        CourseResponse res = mapper.toDTO(entity);
+        res.setTeacher(UserSummaryResponse.builder()
+                .id(entity.getTeacher().getId()).fullName(entity.getTeacher().getFullName())
+                .avatarUrl(entity.getTeacher().getAvatarUrl())
+                .role(entity.getTeacher().getRole().getRole().getName())
+                .build());
+        Map<Long, List<Lesson>> lessonsByChapter = lessonRepository.findByCourseId(id).stream()
+                .collect(Collectors.groupingBy(lesson -> lesson.getChapter().getId()));
+        List<ChapterResponse> chaptersDetails = entity.getChapters().stream().map(chapter -> {
+            ChapterResponse chapterResponse = chapterMapper.toDTO(chapter);
+            chapterResponse.setLessonsDetails(lessonsByChapter.getOrDefault(chapter.getId(), List.of()).stream()
+                    .map(lesson -> {
+                        LessonResponse lessonResponse = lessonMapper.toDTO(lesson);
+                        if (!Boolean.TRUE.equals(lessonResponse.getIsPreview())) {
+                            lessonResponse.setVideoUrl(null);
+                            lessonResponse.setAttachmentUrl(null);
+                        }
+                        return lessonResponse;
+                    }).toList());
+            return chapterResponse;
+        }).toList();
+        res.setChaptersDetails(chaptersDetails);
+        return res;
+    }
+
+    // Recommendation lists may still name courses that were unpublished or deleted since they were built,
+    // so twice the needed ids are asked for and the first size public ones kept in list order.
+    private List<CourseResponse> loadPublicInOrder(List<Long> ids, int size) {
+        if (ids.isEmpty())
+            return List.of();
+        Map<Long, Course> courses = repository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Course::getId, course -> course));
+        return ids.stream()
+                .map(courses::get)
+                .filter(course -> course != null && course.getStatus() == StatusCourse.PUBLIC)
+                .limit(size)
+                .map(entity -> {
+                    CourseResponse res = mapper.toDTO(entity);
+                    res.setTeacher(UserSummaryResponse.builder()
+                            .id(entity.getTeacher().getId()).fullName(entity.getTeacher().getFullName())
+                            .avatarUrl(entity.getTeacher().getAvatarUrl())
+                            .role(entity.getTeacher().getRole().getRole().getName())
+                            .build());
+                    return res;
+                }).toList();
+    }
+
+    private List<CourseResponse> loadNewest(int size) {
         PageRequest pageable = PageRequest.of(0, size);
         List<Course> courses = repository.findByStatusOrderByCreatedAtDesc(StatusCourse.PUBLIC, pageable);
         return courses.stream().map(entity -> {
@@ -205,9 +389,6 @@ public class CourseServiceImpl implements CourseService {
                     .avatarUrl(entity.getTeacher().getAvatarUrl())
                     .role(entity.getTeacher().getRole().getRole().getName())
                     .build());
-            res.setNumberOfLessons(entity.getChapters().stream().mapToInt(c -> c.getLessons().size()).sum());
-            res.setDuration(entity.getChapters().stream()
-                    .mapToInt(c -> c.getLessons().stream().mapToInt(Lesson::getDuration).sum()).sum());
             return res;
         }).toList();
     }
@@ -232,24 +413,7 @@ public class CourseServiceImpl implements CourseService {
                         .build());
             }
 
-            // Tính tổng số bài học (Dùng hàm helper có sẵn bên dưới)
-            res.setNumberOfLessons(getNumberOfLessons(entity));
-
-            // Tính tổng thời lượng
-            int totalDuration = entity.getChapters().stream()
-                    .mapToInt(c -> c.getLessons().stream()
-                            .mapToInt(Lesson::getDuration) // Lấy duration của từng bài
-                            .sum())
-                    .sum();
-            res.setDuration(totalDuration);
-
             return res;
         }).collect(Collectors.toList());
     }
-
-    private Integer getNumberOfLessons(Course course) {
-        return course.getChapters().stream()
-                .mapToInt(chapter -> chapter.getLessons().size())
-                .sum();
-    }
 }
@@ -4,6 +4,7 @@ import elearningspringboot.dto.response.*;
 import elearningspringboot.entity.Course;
 import elearningspringboot.entity.Enrollment;
 import elearningspringboot.entity.User;
+import elearningspringboot.event.EnrollmentChangedEvent;
 import elearningspringboot.exception.ResourceNotFoundException;
 import elearningspringboot.mapper.CourseMapper;
 import elearningspringboot.repository.CourseRepository;
@@ -12,6 +13,7 @@ import elearningspringboot.repository.UserRepository;
 import elearningspringboot.service.EnrollmentService;
 import elearningspringboot.util.AppUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.data.domain.Page;
@@ -31,6 +33,7 @@ public class EnrollmentServiceImpl implements EnrollmentService {
         private final UserRepository userRepository;
         private final CourseMapper mapper;
         private final MessageSource messageSource;
+        private final ApplicationEventPublisher eventPublisher;
 
         @Override
         @Transactional
@@ -56,6 +59,7 @@ public class EnrollmentServiceImpl implements EnrollmentService {
                 enrollment.setStudent(student);
                 enrollment.setCourse(course);
                 enrollmentRepository.save(enrollment);
+                eventPublisher.publishEvent(new EnrollmentChangedEvent(courseId, studentId, true));
 
                 return mapper.toDTO(course);
         }
@@ -68,6 +72,7 @@ public class EnrollmentServiceImpl implements EnrollmentService {
                                                 messageSource.getMessage("enrollment.not.found", null,
                                                                 LocaleContextHolder.getLocale())));
                 enrollmentRepository.delete(e);
+                eventPublisher.publishEvent(new EnrollmentChangedEvent(courseId, studentId, false));
         }
 
         @Override
@@ -81,10 +86,6 @@ public class EnrollmentServiceImpl implements EnrollmentService {
                                         .avatarUrl(c.getTeacher().getAvatarUrl())
                                         .role(c.getTeacher().getRole().getRole().getName())
                                         .build());
-                        res.setNumberOfLessons(c.getChapters().stream().mapToInt(ch -> ch.getLessons().size()).sum());
-                        res.setDuration(c.getChapters().stream()
-                                        .mapToInt(ch -> ch.getLessons().stream().mapToInt(l -> l.getDuration()).sum())
-                                        .sum());
                         return res;
                 }).collect(Collectors.toList());
         }
@@ -105,11 +106,6 @@ public class EnrollmentServiceImpl implements EnrollmentService {
                                         .avatarUrl(entity.getTeacher().getAvatarUrl())
                                         .role(entity.getTeacher().getRole().getRole().getName())
                                         .build());
-                        res.setNumberOfLessons(
-                                        entity.getChapters().stream().mapToInt(ch -> ch.getLessons().size()).sum());
-                        res.setDuration(entity.getChapters().stream()
-                                        .mapToInt(ch -> ch.getLessons().stream().mapToInt(l -> l.getDuration()).sum())
-                                        .sum());
                         res.setFirstLessonId(entity.getChapters().stream()
                                         .flatMap(ch -> ch.getLessons().stream())
                                         .sorted((l1, l2) -> l1.getCreatedAt().compareTo(l2.getCreatedAt()))
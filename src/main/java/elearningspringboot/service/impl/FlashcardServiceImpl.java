@@ -14,6 +14,7 @@ import elearningspringboot.repository.UserRepository;
 import elearningspringboot.service.FlashcardService;
 import elearningspringboot.service.StorageService;
 import elearningspringboot.util.AppUtils;
+import elearningspringboot.util.PageCursor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -26,6 +27,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -153,6 +155,37 @@ public class FlashcardServiceImpl implements FlashcardService {
     }
 
 
+    // Chỉ hỗ trợ sắp xếp mới nhất trước, vì keyset cần thứ tự ổn định (createdAt, id).
+    @Override
+    public PageResponse<List<FlashcardSetResponse>> getAllByCursor(String cursor, int size, String keyword,
+            String category) {
+        PageCursor after = PageCursor.decode(cursor, List.of(PageCursor.CREATED_AT));
+        LocalDateTime cursorTime = after != null ? after.time() : null;
+        Long cursorId = after != null ? after.id() : null;
+        Long currentUserId = null;
+        try {
+            currentUserId = AppUtils.getUserIdFromSecurityContext();
+        } catch (Exception e) {
+            // User chưa đăng nhập
+        }
+
+        List<FlashcardSet> sets = repository.findPageByCreatedAt(keyword, category, currentUserId, cursorTime,
+                cursorId, PageRequest.of(0, size + 1));
+        String nextCursor = null;
+        if (sets.size() > size) {
+            sets = sets.subList(0, size);
+            FlashcardSet last = sets.get(size - 1);
+            nextCursor = PageCursor.of(PageCursor.CREATED_AT, last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return PageResponse.<List<FlashcardSetResponse>>builder()
+                .pageSize(size)
+                .numberOfElements(sets.size())
+                .items(sets.stream().map(mapper::toDTO).toList())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
     @Override
     public PageResponse<List<FlashcardSetResponse>> getAllForManagement(int page, int size, String keyword, String category, String sort, Long authorId) {
         Sort sortObj = Sort.by("createdAt").descending();
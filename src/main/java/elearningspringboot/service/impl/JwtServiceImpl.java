@@ -6,12 +6,15 @@ import elearningspringboot.service.JwtService;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.UUID;
 import java.util.Date;
 
@@ -43,26 +46,32 @@ public class JwtServiceImpl implements JwtService {
     @Value("${spring.application.name}")
     private String provider;
 
+    private final Map<TokenType, Key> keys = new EnumMap<>(TokenType.class);
+    private final Map<TokenType, JwtParser> parsers = new EnumMap<>(TokenType.class);
+
+    @PostConstruct
+    void initKeys() {
+        for (TokenType tokenType : TokenType.values()) {
+            Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(getSecret(tokenType)));
+            keys.put(tokenType, key);
+            parsers.put(tokenType, Jwts.parserBuilder().setSigningKey(key).build());
+        }
+    }
+
     public String generateAccessToken(UserDetails userDetails) {
-        return Jwts.builder()
-                .setSubject(userDetails.getUsername())
-                .setId(UUID.randomUUID().toString())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * expiryHour))
-                .setIssuer(provider)
-                .signWith(getKey(TokenType.ACCESS_TOKEN), SignatureAlgorithm.HS256)
-                .compact();
+        return issueAccessToken(userDetails).token();
     }
 
     public String generateRefreshToken(UserDetails userDetails) {
-        return Jwts.builder()
-                .setSubject(userDetails.getUsername())
-                .setId(UUID.randomUUID().toString())
-                .setIssuer(provider)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 24 * expiryDay))
-                .signWith(getKey(TokenType.REFRESH_TOKEN), SignatureAlgorithm.HS256)
-                .compact();
+        return issueRefreshToken(userDetails).token();
+    }
+
+    public IssuedToken issueAccessToken(UserDetails userDetails) {
+        return issue(userDetails, TokenType.ACCESS_TOKEN, 1000L * 60 * 60 * expiryHour);
+    }
+
+    public IssuedToken issueRefreshToken(UserDetails userDetails) {
+        return issue(userDetails, TokenType.REFRESH_TOKEN, 1000L * 60 * 60 * 24 * expiryDay);
     }
 
     public String generateToken(UserDetails userDetails, TokenType tokenType, long hour) {
@@ -78,9 +87,7 @@ public class JwtServiceImpl implements JwtService {
 
     public Claims extractAllClaims(String token, TokenType tokenType) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getKey(tokenType))
-                    .build()
+            return parsers.get(tokenType)
                     .parseClaimsJws(token)
                     .getBody();
         } catch (Exception e) {
@@ -97,27 +104,48 @@ public class JwtServiceImpl implements JwtService {
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails, TokenType tokenType) {
-        final String email = extractEmail(token, tokenType);
+        return isTokenValid(extractAllClaims(token, tokenType), userDetails, tokenType);
+    }
+
+    public boolean isTokenValid(Claims claims, UserDetails userDetails, TokenType tokenType) {
+        final String email = claims.getSubject();
         if (!tokenType.equals(TokenType.CONFIRM_TOKEN))
             return userDetails.isEnabled() && email.equals(userDetails.getUsername())
-                    && !isTokenExpired(extractExpiration(token, tokenType));
+                    && !isTokenExpired(claims.getExpiration());
         else
-            return email.equals(userDetails.getUsername()) && !isTokenExpired(extractExpiration(token, tokenType));
+            return email.equals(userDetails.getUsername()) && !isTokenExpired(claims.getExpiration());
 
     }
 
+    private IssuedToken issue(UserDetails userDetails, TokenType tokenType, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        Date expiration = new Date(now + ttlMillis);
+        String id = UUID.randomUUID().toString();
+        String token = Jwts.builder()
+                .setSubject(userDetails.getUsername())
+                .setId(id)
+                .setIssuer(provider)
+                .setIssuedAt(new Date(now))
+                .setExpiration(expiration)
+                .signWith(getKey(tokenType), SignatureAlgorithm.HS256)
+                .compact();
+        return new IssuedToken(token, tokenType, id, expiration);
+    }
+
     private boolean isTokenExpired(Date expiration) {
         return expiration.before(new Date(System.currentTimeMillis()));
     }
 
     private Key getKey(TokenType tokenType) {
-        byte[] keyBytes;
-        keyBytes = switch (tokenType) {
-            case ACCESS_TOKEN -> Decoders.BASE64.decode(SECRET_KEY);
-            case REFRESH_TOKEN -> Decoders.BASE64.decode(REFRESH_KEY);
-            case RESET_TOKEN -> Decoders.BASE64.decode(RESET_KEY);
-            case CONFIRM_TOKEN -> Decoders.BASE64.decode(CONFIRM_KEY);
+        return keys.get(tokenType);
+    }
+
+    private String getSecret(TokenType tokenType) {
+        return switch (tokenType) {
+            case ACCESS_TOKEN -> SECRET_KEY;
+            case REFRESH_TOKEN -> REFRESH_KEY;
+            case RESET_TOKEN -> RESET_KEY;
+            case CONFIRM_TOKEN -> CONFIRM_KEY;
         };
-        return Keys.hmacShaKeyFor(keyBytes);
     }
 }
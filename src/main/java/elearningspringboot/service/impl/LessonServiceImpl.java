@@ -2,20 +2,25 @@ package elearningspringboot.service.impl;
 
 import elearningspringboot.dto.request.ChangeOrderRequest;
 import elearningspringboot.dto.request.LessonRequest;
+import elearningspringboot.dto.request.MoveOrderRequest;
 import elearningspringboot.dto.response.LessonResponse;
 import elearningspringboot.dto.response.PageResponse;
 import elearningspringboot.entity.Chapter;
 import elearningspringboot.entity.Lesson;
 import elearningspringboot.enumeration.StatusCourse;
+import elearningspringboot.event.CourseChangedEvent;
 import elearningspringboot.exception.ResourceNotFoundException;
 import elearningspringboot.mapper.LessonMapper;
 import elearningspringboot.repository.ChapterRepository;
+import elearningspringboot.repository.CourseRepository;
 import elearningspringboot.repository.LessonRepository;
 import elearningspringboot.service.StorageService;
 import elearningspringboot.service.LessonService;
 import elearningspringboot.util.AppUtils;
 import elearningspringboot.util.HtmlImageProcessor;
+import elearningspringboot.util.OrderIndexWriter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.data.domain.Page;
@@ -24,7 +29,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -32,10 +39,13 @@ public class LessonServiceImpl implements LessonService {
 
     private final LessonRepository repository;
     private final ChapterRepository chapterRepository;
+    private final CourseRepository courseRepository;
     private final LessonMapper mapper;
     private final MessageSource messageSource;
     private final StorageService storageService;
     private final HtmlImageProcessor htmlImageProcessor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderIndexWriter orderIndexWriter;
 
     @Override
     @Transactional
@@ -64,23 +74,41 @@ public class LessonServiceImpl implements LessonService {
         }
         entity.setContent(htmlImageProcessor.process(request.getContent()));
 
-        entity.setOrderIndex(repository.getOrderIndexMax(request.getChapterId()) + 1);
+        entity.setOrderIndex(repository.getOrderIndexMax(request.getChapterId()) + OrderIndexWriter.ORDER_GAP);
         repository.save(entity);
+        adjustTotals(chapter, 1, durationOf(entity));
+        eventPublisher.publishEvent(new CourseChangedEvent(chapter.getCourse().getId()));
         return mapper.toDTO(entity);
     }
 
+    // One ownership check, one id query and one CASE update, whatever the number of lessons.
     @Override
+    @Transactional
     public void updateOrder(Long chapterId, List<ChangeOrderRequest> request) {
         Chapter chapter = chapterRepository.findById(chapterId)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         messageSource.getMessage("chapter.notFound", null, LocaleContextHolder.getLocale())));
         AppUtils.checkOwnerByChapter(chapter);
-        request.forEach((entity) -> {
-            Lesson lesson = repository.findById(entity.getId()).orElseThrow(() -> new ResourceNotFoundException(
-                    messageSource.getMessage("lesson.notFound", null, LocaleContextHolder.getLocale())));
-            lesson.setOrderIndex(entity.getOrderIndex());
-            repository.save(lesson);
-        });
+        Map<Long, Integer> indexes = new LinkedHashMap<>();
+        request.forEach(item -> indexes.put(item.getId(), item.getOrderIndex()));
+        if (!orderIndexWriter.childIds(OrderIndexWriter.LESSONS, chapterId).containsAll(indexes.keySet()))
+            throw new ResourceNotFoundException(
+                    messageSource.getMessage("lesson.notFound", null, LocaleContextHolder.getLocale()));
+        orderIndexWriter.write(OrderIndexWriter.LESSONS, chapterId, indexes);
+        eventPublisher.publishEvent(new CourseChangedEvent(chapter.getCourse().getId()));
+    }
+
+    @Override
+    @Transactional
+    public void moveOrder(Long chapterId, MoveOrderRequest request) {
+        Chapter chapter = chapterRepository.findById(chapterId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        messageSource.getMessage("chapter.notFound", null, LocaleContextHolder.getLocale())));
+        AppUtils.checkOwnerByChapter(chapter);
+        if (!orderIndexWriter.move(OrderIndexWriter.LESSONS, chapterId, request.getId(), request.getAfterId()))
+            throw new ResourceNotFoundException(
+                    messageSource.getMessage("lesson.notFound", null, LocaleContextHolder.getLocale()));
+        eventPublisher.publishEvent(new CourseChangedEvent(chapter.getCourse().getId()));
     }
 
     @Override
@@ -88,6 +116,7 @@ public class LessonServiceImpl implements LessonService {
     public LessonResponse update(Long id, LessonRequest request, MultipartFile attachment, MultipartFile video) {
         Lesson entity = repository.findById(id).orElseThrow(() -> new ResourceNotFoundException(
                 messageSource.getMessage("lesson.notFound", null, LocaleContextHolder.getLocale())));
+        int previousDuration = durationOf(entity);
         mapper.updateEntityFromRequest(request, entity);
         Chapter chapter = chapterRepository.findById(entity.getChapter().getId())
                 .orElseThrow(() -> new ResourceNotFoundException(
@@ -110,6 +139,9 @@ public class LessonServiceImpl implements LessonService {
         entity.setContent(htmlImageProcessor.process(request.getContent()));
 
         repository.save(entity);
+        if (durationOf(entity) != previousDuration)
+            adjustTotals(chapter, 0, durationOf(entity) - previousDuration);
+        eventPublisher.publishEvent(new CourseChangedEvent(chapter.getCourse().getId()));
         return mapper.toDTO(entity);
     }
 
@@ -122,7 +154,9 @@ public class LessonServiceImpl implements LessonService {
                 .orElseThrow(() -> new ResourceNotFoundException(
                         messageSource.getMessage("chapter.notFound", null, LocaleContextHolder.getLocale())));
         AppUtils.checkOwnerByChapter(chapter);
+        adjustTotals(chapter, -1, -durationOf(entity));
         repository.delete(entity);
+        eventPublisher.publishEvent(new CourseChangedEvent(chapter.getCourse().getId()));
     }
 
     @Override
@@ -145,4 +179,14 @@ public class LessonServiceImpl implements LessonService {
         List<Lesson> lessons = repository.findByChapterId(chapterId);
         return mapper.toDTOs(lessons);
     }
+
+    // Relative updates, so concurrent edits to lessons of the same course add up.
+    private void adjustTotals(Chapter chapter, int lessons, int duration) {
+        chapterRepository.adjustLessonTotals(chapter.getId(), lessons, duration);
+        courseRepository.adjustLessonTotals(chapter.getCourse().getId(), lessons, duration);
+    }
+
+    private static int durationOf(Lesson lesson) {
+        return lesson.getDuration() != null ? lesson.getDuration() : 0;
+    }
 }
@@ -10,6 +10,7 @@ import elearningspringboot.entity.Transaction;
 import elearningspringboot.entity.User;
 import elearningspringboot.enumeration.PayoutStatus;
 import elearningspringboot.enumeration.TransactionStatus;
+import elearningspringboot.event.EnrollmentChangedEvent;
 import elearningspringboot.exception.AppException;
 import elearningspringboot.enumeration.ErrorCode;
 import elearningspringboot.exception.ResourceNotFoundException;
@@ -19,6 +20,7 @@ import elearningspringboot.util.AppUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import elearningspringboot.entity.TransactionDetail;
@@ -41,6 +43,7 @@ public class PaymentServiceImpl implements PaymentService {
     private final TransactionRepository transactionRepository;
     private final TeacherPayoutRepository teacherPayoutRepository;
     private final CartItemRepository cartItemRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     private final VnpayConfig vnpayConfig;
 
@@ -186,6 +189,8 @@ public class PaymentServiceImpl implements PaymentService {
                                 .student(student)
                                 .build();
                         enrollmentRepository.save(enrollment);
+                        eventPublisher.publishEvent(
+                                new EnrollmentChangedEvent(course.getId(), student.getId(), true));
                     }
 
                     double platformFee = price * commissionRate;
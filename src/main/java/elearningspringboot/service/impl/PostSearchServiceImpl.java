@@ -0,0 +1,317 @@
+package elearningspringboot.service.impl;
+
+import elearningspringboot.entity.Post;
+import elearningspringboot.enumeration.StatusPost;
+import elearningspringboot.repository.PostRepository;
+import elearningspringboot.repository.PostRepository.PostSearchSource;
+import elearningspringboot.service.PostSearchService;
+import elearningspringboot.util.SearchTextUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory inverted index over post title, tags, author name and plain-text
+ * content, ranked with BM25. Terms are diacritic-folded syllables; every query
+ * term must match, and the last one also matches as a prefix so results keep
+ * up while the user is still typing. Writes are applied after the surrounding
+ * transaction commits.
+ */
+@Service
+@Slf4j
+public class PostSearchServiceImpl implements PostSearchService {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TITLE_WEIGHT = 3;
+    private static final int TAG_WEIGHT = 2;
+    private static final int AUTHOR_WEIGHT = 2;
+    private static final int CONTENT_WEIGHT = 1;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private final PostRepository postRepository;
+    private final int rebuildBatchSize;
+
+    // Replaced as a whole by a rebuild; changed in place, under this, by apply and delete.
+    private volatile Index index = new Index();
+
+    // Guarded by this. Changes committed while a rebuild is running, replayed on top of its
+    // snapshot; a null document marks a removed post.
+    private Map<Long, IndexedPost> changedDuringRebuild;
+    private volatile boolean ready;
+
+    public PostSearchServiceImpl(PostRepository postRepository,
+            @Value("${post-search.rebuild-batch-size:500}") int rebuildBatchSize) {
+        this.postRepository = postRepository;
+        this.rebuildBatchSize = rebuildBatchSize;
+    }
+
+    @Override
+    public void index(Post post) {
+        IndexedPost document = toDocument(post.getId(), post.getTitle(), post.getTags(), post.getContentText(),
+                post.getAuthor() != null ? post.getAuthor().getFullName() : null,
+                post.getStatus(),
+                post.getCategory() != null ? post.getCategory().getId() : null,
+                post.getAuthor() != null ? post.getAuthor().getId() : null,
+                post.getCreatedAt(), LocalDateTime.now());
+        afterCommit(() -> apply(document));
+    }
+
+    @Override
+    public void remove(Long postId) {
+        afterCommit(() -> delete(postId));
+    }
+
+    /**
+     * Reads every post into a new index without holding the lock, so post
+     * changes keep being applied to the current index meanwhile. Those changes
+     * are also recorded and replayed on the new index, which then replaces the
+     * current one in a single assignment.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            changedDuringRebuild = new HashMap<>();
+        }
+        try {
+            Index fresh = new Index();
+            long lastId = 0;
+            while (true) {
+                List<PostSearchSource> batch = postRepository.findSearchSourcesAfter(lastId,
+                        PageRequest.of(0, rebuildBatchSize));
+                for (PostSearchSource source : batch) {
+                    fresh.add(toDocument(source.getId(), source.getTitle(), source.getTags(),
+                            source.getContentText(), source.getAuthorName(), source.getStatus(),
+                            source.getCategoryId(), source.getAuthorId(), source.getCreatedAt(),
+                            source.getUpdatedAt()));
+                    lastId = source.getId();
+                }
+                if (batch.size() < rebuildBatchSize)
+                    break;
+            }
+            synchronized (this) {
+                changedDuringRebuild.forEach((id, document) -> {
+                    if (document != null)
+                        fresh.add(document);
+                    else
+                        fresh.remove(id);
+                });
+                index = fresh;
+                ready = true;
+            }
+            log.info("Post search index built: {} posts, {} terms in {} ms", fresh.documents.size(),
+                    fresh.postings.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Failed to build post search index, {}: {}",
+                    ready ? "keeping the previous one" : "falling back to database search", e.getMessage());
+        } finally {
+            synchronized (this) {
+                changedDuringRebuild = null;
+            }
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public SearchHits search(String keyword, Long categoryId, Long authorId, StatusPost status, Sort sort,
+            int offset, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(SearchTextUtils.tokenize(keyword)));
+        if (terms.isEmpty())
+            return new SearchHits(List.of(), 0);
+
+        Index current = index;
+        int docCount = Math.max(1, current.documents.size());
+        double avgLength = Math.max(1.0, (double) current.totalLength.get() / docCount);
+
+        Map<Long, Double> scores = null;
+        for (int i = 0; i < terms.size(); i++) {
+            Map<Long, Double> termScores = new HashMap<>();
+            if (i == terms.size() - 1) {
+                ConcurrentNavigableMap<String, Map<Long, Integer>> expansions = current.postings.subMap(terms.get(i), true,
+                        terms.get(i) + Character.MAX_VALUE, true);
+                int expanded = 0;
+                for (Map<Long, Integer> postingList : expansions.values()) {
+                    if (expanded++ >= MAX_PREFIX_EXPANSIONS)
+                        break;
+                    scoreTerm(current, postingList, docCount, avgLength, termScores);
+                }
+            } else {
+                Map<Long, Integer> postingList = current.postings.get(terms.get(i));
+                if (postingList != null)
+                    scoreTerm(current, postingList, docCount, avgLength, termScores);
+            }
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                scores.keySet().retainAll(termScores.keySet());
+                scores.replaceAll((id, score) -> score + termScores.get(id));
+            }
+            if (scores.isEmpty())
+                return new SearchHits(List.of(), 0);
+        }
+
+        List<Hit> hits = new ArrayList<>();
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            IndexedPost doc = current.documents.get(entry.getKey());
+            if (doc == null
+                    || (categoryId != null && !categoryId.equals(doc.categoryId()))
+                    || (authorId != null && !authorId.equals(doc.authorId()))
+                    || (status != null && status != doc.status()))
+                continue;
+            hits.add(new Hit(doc, entry.getValue()));
+        }
+        hits.sort(comparator(sort));
+
+        int from = Math.min(offset, hits.size());
+        int to = Math.min(from + limit, hits.size());
+        List<Long> ids = hits.subList(from, to).stream().map(hit -> hit.doc().id()).toList();
+        return new SearchHits(ids, hits.size());
+    }
+
+    private void scoreTerm(Index current, Map<Long, Integer> postingList, int docCount, double avgLength,
+            Map<Long, Double> termScores) {
+        int df = postingList.size();
+        double idf = Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+        postingList.forEach((id, tf) -> {
+            IndexedPost doc = current.documents.get(id);
+            if (doc == null)
+                return;
+            double norm = tf + K1 * (1 - B + B * doc.length() / avgLength);
+            double score = idf * tf * (K1 + 1) / norm;
+            // A document hit by several prefix expansions keeps its best one.
+            termScores.merge(id, score, Math::max);
+        });
+    }
+
+    // Relevance first unless the caller asked for a date order.
+    private Comparator<Hit> comparator(Sort sort) {
+        Comparator<Hit> byUpdated = Comparator.comparing(hit -> hit.doc().updatedAt(),
+                Comparator.nullsLast(Comparator.reverseOrder()));
+        Comparator<Hit> comparator = null;
+        if (sort != null) {
+            for (Sort.Order order : sort) {
+                Comparator<Hit> field = switch (order.getProperty()) {
+                    case "createdAt" -> Comparator.comparing(hit -> hit.doc().createdAt(),
+                            Comparator.nullsLast(Comparator.naturalOrder()));
+                    case "updatedAt" -> Comparator.comparing(hit -> hit.doc().updatedAt(),
+                            Comparator.nullsLast(Comparator.naturalOrder()));
+                    default -> null;
+                };
+                if (field == null)
+                    continue;
+                if (order.isDescending())
+                    field = field.reversed();
+                comparator = comparator == null ? field : comparator.thenComparing(field);
+            }
+        }
+        if (comparator == null)
+            comparator = Comparator.comparingDouble(Hit::score).reversed().thenComparing(byUpdated);
+        return comparator;
+    }
+
+    private synchronized void apply(IndexedPost document) {
+        if (changedDuringRebuild != null)
+            changedDuringRebuild.put(document.id(), document);
+        index.add(document);
+    }
+
+    private synchronized void delete(Long postId) {
+        if (changedDuringRebuild != null)
+            changedDuringRebuild.put(postId, null);
+        index.remove(postId);
+    }
+
+    private IndexedPost toDocument(Long id, String title, String tags, String contentText, String authorName,
+            StatusPost status, Long categoryId, Long authorId, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = addTerms(frequencies, title, TITLE_WEIGHT)
+                + addTerms(frequencies, tags, TAG_WEIGHT)
+                + addTerms(frequencies, authorName, AUTHOR_WEIGHT)
+                + addTerms(frequencies, contentText, CONTENT_WEIGHT);
+        return new IndexedPost(Objects.requireNonNull(id), categoryId, authorId, status, createdAt, updatedAt,
+                Map.copyOf(frequencies), length);
+    }
+
+    private int addTerms(Map<String, Integer> frequencies, String text, int weight) {
+        List<String> tokens = SearchTextUtils.tokenize(text);
+        for (String token : tokens) {
+            frequencies.merge(token, weight, Integer::sum);
+        }
+        return tokens.size() * weight;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Documents and postings of one generation. Filled by a single thread,
+     * then only changed under the service lock while searches read it.
+     */
+    private static final class Index {
+        private final Map<Long, IndexedPost> documents = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListMap<String, Map<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+        private final AtomicLong totalLength = new AtomicLong();
+
+        private void add(IndexedPost document) {
+            remove(document.id());
+            document.termFrequencies().forEach((term, tf) -> postings
+                    .computeIfAbsent(term, t -> new ConcurrentHashMap<>())
+                    .put(document.id(), tf));
+            documents.put(document.id(), document);
+            totalLength.addAndGet(document.length());
+        }
+
+        private void remove(Long postId) {
+            IndexedPost previous = documents.remove(postId);
+            if (previous == null)
+                return;
+            totalLength.addAndGet(-previous.length());
+            previous.termFrequencies().keySet().forEach(term -> postings.computeIfPresent(term, (t, list) -> {
+                list.remove(postId);
+                return list.isEmpty() ? null : list;
+            }));
+        }
+    }
+
+    private record IndexedPost(Long id, Long categoryId, Long authorId, StatusPost status, LocalDateTime createdAt,
+            LocalDateTime updatedAt, Map<String, Integer> termFrequencies, int length) {
+    }
+
+    private record Hit(IndexedPost doc, double score) {
+    }
+}
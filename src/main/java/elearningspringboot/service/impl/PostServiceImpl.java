@@ -1,25 +1,41 @@
 package elearningspringboot.service.impl;
 
 import elearningspringboot.dto.request.PostRequest;
+import elearningspringboot.dto.response.CacheStatsResponse;
+import elearningspringboot.dto.response.CategoryPostResponse;
 import elearningspringboot.dto.response.PageResponse;
 import elearningspringboot.dto.response.PostResponse;
+import elearningspringboot.dto.response.TagResponse;
 import elearningspringboot.dto.response.UserSummaryResponse;
 import elearningspringboot.entity.CategoryPost;
 import elearningspringboot.entity.Post;
 import elearningspringboot.entity.User;
 import elearningspringboot.enumeration.StatusPost;
+import elearningspringboot.event.PostChangedEvent;
 import elearningspringboot.exception.ResourceNotFoundException;
 import elearningspringboot.mapper.PostMapper;
 import elearningspringboot.repository.CategoryPostRepository;
 import elearningspringboot.repository.PostRepository;
+import elearningspringboot.repository.PostRepository.PostSummary;
+import elearningspringboot.repository.PostViewDailyRepository.ViewTotal;
 import elearningspringboot.repository.UserRepository;
+import elearningspringboot.service.PostSearchService;
 import elearningspringboot.service.PostService;
+import elearningspringboot.service.PostViewService;
+import elearningspringboot.service.RelatedPostService;
+import elearningspringboot.service.SlugService;
 import elearningspringboot.service.StorageService;
+import elearningspringboot.service.TagService;
 import elearningspringboot.util.AppUtils;
 import elearningspringboot.util.HtmlImageProcessor;
-import elearningspringboot.util.TagUtils;
+import elearningspringboot.util.PageCursor;
+import elearningspringboot.util.SingleFlightCache;
+import jakarta.annotation.PostConstruct;
+import elearningspringboot.util.HtmlImageProcessor.ProcessedContent;
 import lombok.RequiredArgsConstructor;
-import org.jsoup.Jsoup;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.data.domain.Page;
@@ -31,12 +47,15 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDateTime;
 import java.util.*;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class PostServiceImpl implements PostService {
 
     private final PostRepository repository;
@@ -46,6 +65,26 @@ public class PostServiceImpl implements PostService {
     private final StorageService storageService;
     private final MessageSource messageSource;
     private final HtmlImageProcessor htmlImageProcessor;
+    private final PostSearchService postSearchService;
+    private final RelatedPostService relatedPostService;
+    private final TagService tagService;
+    private final PostViewService postViewService;
+    private final SlugService slugService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // The home page feed is the same for every visitor: the newest LATEST_POSTS_CACHED
+    // public posts are cached and shorter requests are served from a prefix.
+    private static final int LATEST_POSTS_CACHED = 50;
+
+    @Value("${public-feed.ttl-seconds:60}")
+    private long feedTtlSeconds;
+
+    private SingleFlightCache<String, List<PostResponse>> latestPostsCache;
+
+    @PostConstruct
+    void initCaches() {
+        latestPostsCache = new SingleFlightCache<>(feedTtlSeconds * 1000);
+    }
 
     @Override
     @Transactional
@@ -69,14 +108,8 @@ public class PostServiceImpl implements PostService {
         }
         entity.setAuthor(author);
 
-        String processedContent = htmlImageProcessor.process(request.getContent());
-        entity.setContent(processedContent);
-        entity.setContentText(Jsoup.parse(processedContent).text());
-        String tags = TagUtils.extractTagsAsPipe(processedContent);
-        entity.setTags(tags);
-        int words = AppUtils.countWords(processedContent);
-        entity.setReadingTimeMinutes(Math.max(1, words / 200));
-        entity.setSlug(AppUtils.toSlug(entity.getTitle()));
+        applyContent(entity, htmlImageProcessor.processContent(request.getContent()));
+        entity.setSlug(slugService.generatePostSlug(entity.getTitle(), null));
         if (request.getStatus() != null && AppUtils.hasRole(auth, "ADMIN")) {
             entity.setStatus(StatusPost.fromValue(request.getStatus()));
         } else if (!AppUtils.hasRole(auth, "ADMIN")) {
@@ -87,6 +120,10 @@ public class PostServiceImpl implements PostService {
             entity.setThumbnailUrl(thumbnailUrl);
         }
         repository.save(entity);
+        tagService.syncPostTags(entity.getId(), entity.getTags(), entity.getStatus());
+        postSearchService.index(entity);
+        relatedPostService.index(entity);
+        eventPublisher.publishEvent(new PostChangedEvent(entity.getId()));
         PostResponse response = mapper.toDTO(entity);
         response.setAuthor(UserSummaryResponse.builder()
                 .id(entity.getAuthor().getId())
@@ -129,15 +166,10 @@ public class PostServiceImpl implements PostService {
         }
 
         if (request.getContent() != null) {
-            String processedContent = htmlImageProcessor.process(request.getContent());
-            entity.setContent(processedContent);
-            entity.setContentText(Jsoup.parse(processedContent).text());
-            entity.setTags(TagUtils.extractTagsAsPipe(processedContent));
-            int words = AppUtils.countWords(processedContent);
-            entity.setReadingTimeMinutes(Math.max(1, words / 200));
+            applyContent(entity, htmlImageProcessor.processContent(request.getContent()));
         }
         if (request.getTitle() != null) {
-            entity.setSlug(AppUtils.toSlug(request.getTitle()));
+            entity.setSlug(slugService.generatePostSlug(request.getTitle(), entity.getId()));
         }
         if (thumbnail != null && !thumbnail.isEmpty()) {
             String thumbnailUrl = storageService.uploadFile(thumbnail);
@@ -149,6 +181,10 @@ public class PostServiceImpl implements PostService {
         }
 
         repository.save(entity);
+        tagService.syncPostTags(entity.getId(), entity.getTags(), entity.getStatus());
+        postSearchService.index(entity);
+        relatedPostService.index(entity);
+        eventPublisher.publishEvent(new PostChangedEvent(entity.getId()));
         PostResponse response = mapper.toDTO(entity);
         response.setAuthor(UserSummaryResponse.builder()
                 .id(entity.getAuthor().getId())
@@ -159,6 +195,16 @@ public class PostServiceImpl implements PostService {
         return response;
     }
 
+    private void applyContent(Post entity, ProcessedContent content) {
+        entity.setContent(content.html());
+        entity.setContentText(content.text());
+        entity.setTags(content.tags());
+        entity.setReadingTimeMinutes(content.readingTimeMinutes());
+        if (entity.getExcerpt() == null || entity.getExcerpt().isBlank()) {
+            entity.setExcerpt(content.excerpt());
+        }
+    }
+
     @Override
     @Transactional
     public void delete(Long id) {
@@ -168,7 +214,11 @@ public class PostServiceImpl implements PostService {
                         messageSource.getMessage("error.resource.not.found", null, LocaleContextHolder.getLocale())));
         if (AppUtils.hasRole(authentication, "ADMIN")
                 || Objects.equals(AppUtils.getUserIdFromSecurityContext(), entity.getAuthor().getId())) {
+            tagService.removePost(id);
             repository.delete(entity);
+            postSearchService.remove(id);
+            relatedPostService.remove(id);
+            eventPublisher.publishEvent(new PostChangedEvent(id));
         } else {
             throw new AccessDeniedException(
                     messageSource.getMessage("error.accessDenied", null, LocaleContextHolder.getLocale()));
@@ -199,22 +249,18 @@ public class PostServiceImpl implements PostService {
         String kw = (keyword == null) ? "" : keyword.toLowerCase();
         List<String> whiteListFieldSorts = List.of("createdAt", "updatedAt");
         Pageable pageable = AppUtils.generatePageableWithSort(sorts, whiteListFieldSorts, pageNumber, pageSize);
-        Page<Post> page;
+        StatusPost status = isPublic ? StatusPost.PUBLIC : null;
+        Long filterAuthorId = isPublic ? null : authorId;
+        if (!kw.isBlank() && postSearchService.isReady()) {
+            return searchIndexed(kw, categoryId, filterAuthorId, status, pageable, pageNumber, pageSize);
+        }
+        Page<PostSummary> page;
         if (!isPublic) {
             page = repository.searchPosts(kw, categoryId, authorId, pageable);
         } else {
             page = repository.searchPublicPosts(kw, categoryId, StatusPost.PUBLIC, pageable);
         }
-        List<PostResponse> items = page.getContent().stream().map(entity -> {
-            PostResponse response = mapper.toDTO(entity);
-            response.setAuthor(UserSummaryResponse.builder()
-                    .id(entity.getAuthor().getId())
-                    .avatarUrl(entity.getAuthor().getAvatarUrl())
-                    .fullName(entity.getAuthor().getFullName())
-                    .role(entity.getAuthor().getRole().getRole().getName())
-                    .build());
-            return response;
-        }).toList();
+        List<PostResponse> items = page.getContent().stream().map(this::toSummaryResponse).toList();
         return PageResponse.<List<PostResponse>>builder()
                 .pageNumber(pageNumber)
                 .pageSize(pageSize)
@@ -224,24 +270,73 @@ public class PostServiceImpl implements PostService {
                 .build();
     }
 
+    @Override
+    public PageResponse<List<PostResponse>> getPublicByCursor(String cursor, int pageSize, List<String> sorts,
+            String keyword, Long categoryId) {
+        String kw = (keyword == null) ? "" : keyword.toLowerCase();
+        List<String> cursorFields = List.of(PageCursor.UPDATED_AT, PageCursor.CREATED_AT);
+        PageCursor after = PageCursor.decode(cursor, cursorFields);
+        String field = after != null ? after.field() : PageCursor.sortField(sorts, cursorFields, PageCursor.UPDATED_AT);
+        LocalDateTime cursorTime = after != null ? after.time() : null;
+        Long cursorId = after != null ? after.id() : null;
+        // One extra row tells whether there is a next page.
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<PostSummary> posts = PageCursor.CREATED_AT.equals(field)
+                ? repository.findPublicPageByCreatedAt(kw, categoryId, StatusPost.PUBLIC, cursorTime, cursorId, pageable)
+                : repository.findPublicPageByUpdatedAt(kw, categoryId, StatusPost.PUBLIC, cursorTime, cursorId, pageable);
+
+        String nextCursor = null;
+        if (posts.size() > pageSize) {
+            posts = posts.subList(0, pageSize);
+            PostSummary last = posts.get(pageSize - 1);
+            nextCursor = PageCursor.of(field,
+                    PageCursor.CREATED_AT.equals(field) ? last.getCreatedAt() : last.getUpdatedAt(),
+                    last.getId()).encode();
+        }
+        List<PostResponse> items = posts.stream().map(this::toSummaryResponse).toList();
+        return PageResponse.<List<PostResponse>>builder()
+                .pageSize(pageSize)
+                .numberOfElements(items.size())
+                .items(items)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private PageResponse<List<PostResponse>> searchIndexed(String keyword, Long categoryId, Long authorId,
+            StatusPost status, Pageable pageable, int pageNumber, int pageSize) {
+        PostSearchService.SearchHits hits = postSearchService.search(keyword, categoryId, authorId, status,
+                pageable.getSort(), (int) Math.min(pageable.getOffset(), Integer.MAX_VALUE), pageSize);
+        List<PostResponse> items = findAllInOrder(hits.ids());
+        return PageResponse.<List<PostResponse>>builder()
+                .pageNumber(pageNumber)
+                .pageSize(pageSize)
+                .totalPages((hits.total() + pageSize - 1) / pageSize)
+                .numberOfElements(items.size())
+                .items(items)
+                .build();
+    }
+
     @Override
     public List<PostResponse> getRelated(Long postId, int limit) {
+        if (relatedPostService.isReady() && relatedPostService.contains(postId)) {
+            return findAllInOrder(relatedPostService.getRelatedIds(postId, limit));
+        }
         Post anchor = repository.findById(postId)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         messageSource.getMessage("error.resource.not.found", null, LocaleContextHolder.getLocale())));
 
-        List<Post> related = new ArrayList<>();
+        List<PostSummary> related = new ArrayList<>();
         Set<Long> addedIds = new HashSet<>();
 
         String searchText = cleanSearchText(anchor.getTitle() + " " +
                 (anchor.getContentText() != null ? anchor.getContentText() : ""));
         if (!searchText.trim().isEmpty()) {
             try {
-                var fullTextResults = repository.findRelatedByFullTextSearch(
+                List<Long> fullTextIds = repository.findRelatedIdsByFullTextSearch(
                         anchor.getId(), searchText, limit);
-                addUniqueResults(related, addedIds, fullTextResults);
+                addUniqueResults(related, addedIds, findSummariesInOrder(fullTextIds));
             } catch (Exception e) {
-                System.out.println("Full-text search failed: " + e.getMessage());
+                log.warn("Full-text search for related posts failed: {}", e.getMessage());
             }
         }
 
@@ -266,21 +361,54 @@ public class PostServiceImpl implements PostService {
 
         return related.stream()
                 .limit(limit)
-                .map(p -> {
-                    PostResponse response = mapper.toDTO(p);
-                    response.setAuthor(UserSummaryResponse.builder()
-                            .id(p.getAuthor().getId())
-                            .avatarUrl(p.getAuthor().getAvatarUrl())
-                            .fullName(p.getAuthor().getFullName())
-                            .role(p.getAuthor().getRole().getRole().getName())
-                            .build());
-                    return response;
-                })
+                .map(this::toSummaryResponse)
                 .toList();
     }
 
-    private void addUniqueResults(List<Post> target, Set<Long> addedIds, List<Post> source) {
-        for (Post post : source) {
+    private List<PostResponse> findAllInOrder(List<Long> ids) {
+        return findSummariesInOrder(ids).stream().map(this::toSummaryResponse).toList();
+    }
+
+    private List<PostSummary> findSummariesInOrder(List<Long> ids) {
+        if (ids.isEmpty())
+            return List.of();
+        Map<Long, PostSummary> postsById = new HashMap<>();
+        repository.findSummariesByIdIn(ids).forEach(p -> postsById.put(p.getId(), p));
+        return ids.stream()
+                .map(postsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    // Listing shape: everything but content and contentText, which only getById returns.
+    private PostResponse toSummaryResponse(PostSummary summary) {
+        return PostResponse.builder()
+                .id(summary.getId())
+                .createdAt(summary.getCreatedAt())
+                .updatedAt(summary.getUpdatedAt())
+                .title(summary.getTitle())
+                .excerpt(summary.getExcerpt())
+                .thumbnailUrl(summary.getThumbnailUrl())
+                .tags(summary.getTags())
+                .slug(summary.getSlug())
+                .readingTimeMinutes(summary.getReadingTimeMinutes())
+                .status(summary.getStatus())
+                .category(CategoryPostResponse.builder()
+                        .id(summary.getCategoryId())
+                        .title(summary.getCategoryTitle())
+                        .slug(summary.getCategorySlug())
+                        .build())
+                .author(UserSummaryResponse.builder()
+                        .id(summary.getAuthorId())
+                        .avatarUrl(summary.getAuthorAvatarUrl())
+                        .fullName(summary.getAuthorFullName())
+                        .role(summary.getAuthorRole().getName())
+                        .build())
+                .build();
+    }
+
+    private void addUniqueResults(List<PostSummary> target, Set<Long> addedIds, List<PostSummary> source) {
+        for (PostSummary post : source) {
             if (!addedIds.contains(post.getId())) {
                 target.add(post);
                 addedIds.add(post.getId());
@@ -298,21 +426,49 @@ public class PostServiceImpl implements PostService {
 
     @Override
     public List<PostResponse> getLatestPosts(int limit) {
-        Pageable pageable = PageRequest.of(0,
-                Math.min(limit, 50));
-        List<Post> posts = repository.findLatestPublicPosts(StatusPost.PUBLIC, pageable);
-
-        return posts.stream()
-                .map(entity -> {
-                    PostResponse response = mapper.toDTO(entity);
-                    response.setAuthor(UserSummaryResponse.builder()
-                            .id(entity.getAuthor().getId())
-                            .avatarUrl(entity.getAuthor().getAvatarUrl())
-                            .fullName(entity.getAuthor().getFullName())
-                            .role(entity.getAuthor().getRole().getRole().getName())
-                            .build());
-                    return response;
-                })
-                .toList();
+        List<PostResponse> latest = latestPostsCache.get("latest", () -> repository
+                .findLatestPublicPosts(StatusPost.PUBLIC, PageRequest.of(0, LATEST_POSTS_CACHED)).stream()
+                .map(this::toSummaryResponse)
+                .toList());
+        return latest.subList(0, Math.min(Math.min(limit, LATEST_POSTS_CACHED), latest.size()));
+    }
+
+    @Override
+    public List<PostResponse> getPopularPosts(int days, int limit) {
+        List<ViewTotal> popular = postViewService.getPopular(days, limit);
+        Map<Long, Long> views = new HashMap<>();
+        popular.forEach(v -> views.put(v.getPostId(), v.getViews()));
+        List<PostResponse> items = findAllInOrder(popular.stream().map(ViewTotal::getPostId).toList());
+        items.forEach(item -> item.setViewCount(views.get(item.getId())));
+        return items;
+    }
+
+    @Override
+    public CacheStatsResponse getLatestPostsCacheStats() {
+        return latestPostsCache.stats("latestPosts");
+    }
+
+    // Runs after the publishing transaction commits, or right away outside one.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        latestPostsCache.invalidateAll();
+    }
+
+    @Override
+    public PageResponse<List<PostResponse>> getPublicByTag(String tag, int pageNumber, int pageSize) {
+        TagService.TaggedPosts tagged = tagService.findPublicPostIds(tag, PageRequest.of(pageNumber - 1, pageSize));
+        List<PostResponse> items = findAllInOrder(tagged.ids());
+        return PageResponse.<List<PostResponse>>builder()
+                .pageNumber(pageNumber)
+                .pageSize(pageSize)
+                .totalPages((tagged.total() + pageSize - 1) / pageSize)
+                .numberOfElements(items.size())
+                .items(items)
+                .build();
+    }
+
+    @Override
+    public List<TagResponse> getTrendingTags(int limit) {
+        return tagService.getTrending(limit);
     }
-}
\ No newline at end of file
+}
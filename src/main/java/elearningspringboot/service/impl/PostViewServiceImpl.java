@@ -0,0 +1,114 @@
+package elearningspringboot.service.impl;
+
+import elearningspringboot.repository.PostViewDailyRepository;
+import elearningspringboot.repository.PostViewDailyRepository.ViewTotal;
+import elearningspringboot.service.PostViewService;
+import elearningspringboot.util.SingleFlightCache;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts post views in memory and writes them behind. A view is one LongAdder
+ * increment; every flush drains the adders and upserts the totals into
+ * post_view_daily in multi-row INSERT ... ON DUPLICATE KEY UPDATE batches.
+ * Views are attributed to the day of the flush that writes them.
+ */
+@Service
+@Slf4j
+public class PostViewServiceImpl implements PostViewService {
+
+    private static final int UPSERT_BATCH_SIZE = 500;
+    private static final int MAX_POPULAR = 50;
+
+    private final PostViewDailyRepository postViewDailyRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxDays;
+
+    // Entries are never removed, so an increment can't land on a dropped adder;
+    // the map is bounded by the number of distinct posts viewed.
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    private final SingleFlightCache<Integer, List<ViewTotal>> popularCache;
+
+    public PostViewServiceImpl(PostViewDailyRepository postViewDailyRepository,
+            JdbcTemplate jdbcTemplate,
+            @Value("${post-views.popular-max-days:30}") int maxDays,
+            @Value("${post-views.popular-cache-seconds:60}") long popularCacheSeconds) {
+        this.postViewDailyRepository = postViewDailyRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxDays = maxDays;
+        this.popularCache = new SingleFlightCache<>(popularCacheSeconds * 1000);
+    }
+
+    @Override
+    public void recordView(Long postId) {
+        pending.computeIfAbsent(postId, id -> new LongAdder()).increment();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${post-views.flush-millis:30000}")
+    public synchronized void flush() {
+        List<long[]> counts = new ArrayList<>();
+        pending.forEach((postId, adder) -> {
+            long views = adder.sumThenReset();
+            if (views > 0)
+                counts.add(new long[] { postId, views });
+        });
+        if (counts.isEmpty())
+            return;
+
+        LocalDate today = LocalDate.now();
+        for (int from = 0; from < counts.size(); from += UPSERT_BATCH_SIZE) {
+            List<long[]> batch = counts.subList(from, Math.min(from + UPSERT_BATCH_SIZE, counts.size()));
+            try {
+                upsert(batch, today);
+            } catch (Exception e) {
+                // Put the views back so the next flush retries them.
+                batch.forEach(c -> pending.computeIfAbsent(c[0], id -> new LongAdder()).add(c[1]));
+                log.warn("Failed to flush {} post view counters: {}", batch.size(), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public List<ViewTotal> getPopular(int days, int limit) {
+        int window = Math.max(1, Math.min(days, maxDays));
+        List<ViewTotal> popular = popularCache.get(window, () -> postViewDailyRepository
+                .findTopPublicPostsSince(LocalDate.now().minusDays(window - 1L), MAX_POPULAR));
+        return popular.subList(0, Math.min(Math.min(limit, MAX_POPULAR), popular.size()));
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private void upsert(List<long[]> batch, LocalDate viewDate) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object> args = new ArrayList<>(batch.size() * 5);
+        for (long[] count : batch) {
+            args.add(count[0]);
+            args.add(viewDate);
+            args.add(count[1]);
+            args.add(now);
+            args.add(now);
+        }
+        String values = String.join(",", Collections.nCopies(batch.size(), "(?, ?, ?, ?, ?)"));
+        jdbcTemplate.update("INSERT INTO post_view_daily (post_id, view_date, view_count, created_at, updated_at) "
+                + "VALUES " + values
+                + " ON DUPLICATE KEY UPDATE view_count = view_count + VALUES(view_count), "
+                + "updated_at = VALUES(updated_at)", args.toArray());
+    }
+}
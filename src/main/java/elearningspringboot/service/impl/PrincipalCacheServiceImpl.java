@@ -0,0 +1,100 @@
+package elearningspringboot.service.impl;
+
+import elearningspringboot.configuration.AuthenticatedUser;
+import elearningspringboot.dto.response.CacheStatsResponse;
+import elearningspringboot.entity.User;
+import elearningspringboot.service.PrincipalCacheService;
+import elearningspringboot.util.ExpiringCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@Slf4j
+public class PrincipalCacheServiceImpl implements PrincipalCacheService {
+
+    private final UserDetailsService userDetailsService;
+    private final ExpiringCache<String, AuthenticatedUser> principalCache;
+    private final long ttlMillis;
+
+    // Bumped on every eviction. A load that started before an eviction must not
+    // publish its (possibly stale) result.
+    private final AtomicLong version = new AtomicLong();
+
+    public PrincipalCacheServiceImpl(UserDetailsService userDetailsService,
+            @Value("${principal.cache.max-size:20000}") int maxSize,
+            @Value("${principal.cache.ttl-seconds:600}") long ttlSeconds) {
+        this.userDetailsService = userDetailsService;
+        this.principalCache = new ExpiringCache<>(maxSize);
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    @Override
+    public AuthenticatedUser loadPrincipal(String email) {
+        AuthenticatedUser cached = principalCache.get(email);
+        if (cached != null) {
+            return cached;
+        }
+        long loadedAt = version.get();
+        AuthenticatedUser principal = AuthenticatedUser.from((User) userDetailsService.loadUserByUsername(email));
+        if (version.get() == loadedAt) {
+            principalCache.put(email, principal, System.currentTimeMillis() + ttlMillis);
+            if (version.get() != loadedAt) {
+                principalCache.invalidate(email);
+            }
+        }
+        return principal;
+    }
+
+    @Override
+    public void evict(String email) {
+        if (email == null)
+            return;
+        invalidate(email);
+        // Evict again once the surrounding transaction ends so a request that
+        // reloaded the old row before commit cannot leave it cached.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(email);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void evictAll() {
+        invalidateAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidateAll();
+                }
+            });
+        }
+    }
+
+    @Override
+    public CacheStatsResponse getCacheStats() {
+        return principalCache.stats("principal");
+    }
+
+    private void invalidate(String email) {
+        version.incrementAndGet();
+        principalCache.invalidate(email);
+        log.debug("Evicted cached principal for {}", email);
+    }
+
+    private void invalidateAll() {
+        version.incrementAndGet();
+        principalCache.invalidateAll();
+        log.debug("Evicted all cached principals");
+    }
+}
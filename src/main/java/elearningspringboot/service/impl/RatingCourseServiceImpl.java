@@ -6,6 +6,7 @@ import elearningspringboot.dto.response.RatingResponse;
 import elearningspringboot.entity.Course;
 import elearningspringboot.entity.RatingCourse;
 import elearningspringboot.entity.User;
+import elearningspringboot.event.CourseChangedEvent;
 import elearningspringboot.exception.ResourceNotFoundException;
 import elearningspringboot.mapper.RatingCourseMapper;
 import elearningspringboot.repository.CourseRepository;
@@ -15,6 +16,7 @@ import elearningspringboot.service.RatingCourseService;
 import elearningspringboot.util.AppUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.data.domain.Page;
@@ -40,6 +42,7 @@ public class RatingCourseServiceImpl implements RatingCourseService {
     private final UserRepository userRepository;
     private final RatingCourseMapper ratingMapper;
     private final MessageSource messageSource;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public RatingResponse createOrUpdateRating(RatingRequest request) {
@@ -65,8 +68,12 @@ public class RatingCourseServiceImpl implements RatingCourseService {
             // 3a. Nếu đã tồn tại -> Cập nhật (Update)
             log.info("Updating existing rating for courseId: {}, userId: {}", course.getId(), author.getId());
             RatingCourse existingRating = existingRatingOpt.get();
+            int previousRating = ratingOf(existingRating);
             ratingMapper.updateEntityFromRequest(request, existingRating); // Chỉ cập nhật rating và message
             RatingCourse updatedRating = ratingRepository.save(existingRating);
+            if (ratingOf(updatedRating) != previousRating)
+                courseRepository.adjustRatingTotals(course.getId(), 0, ratingOf(updatedRating) - previousRating);
+            eventPublisher.publishEvent(new CourseChangedEvent(course.getId()));
             return ratingMapper.toDTO(updatedRating);
         } else {
             // 3b. Nếu chưa tồn tại -> Tạo mới (Create)
@@ -75,6 +82,8 @@ public class RatingCourseServiceImpl implements RatingCourseService {
             newRating.setCourse(course);
             newRating.setAuthor(author);
             RatingCourse savedRating = ratingRepository.save(newRating);
+            courseRepository.adjustRatingTotals(course.getId(), 1, ratingOf(savedRating));
+            eventPublisher.publishEvent(new CourseChangedEvent(course.getId()));
             return ratingMapper.toDTO(savedRating);
         }
     }
@@ -112,5 +121,11 @@ public class RatingCourseServiceImpl implements RatingCourseService {
 
         log.info("Deleting ratingId: {}", ratingId);
         ratingRepository.delete(rating);
+        courseRepository.adjustRatingTotals(rating.getCourse().getId(), -1, -ratingOf(rating));
+        eventPublisher.publishEvent(new CourseChangedEvent(rating.getCourse().getId()));
     }
-}
\ No newline at end of file
+
+    private static int ratingOf(RatingCourse rating) {
+        return rating.getRating() != null ? rating.getRating() : 0;
+    }
+}
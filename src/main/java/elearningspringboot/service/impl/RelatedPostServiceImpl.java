@@ -0,0 +1,377 @@
+package elearningspringboot.service.impl;
+
+import elearningspringboot.configuration.SchedulingConfig;
+import elearningspringboot.entity.Post;
+import elearningspringboot.enumeration.StatusPost;
+import elearningspringboot.repository.PostRepository;
+import elearningspringboot.repository.PostRepository.PostSearchSource;
+import elearningspringboot.service.RelatedPostService;
+import elearningspringboot.util.SearchTextUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed related posts. Every post gets a TF-IDF vector over its title,
+ * tags and plain-text content (top terms only, L2-normalised). Its nearest
+ * public neighbours by cosine similarity are stored in memory, padded with
+ * the latest posts of the same category and then the latest posts overall.
+ * A post change recomputes the lists that can be affected by it. A periodic
+ * full refresh re-weights everything against the current document
+ * frequencies.
+ */
+@Service
+@Slf4j
+public class RelatedPostServiceImpl implements RelatedPostService {
+
+    private static final int TITLE_WEIGHT = 2;
+    private static final int TAG_WEIGHT = 2;
+    private static final int CONTENT_WEIGHT = 1;
+    private static final int MAX_TERMS_PER_POST = 50;
+    // Syllables in more than half of all posts ("va", "cua", "la"...) carry no signal.
+    private static final double MAX_DOC_FREQUENCY_RATIO = 0.5;
+    private static final int MIN_POSTS_FOR_PRUNING = 20;
+    // Ties on updatedAt fall back to the id, so two posts never compare equal.
+    private static final Comparator<Doc> NEWEST_FIRST = Comparator.comparing((Doc d) -> d.updatedAt,
+            Comparator.nullsLast(Comparator.reverseOrder())).thenComparing(d -> d.id, Comparator.reverseOrder());
+
+    private final PostRepository postRepository;
+    private final int neighbours;
+    private final int batchSize;
+
+    // Replaced as a whole by a refresh; changed in place, under this, by upsert and delete.
+    // Readers only touch its related map.
+    private volatile Index index = new Index();
+
+    // Guarded by this. Changes committed while a refresh is running, replayed on top of its snapshot.
+    private Map<Long, Doc> changedDuringRefresh;
+    private volatile boolean ready;
+
+    public RelatedPostServiceImpl(PostRepository postRepository,
+            @Value("${related-posts.neighbours:12}") int neighbours,
+            @Value("${related-posts.batch-size:500}") int batchSize) {
+        this.postRepository = postRepository;
+        this.neighbours = neighbours;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void index(Post post) {
+        Doc doc = toDoc(post.getId(), post.getTitle(), post.getTags(), post.getContentText(), post.getStatus(),
+                post.getCategory() != null ? post.getCategory().getId() : null, LocalDateTime.now());
+        afterCommit(() -> upsert(doc));
+    }
+
+    @Override
+    public void remove(Long postId) {
+        afterCommit(() -> delete(postId));
+    }
+
+    /**
+     * Reads every post and builds a new index from them without holding the
+     * lock, so post changes keep being applied to the current index meanwhile.
+     * Those changes are also recorded and replayed on the new index, which
+     * then replaces the current one in a single assignment.
+     */
+    @Override
+    @Scheduled(scheduler = SchedulingConfig.REBUILD_SCHEDULER,
+            fixedDelayString = "${related-posts.refresh-millis:3600000}",
+            initialDelayString = "${related-posts.initial-delay-millis:10000}")
+    public void refresh() {
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            changedDuringRefresh = new HashMap<>();
+        }
+        try {
+            Index fresh = new Index();
+            long lastId = 0;
+            while (true) {
+                List<PostSearchSource> batch = postRepository.findSearchSourcesAfter(lastId,
+                        PageRequest.of(0, batchSize));
+                for (PostSearchSource source : batch) {
+                    fresh.addDoc(toDoc(source.getId(), source.getTitle(), source.getTags(), source.getContentText(),
+                            source.getStatus(), source.getCategoryId(), source.getUpdatedAt()));
+                    lastId = source.getId();
+                }
+                if (batch.size() < batchSize)
+                    break;
+            }
+            fresh.build();
+            int size;
+            synchronized (this) {
+                // The recorded docs are also in the current index, so each gets its own copy here.
+                changedDuringRefresh.forEach((id, doc) -> {
+                    if (doc != null)
+                        fresh.upsert(doc.copy());
+                    else
+                        fresh.delete(id);
+                });
+                index = fresh;
+                ready = true;
+                size = fresh.docs.size();
+            }
+            log.info("Related posts refreshed for {} posts in {} ms", size, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Failed to refresh related posts: {}", e.getMessage());
+        } finally {
+            synchronized (this) {
+                changedDuringRefresh = null;
+            }
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public boolean contains(Long postId) {
+        return index.related.containsKey(postId);
+    }
+
+    @Override
+    public List<Long> getRelatedIds(Long postId, int limit) {
+        List<Long> ids = index.related.getOrDefault(postId, List.of());
+        return ids.size() <= limit ? ids : ids.subList(0, limit);
+    }
+
+    private synchronized void upsert(Doc doc) {
+        if (changedDuringRefresh != null)
+            changedDuringRefresh.put(doc.id, doc);
+        index.upsert(doc);
+    }
+
+    private synchronized void delete(Long postId) {
+        if (changedDuringRefresh != null)
+            changedDuringRefresh.put(postId, null);
+        index.delete(postId);
+    }
+
+    /**
+     * Documents, term statistics and related lists of one generation. Built by
+     * a single thread, then only changed under the service lock; related is
+     * the one map read concurrently.
+     */
+    private final class Index {
+        private final Map<Long, Doc> docs = new HashMap<>();
+        private final Map<String, Integer> docFrequency = new HashMap<>();
+        private final Map<String, Set<Long>> postsByTerm = new HashMap<>();
+        // Public posts, newest first, kept in step with docs rather than re-sorted on each change.
+        private final NavigableSet<Doc> latestOverall = new TreeSet<>(NEWEST_FIRST);
+        private final Map<Long, NavigableSet<Doc>> latestByCategory = new HashMap<>();
+        private final Map<Long, List<Long>> related = new ConcurrentHashMap<>();
+
+        // Weights and relates every doc added so far.
+        private void build() {
+            for (Doc doc : docs.values()) {
+                vectorize(doc);
+            }
+            for (Doc doc : docs.values()) {
+                related.put(doc.id, computeRelated(doc));
+            }
+        }
+
+        private void upsert(Doc doc) {
+            Set<Long> affected = postsListing(doc.id);
+            removeDoc(doc.id);
+            addDoc(doc);
+            vectorize(doc);
+            List<Long> neighboursOfDoc = computeRelated(doc);
+            related.put(doc.id, neighboursOfDoc);
+            if (doc.isPublic()) {
+                // Posts close to the changed one may now want it in their list.
+                affected.addAll(neighboursOfDoc);
+            }
+            affected.remove(doc.id);
+            recompute(affected);
+        }
+
+        private void delete(Long postId) {
+            removeDoc(postId);
+            related.remove(postId);
+            recompute(postsListing(postId));
+        }
+
+        private void addDoc(Doc doc) {
+            docs.put(doc.id, doc);
+            for (String term : doc.termFrequencies.keySet()) {
+                docFrequency.merge(term, 1, Integer::sum);
+            }
+            if (doc.isPublic()) {
+                latestOverall.add(doc);
+                latestByCategory.computeIfAbsent(doc.categoryId, c -> new TreeSet<>(NEWEST_FIRST)).add(doc);
+            }
+        }
+
+        private void removeDoc(Long postId) {
+            Doc previous = docs.remove(postId);
+            if (previous == null)
+                return;
+            for (String term : previous.termFrequencies.keySet()) {
+                docFrequency.computeIfPresent(term, (t, df) -> df > 1 ? df - 1 : null);
+            }
+            if (previous.isPublic()) {
+                latestOverall.remove(previous);
+                latestByCategory.computeIfPresent(previous.categoryId,
+                        (c, latest) -> latest.remove(previous) && latest.isEmpty() ? null : latest);
+            }
+            unlinkVector(previous);
+        }
+
+        private void vectorize(Doc doc) {
+            unlinkVector(doc);
+            int postCount = docs.size();
+            Map<String, Double> weights = new HashMap<>();
+            doc.termFrequencies.forEach((term, tf) -> {
+                int df = docFrequency.getOrDefault(term, 1);
+                if (postCount >= MIN_POSTS_FOR_PRUNING && df > postCount * MAX_DOC_FREQUENCY_RATIO)
+                    return;
+                double idf = Math.log((postCount + 1.0) / (df + 1.0)) + 1;
+                weights.put(term, tf * idf);
+            });
+            List<Map.Entry<String, Double>> top = weights.entrySet().stream()
+                    .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                    .limit(MAX_TERMS_PER_POST)
+                    .toList();
+            double norm = Math.sqrt(top.stream().mapToDouble(e -> e.getValue() * e.getValue()).sum());
+            Map<String, Double> vector = new HashMap<>();
+            if (norm > 0) {
+                top.forEach(e -> vector.put(e.getKey(), e.getValue() / norm));
+            }
+            doc.vector = vector;
+            if (doc.isPublic()) {
+                for (String term : vector.keySet()) {
+                    postsByTerm.computeIfAbsent(term, t -> new HashSet<>()).add(doc.id);
+                }
+            }
+        }
+
+        private void unlinkVector(Doc doc) {
+            for (String term : doc.vector.keySet()) {
+                Set<Long> ids = postsByTerm.get(term);
+                if (ids != null && ids.remove(doc.id) && ids.isEmpty())
+                    postsByTerm.remove(term);
+            }
+        }
+
+        private List<Long> computeRelated(Doc doc) {
+            Map<Long, Double> scores = new HashMap<>();
+            doc.vector.forEach((term, weight) -> {
+                for (Long id : postsByTerm.getOrDefault(term, Set.of())) {
+                    if (id.equals(doc.id))
+                        continue;
+                    Double otherWeight = docs.get(id).vector.get(term);
+                    if (otherWeight != null)
+                        scores.merge(id, weight * otherWeight, Double::sum);
+                }
+            });
+            LinkedHashSet<Long> result = new LinkedHashSet<>();
+            scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
+                    .limit(neighbours)
+                    .forEach(e -> result.add(e.getKey()));
+            pad(result, doc, latestByCategory.getOrDefault(doc.categoryId, Collections.emptyNavigableSet()));
+            pad(result, doc, latestOverall);
+            return List.copyOf(result);
+        }
+
+        private void pad(Set<Long> result, Doc doc, Iterable<Doc> candidates) {
+            for (Doc candidate : candidates) {
+                if (result.size() >= neighbours)
+                    return;
+                if (!candidate.id.equals(doc.id))
+                    result.add(candidate.id);
+            }
+        }
+
+        private Set<Long> postsListing(Long postId) {
+            Set<Long> ids = new HashSet<>();
+            related.forEach((id, list) -> {
+                if (list.contains(postId))
+                    ids.add(id);
+            });
+            return ids;
+        }
+
+        private void recompute(Set<Long> postIds) {
+            for (Long id : postIds) {
+                Doc doc = docs.get(id);
+                if (doc != null)
+                    related.put(id, computeRelated(doc));
+            }
+        }
+    }
+
+    private Doc toDoc(Long id, String title, String tags, String contentText, StatusPost status, Long categoryId,
+            LocalDateTime updatedAt) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        addTerms(frequencies, title, TITLE_WEIGHT);
+        addTerms(frequencies, tags, TAG_WEIGHT);
+        addTerms(frequencies, contentText, CONTENT_WEIGHT);
+        return new Doc(id, categoryId, status, updatedAt, frequencies);
+    }
+
+    private void addTerms(Map<String, Integer> frequencies, String text, int weight) {
+        for (String token : SearchTextUtils.tokenize(text)) {
+            frequencies.merge(token, weight, Integer::sum);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class Doc {
+        private final Long id;
+        private final Long categoryId;
+        private final StatusPost status;
+        private final LocalDateTime updatedAt;
+        private final Map<String, Integer> termFrequencies;
+        private Map<String, Double> vector = Map.of();
+
+        private Doc(Long id, Long categoryId, StatusPost status, LocalDateTime updatedAt,
+                Map<String, Integer> termFrequencies) {
+            this.id = id;
+            this.categoryId = categoryId;
+            this.status = status;
+            this.updatedAt = updatedAt;
+            this.termFrequencies = termFrequencies;
+        }
+
+        // Same post, with no vector yet, for an index that must not share it.
+        private Doc copy() {
+            return new Doc(id, categoryId, status, updatedAt, termFrequencies);
+        }
+
+        private boolean isPublic() {
+            return status == StatusPost.PUBLIC;
+        }
+    }
+}
@@ -8,6 +8,7 @@ import elearningspringboot.exception.ResourceConflictException;
 import elearningspringboot.exception.ResourceNotFoundException;
 import elearningspringboot.mapper.RoleMapper;
 import elearningspringboot.repository.RoleRepository;
+import elearningspringboot.service.PrincipalCacheService;
 import elearningspringboot.service.RoleService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,6 +28,7 @@ public class RoleServiceImpl implements RoleService {
     private final RoleRepository roleRepository;
     private final RoleMapper roleMapper;
     private final MessageSource messageSource;
+    private final PrincipalCacheService principalCacheService;
 
     @Override
     public RoleResponse createRole(RoleRequest request) {
@@ -62,6 +64,7 @@ public class RoleServiceImpl implements RoleService {
         roleMapper.updateEntityFromDTO(request, role);
         role.setRole(UserRole.getRoleFromName(request.getRole()));
         roleRepository.save(role);
+        principalCacheService.evictAll();
 
         log.info("Successfully updated role with id = {}", id);
         return roleMapper.toDTO(role);
@@ -111,6 +114,7 @@ public class RoleServiceImpl implements RoleService {
 
         Role role = findRoleById(id);
         roleRepository.delete(role);
+        principalCacheService.evictAll();
 
         log.info("Successfully deleted role with id = {}", id);
     }
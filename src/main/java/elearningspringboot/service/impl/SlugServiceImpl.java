@@ -0,0 +1,176 @@
+package elearningspringboot.service.impl;
+
+import elearningspringboot.dto.response.CacheStatsResponse;
+import elearningspringboot.event.PostChangedEvent;
+import elearningspringboot.exception.ResourceNotFoundException;
+import elearningspringboot.repository.CategoryCourseRepository;
+import elearningspringboot.repository.CategoryPostRepository;
+import elearningspringboot.repository.PostRepository;
+import elearningspringboot.service.SlugService;
+import elearningspringboot.util.AppUtils;
+import elearningspringboot.util.ExpiringCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Generates unique slugs and resolves them back to ids. A taken slug gets the
+ * lowest free "-n" suffix, found with one prefix query on the slug index.
+ * Resolved ids are kept in a bounded cache keyed by kind and slug; only hits
+ * are cached, and an entry is dropped once its row is renamed or deleted.
+ */
+@Service
+public class SlugServiceImpl implements SlugService {
+
+    // Leaves room for the "-n" suffix within the 255-character column.
+    private static final int MAX_BASE_LENGTH = 240;
+    private static final int MAX_SLUG_LENGTH = 255;
+
+    private final PostRepository postRepository;
+    private final CategoryPostRepository categoryPostRepository;
+    private final CategoryCourseRepository categoryCourseRepository;
+    private final MessageSource messageSource;
+    private final ExpiringCache<SlugKey, Long> slugCache;
+    private final long ttlMillis;
+
+    public SlugServiceImpl(PostRepository postRepository,
+            CategoryPostRepository categoryPostRepository,
+            CategoryCourseRepository categoryCourseRepository,
+            MessageSource messageSource,
+            @Value("${slug-cache.max-size:10000}") int maxSize,
+            @Value("${slug-cache.ttl-seconds:600}") long ttlSeconds) {
+        this.postRepository = postRepository;
+        this.categoryPostRepository = categoryPostRepository;
+        this.categoryCourseRepository = categoryCourseRepository;
+        this.messageSource = messageSource;
+        this.slugCache = new ExpiringCache<>(maxSize);
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    @Override
+    public String generatePostSlug(String title, Long excludeId) {
+        String base = baseSlug(title, "post");
+        return firstFree(base, postRepository.findSlugsStartingWith(base, excludeId));
+    }
+
+    @Override
+    public String generateCategoryPostSlug(String title, Long excludeId) {
+        String base = baseSlug(title, "category");
+        return firstFree(base, categoryPostRepository.findSlugsStartingWith(base, excludeId));
+    }
+
+    @Override
+    public String generateCategoryCourseSlug(String title, Long excludeId) {
+        String base = baseSlug(title, "category");
+        return firstFree(base, categoryCourseRepository.findSlugsStartingWith(base, excludeId));
+    }
+
+    @Override
+    public Long resolvePostId(String slug) {
+        return resolve(SlugKind.POST, slug, postRepository::findIdBySlug, "error.resource.not.found");
+    }
+
+    @Override
+    public Long resolveCategoryPostId(String slug) {
+        return resolve(SlugKind.CATEGORY_POST, slug, categoryPostRepository::findIdBySlug, "categoryPost.notFound");
+    }
+
+    @Override
+    public Long resolveCategoryCourseId(String slug) {
+        return resolve(SlugKind.CATEGORY_COURSE, slug, categoryCourseRepository::findIdBySlug,
+                "categoryCourse.notFound");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        evict(SlugKind.POST, event.postId());
+    }
+
+    @Override
+    public void evictCategoryPost(Long id) {
+        afterCommit(() -> evict(SlugKind.CATEGORY_POST, id));
+    }
+
+    @Override
+    public void evictCategoryCourse(Long id) {
+        afterCommit(() -> evict(SlugKind.CATEGORY_COURSE, id));
+    }
+
+    @Override
+    public CacheStatsResponse getCacheStats() {
+        return slugCache.stats("slug");
+    }
+
+    private Long resolve(SlugKind kind, String slug, Function<String, Optional<Long>> loader, String notFoundKey) {
+        if (slug == null || slug.isEmpty() || slug.length() > MAX_SLUG_LENGTH)
+            throw notFound(notFoundKey);
+        SlugKey key = new SlugKey(kind, slug);
+        Long id = slugCache.get(key);
+        if (id != null)
+            return id;
+        Optional<Long> found = loader.apply(slug);
+        if (found.isEmpty())
+            throw notFound(notFoundKey);
+        slugCache.put(key, found.get(), System.currentTimeMillis() + ttlMillis);
+        return found.get();
+    }
+
+    private ResourceNotFoundException notFound(String messageKey) {
+        return new ResourceNotFoundException(
+                messageSource.getMessage(messageKey, null, LocaleContextHolder.getLocale()));
+    }
+
+    private void evict(SlugKind kind, Long id) {
+        slugCache.invalidateIf((key, cachedId) -> key.kind() == kind && cachedId.equals(id));
+    }
+
+    private static String baseSlug(String title, String fallback) {
+        String slug = AppUtils.toSlug(title);
+        if (slug.length() > MAX_BASE_LENGTH) {
+            slug = slug.substring(0, MAX_BASE_LENGTH);
+            while (slug.endsWith("-"))
+                slug = slug.substring(0, slug.length() - 1);
+        }
+        return slug.isEmpty() ? fallback : slug;
+    }
+
+    private static String firstFree(String base, List<String> taken) {
+        Set<String> used = new HashSet<>(taken);
+        if (!used.contains(base))
+            return base;
+        int suffix = 2;
+        while (used.contains(base + "-" + suffix))
+            suffix++;
+        return base + "-" + suffix;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private enum SlugKind {
+        POST, CATEGORY_POST, CATEGORY_COURSE
+    }
+
+    private record SlugKey(SlugKind kind, String slug) {
+    }
+}
@@ -1,12 +1,22 @@
 package elearningspringboot.service.impl;
 
+import elearningspringboot.configuration.BoundedPasswordEncoder;
+import elearningspringboot.dto.response.CacheStatsResponse;
+import elearningspringboot.dto.response.CleanupRunResponse;
 import elearningspringboot.dto.response.DashboardStatisticsResponse;
+import elearningspringboot.dto.response.PasswordEncoderStatsResponse;
 import elearningspringboot.dto.response.RecentTransactionResponse;
 import elearningspringboot.enumeration.Status;
 import elearningspringboot.enumeration.StatusCourse;
 import elearningspringboot.enumeration.TransactionStatus;
 import elearningspringboot.repository.*;
+import elearningspringboot.scheduler.CleanupJob;
+import elearningspringboot.service.CourseService;
+import elearningspringboot.service.PostService;
+import elearningspringboot.service.PrincipalCacheService;
+import elearningspringboot.service.SlugService;
 import elearningspringboot.service.StatisticsService;
+import elearningspringboot.service.WhitelistTokenService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,6 +35,13 @@ public class StatisticsServiceImpl implements StatisticsService {
     private final PostRepository postRepository;
     private final FlashcardSetRepository flashcardSetRepository;
     private final DictationLessonRepository dictationLessonRepository;
+    private final WhitelistTokenService whitelistTokenService;
+    private final PrincipalCacheService principalCacheService;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final PostService postService;
+    private final CourseService courseService;
+    private final SlugService slugService;
+    private final CleanupJob cleanupJob;
 
     @Override
     @Transactional(readOnly = true)
@@ -76,4 +93,33 @@ public class StatisticsServiceImpl implements StatisticsService {
                 .totalDictationLessons(totalDictation)
                 .build();
     }
-}
\ No newline at end of file
+
+    @Override
+    public List<CacheStatsResponse> getCacheStatistics() {
+        return List.of(whitelistTokenService.getCacheStats(),
+                principalCacheService.getCacheStats(),
+                postService.getLatestPostsCacheStats(),
+                courseService.getNewestCacheStats(),
+                courseService.getOutlineCacheStats(),
+                slugService.getCacheStats());
+    }
+
+    @Override
+    public PasswordEncoderStatsResponse getPasswordEncoderStatistics() {
+        return passwordEncoder.stats();
+    }
+
+    @Override
+    public List<CleanupRunResponse> getCleanupRuns() {
+        return cleanupJob.getLastRuns().entrySet().stream()
+                .map(entry -> CleanupRunResponse.builder()
+                        .job(entry.getKey())
+                        .rowsDeleted(entry.getValue().rowsDeleted())
+                        .batches(entry.getValue().batches())
+                        .durationMillis(entry.getValue().durationMillis())
+                        .lockWaits(entry.getValue().lockWaits())
+                        .finishedAt(entry.getValue().finishedAt())
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,154 @@
+package elearningspringboot.service.impl;
+
+import elearningspringboot.dto.response.TagResponse;
+import elearningspringboot.entity.Tag;
+import elearningspringboot.enumeration.StatusPost;
+import elearningspringboot.repository.PostTagRepository;
+import elearningspringboot.repository.PostTagRepository.PostTagEntry;
+import elearningspringboot.repository.TagRepository;
+import elearningspringboot.service.TagService;
+import elearningspringboot.util.TagUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps post_tags in step with Post.tags. Each row carries whether its post is
+ * PUBLIC, and tags.post_count is adjusted by the difference between the old
+ * and new rows, so listing and ranking tags never count or scan posts.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class TagServiceImpl implements TagService {
+
+    private static final int MAX_TAG_LENGTH = 100;
+
+    private final TagRepository tagRepository;
+    private final PostTagRepository postTagRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void syncPostTags(Long postId, String tags, StatusPost status) {
+        Set<String> names = TagUtils.parsePipe(tags).stream()
+                .filter(name -> name.length() <= MAX_TAG_LENGTH)
+                .collect(Collectors.toSet());
+        boolean publicPost = status == StatusPost.PUBLIC;
+
+        List<Long> removed = new ArrayList<>();
+        List<Long> flipped = new ArrayList<>();
+        List<Long> increments = new ArrayList<>();
+        List<Long> decrements = new ArrayList<>();
+        for (PostTagEntry entry : postTagRepository.findEntriesByPostId(postId)) {
+            boolean wasPublic = Boolean.TRUE.equals(entry.getPublicPost());
+            if (!names.remove(entry.getTagName())) {
+                removed.add(entry.getId());
+                if (wasPublic)
+                    decrements.add(entry.getTagId());
+            } else if (wasPublic != publicPost) {
+                flipped.add(entry.getId());
+                (publicPost ? increments : decrements).add(entry.getTagId());
+            }
+        }
+
+        if (!removed.isEmpty())
+            postTagRepository.deleteByIdIn(removed);
+        if (!flipped.isEmpty())
+            postTagRepository.updatePublicPost(flipped, publicPost);
+        // What is left in names are tags the post did not have yet.
+        if (!names.isEmpty()) {
+            Collection<Long> tagIds = ensureTags(names).values();
+            insertPostTags(postId, tagIds, publicPost);
+            if (publicPost)
+                increments.addAll(tagIds);
+        }
+        adjustCounts(increments, 1);
+        adjustCounts(decrements, -1);
+    }
+
+    @Override
+    public void removePost(Long postId) {
+        List<PostTagEntry> entries = postTagRepository.findEntriesByPostId(postId);
+        if (entries.isEmpty())
+            return;
+        postTagRepository.deleteByIdIn(entries.stream().map(PostTagEntry::getId).toList());
+        adjustCounts(entries.stream()
+                .filter(entry -> Boolean.TRUE.equals(entry.getPublicPost()))
+                .map(PostTagEntry::getTagId)
+                .toList(), -1);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public TaggedPosts findPublicPostIds(String tag, Pageable pageable) {
+        Optional<Tag> found = tag == null ? Optional.empty() : tagRepository.findByName(tag.toLowerCase());
+        if (found.isEmpty() || found.get().getPostCount() <= 0)
+            return new TaggedPosts(List.of(), 0);
+        List<Long> ids = postTagRepository.findPublicPostIdsByTagId(found.get().getId(), pageable);
+        return new TaggedPosts(ids, found.get().getPostCount());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<TagResponse> getTrending(int limit) {
+        return tagRepository.findTrending(PageRequest.of(0, limit)).stream()
+                .map(tag -> TagResponse.builder()
+                        .name(tag.getName())
+                        .postCount(tag.getPostCount())
+                        .build())
+                .toList();
+    }
+
+    // INSERT IGNORE lets two posts introducing the same new tag race safely on uk_tags_name.
+    private Map<String, Long> ensureTags(Set<String> names) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object> args = new ArrayList<>(names.size() * 3);
+        for (String name : names) {
+            args.add(name);
+            args.add(now);
+            args.add(now);
+        }
+        String values = String.join(",", Collections.nCopies(names.size(), "(?, 0, ?, ?)"));
+        jdbcTemplate.update("INSERT IGNORE INTO tags (name, post_count, created_at, updated_at) VALUES " + values,
+                args.toArray());
+        return tagRepository.findByNameIn(names).stream()
+                .collect(Collectors.toMap(Tag::getName, Tag::getId, (a, b) -> a));
+    }
+
+    // Same reasoning as the whitelist inserts: IDENTITY ids rule out JDBC batching.
+    private void insertPostTags(Long postId, Collection<Long> tagIds, boolean publicPost) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object> args = new ArrayList<>(tagIds.size() * 5);
+        for (Long tagId : tagIds) {
+            args.add(postId);
+            args.add(tagId);
+            args.add(publicPost);
+            args.add(now);
+            args.add(now);
+        }
+        String values = String.join(",", Collections.nCopies(tagIds.size(), "(?, ?, ?, ?, ?)"));
+        jdbcTemplate.update("INSERT INTO post_tags (post_id, tag_id, is_public, created_at, updated_at) VALUES "
+                + values, args.toArray());
+    }
+
+    // Sorted so concurrent updates lock tag rows in the same order.
+    private void adjustCounts(List<Long> tagIds, int delta) {
+        if (tagIds.isEmpty())
+            return;
+        tagRepository.adjustPostCount(tagIds.stream().sorted().distinct().toList(), delta);
+    }
+}
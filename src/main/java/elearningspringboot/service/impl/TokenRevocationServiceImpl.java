@@ -0,0 +1,84 @@
+package elearningspringboot.service.impl;
+
+import elearningspringboot.service.TokenRevocationService;
+import elearningspringboot.util.BloomFilter;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory revocation list for stateless access tokens, keyed by jti. An entry
+ * lives only until the token it revokes would have expired anyway. Lookups hit
+ * the Bloom filter first, so the common "not revoked" answer never touches the
+ * map. "Sign out everywhere" and password resets cannot list the jtis they
+ * end, so they record a per-user watermark instead: any access token for that
+ * subject issued at or before it is revoked. A watermark is kept for one
+ * access-token lifetime, after which every token it covers has expired.
+ * Revocations are local to this instance.
+ */
+@Service
+@Slf4j
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final ConcurrentHashMap<String, Long> revoked = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> revokedBefore = new ConcurrentHashMap<>();
+    private final int expectedInsertions;
+    private final long accessTokenTtlMillis;
+    private volatile BloomFilter bloomFilter;
+
+    public TokenRevocationServiceImpl(@Value("${jwt.revocation.expected-insertions:100000}") int expectedInsertions,
+            @Value("${jwt.expiry-hour}") long expiryHour) {
+        this.expectedInsertions = expectedInsertions;
+        this.accessTokenTtlMillis = 1000L * 60 * 60 * expiryHour;
+        this.bloomFilter = new BloomFilter(expectedInsertions, FALSE_POSITIVE_RATE);
+    }
+
+    @Override
+    public synchronized void revoke(String jti, Date expiration) {
+        if (jti == null || expiration == null || expiration.getTime() <= System.currentTimeMillis())
+            return;
+        revoked.put(jti, expiration.getTime());
+        bloomFilter.put(jti);
+    }
+
+    // iat has whole-second precision, so a token issued in the same second as
+    // the watermark counts as revoked.
+    @Override
+    public void revokeAllIssuedBefore(String subject, Date issuedBefore) {
+        if (subject == null || issuedBefore == null)
+            return;
+        long watermark = issuedBefore.getTime() / 1000 * 1000;
+        revokedBefore.merge(subject, watermark, Math::max);
+    }
+
+    @Override
+    public boolean isRevoked(Claims claims) {
+        String jti = claims.getId();
+        if (jti != null && bloomFilter.mightContain(jti) && revoked.containsKey(jti))
+            return true;
+        Long watermark = claims.getSubject() == null ? null : revokedBefore.get(claims.getSubject());
+        Date issuedAt = claims.getIssuedAt();
+        return watermark != null && (issuedAt == null || issuedAt.getTime() <= watermark);
+    }
+
+    @Scheduled(fixedDelay = 1000 * 60 * 5)
+    public synchronized void purgeExpired() {
+        long now = System.currentTimeMillis();
+        int before = revoked.size();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedBefore.values().removeIf(watermark -> watermark + accessTokenTtlMillis <= now);
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedInsertions, revoked.size() * 2), FALSE_POSITIVE_RATE);
+        revoked.keySet().forEach(rebuilt::put);
+        bloomFilter = rebuilt;
+        if (before != revoked.size()) {
+            log.debug("Purged {} expired revocations, {} remaining", before - revoked.size(), revoked.size());
+        }
+    }
+}
@@ -6,14 +6,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
     private final MessageSource messageSource;
@@ -28,4 +30,18 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                     return new UsernameNotFoundException(message);
                 });
     }
+
+    // Called by DaoAuthenticationProvider after a successful login whose stored
+    // hash was made with an older BCrypt cost.
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        return userRepository.findByEmail(user.getUsername())
+                .map(u -> {
+                    u.setPassword(newPassword);
+                    log.info("Rehashed password for user {}", u.getEmail());
+                    return (UserDetails) userRepository.save(u);
+                })
+                .orElse(user);
+    }
 }
@@ -17,6 +17,7 @@ import elearningspringboot.mapper.UserMapper;
 import elearningspringboot.repository.UserRepository;
 import elearningspringboot.service.*;
 import elearningspringboot.util.AppUtils;
+import io.jsonwebtoken.Claims;
 import jakarta.mail.MessagingException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -30,6 +31,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.UnsupportedEncodingException;
+import java.util.Date;
 import java.util.List;
 
 @Slf4j
@@ -47,6 +49,8 @@ public class UserServiceImpl implements UserService {
     private final MailService mailService;
     private final JwtService jwtService;
     private final WhitelistTokenService whitelistTokenService;
+    private final PrincipalCacheService principalCacheService;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     public UserResponse createUser(MultipartFile avatar, AdminUserRequest request) {
@@ -166,6 +170,7 @@ public class UserServiceImpl implements UserService {
         log.info("Updating user with ID: {}", id);
 
         User user = findUserById(id);
+        String previousEmail = user.getEmail();
         if (!user.getEmail().equals(request.getEmail()) && userRepository.existsByEmail(request.getEmail())) {
             log.error("Cannot update user ID {}. Email '{}' already exists", id, request.getEmail());
             String message = messageSource.getMessage("user.email.exists.with.email",
@@ -192,6 +197,8 @@ public class UserServiceImpl implements UserService {
         }
 
         userRepository.save(user);
+        principalCacheService.evict(previousEmail);
+        principalCacheService.evict(user.getEmail());
         log.info("User updated successfully with ID: {}", user.getId());
         UserResponse userResponse = userMapper.toDTO(user);
         userResponse.setRole(user.getRole().getRole());
@@ -256,19 +263,21 @@ public class UserServiceImpl implements UserService {
         }
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         userRepository.save(user);
+        principalCacheService.evict(user.getEmail());
     }
 
     @Override
     public void verifyEmail(String token) {
-        String email = jwtService.extractEmail(token, TokenType.CONFIRM_TOKEN);
-        User user = findUserByEmail(email);
+        Claims claims = jwtService.extractAllClaims(token, TokenType.CONFIRM_TOKEN);
+        User user = findUserByEmail(claims.getSubject());
         if (!user.getStatus().equals(Status.PENDING)
-                || !jwtService.isTokenValid(token, user, TokenType.CONFIRM_TOKEN)) {
+                || !jwtService.isTokenValid(claims, user, TokenType.CONFIRM_TOKEN)) {
             String message = messageSource.getMessage("user.verifyEmail.failed", null, LocaleContextHolder.getLocale());
             throw new ResourceConflictException(message);
         }
         user.setStatus(Status.ACTIVE);
         userRepository.save(user);
+        principalCacheService.evict(user.getEmail());
     }
 
     @Override
@@ -286,15 +295,18 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public void resetPassword(String token, ResetPasswordRequest request) {
-        String email = jwtService.extractEmail(token, TokenType.RESET_TOKEN);
-        User user = findUserByEmail(email);
-        if (!jwtService.isTokenValid(token, user, TokenType.RESET_TOKEN)
+        Claims claims = jwtService.extractAllClaims(token, TokenType.RESET_TOKEN);
+        User user = findUserByEmail(claims.getSubject());
+        if (!jwtService.isTokenValid(claims, user, TokenType.RESET_TOKEN)
                 || !whitelistTokenService.existsByToken(token)) {
             throw new InvalidTokenException();
         }
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
-        whitelistTokenService.deleteByToken(token);
+        // Ends every session along with the reset link, and in STATELESS mode the access tokens already issued.
+        whitelistTokenService.deleteAllByEmail(user.getEmail());
+        tokenRevocationService.revokeAllIssuedBefore(user.getEmail(), new Date());
         userRepository.save(user);
+        principalCacheService.evict(user.getEmail());
     }
 
     @Override
@@ -303,6 +315,7 @@ public class UserServiceImpl implements UserService {
 
         User user = findUserById(id);
         userRepository.delete(user);
+        principalCacheService.evict(user.getEmail());
 
         log.info("User deleted successfully with ID: {}", id);
     }
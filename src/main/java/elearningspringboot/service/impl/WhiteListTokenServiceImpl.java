@@ -1,49 +1,224 @@
 package elearningspringboot.service.impl;
 
+import elearningspringboot.dto.response.CacheStatsResponse;
 import elearningspringboot.entity.WhitelistToken;
 import elearningspringboot.enumeration.TokenType;
 import elearningspringboot.repository.WhitelistTokenRepository;
+import elearningspringboot.repository.WhitelistTokenRepository.TokenEntry;
 import elearningspringboot.service.WhitelistTokenService;
 import elearningspringboot.service.JwtService;
-import lombok.RequiredArgsConstructor;
+import elearningspringboot.service.JwtService.IssuedToken;
+import elearningspringboot.util.ExpiringCache;
+import elearningspringboot.util.TokenHashUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
-@RequiredArgsConstructor
 @Transactional
+@Slf4j
 public class WhiteListTokenServiceImpl implements WhitelistTokenService {
 
     private final WhitelistTokenRepository whitelistTokenRepository;
     private final JwtService jwtService;
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxSessionsPerUser;
+
+    // Only positive lookups are cached. maxTtlMillis caps how long a sign-out
+    // on another instance can go unnoticed here.
+    private final ExpiringCache<String, CachedToken> tokenCache;
+    private final long maxTtlMillis;
+    // Bumped on every invalidation. A lookup that read the row before a
+    // revocation committed must not cache it afterwards.
+    private final AtomicLong version = new AtomicLong();
+
+    public WhiteListTokenServiceImpl(WhitelistTokenRepository whitelistTokenRepository,
+            JwtService jwtService,
+            JdbcTemplate jdbcTemplate,
+            @Value("${whitelist.max-sessions-per-user:5}") int maxSessionsPerUser,
+            @Value("${whitelist.cache.max-size:100000}") int maxSize,
+            @Value("${whitelist.cache.max-ttl-seconds:300}") long maxTtlSeconds) {
+        this.whitelistTokenRepository = whitelistTokenRepository;
+        this.jwtService = jwtService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxSessionsPerUser = maxSessionsPerUser;
+        this.tokenCache = new ExpiringCache<>(maxSize);
+        this.maxTtlMillis = maxTtlSeconds * 1000;
+    }
 
     @Override
     public void createToken(String token, TokenType tokenType, String email) {
-        Date expiredTime = jwtService.extractExpiration(token, tokenType);
-        LocalDateTime localDateTime = expiredTime.toInstant()
-                .atZone(ZoneId.systemDefault())
-                .toLocalDateTime();
+        LocalDateTime localDateTime = toLocalDateTime(jwtService.extractExpiration(token, tokenType));
 
         WhitelistToken whitelistToken = WhitelistToken.builder()
-                .token(token)
+                .tokenHash(TokenHashUtils.sha256(token))
                 .email(email)
                 .expiredTime(localDateTime)
                 .tokenType(tokenType)
                 .build();
         whitelistTokenRepository.save(whitelistToken);
+        cacheAfterCommit(token, new CachedToken(email, null, tokenType), localDateTime);
+    }
+
+    @Override
+    public void createSession(String sessionId, List<IssuedToken> tokens, String email) {
+        if (maxSessionsPerUser > 0) {
+            List<String> sessionIds = whitelistTokenRepository.findActiveSessionIds(email, TokenType.REFRESH_TOKEN,
+                    LocalDateTime.now());
+            if (sessionIds.size() >= maxSessionsPerUser) {
+                List<String> evicted = sessionIds.subList(maxSessionsPerUser - 1, sessionIds.size());
+                log.info("User {} has {} active sessions, evicting the {} oldest", email, sessionIds.size(),
+                        evicted.size());
+                deleteSessions(email, evicted);
+            }
+        }
+        insertTokens(sessionId, tokens, email);
+    }
+
+    @Override
+    public void rotateAccessToken(String sessionId, IssuedToken accessToken, String email) {
+        whitelistTokenRepository.deleteByEmailAndSessionIdAndTokenType(email, sessionId, TokenType.ACCESS_TOKEN);
+        // The replacement is cached after commit, before the second pass, so it is spared explicitly.
+        invalidate(() -> tokenCache.invalidateIf((token, cached) -> cached.tokenType() == TokenType.ACCESS_TOKEN
+                && email.equals(cached.email()) && sessionId.equals(cached.sessionId())
+                && !token.equals(accessToken.token())));
+        insertTokens(sessionId, List.of(accessToken), email);
     }
 
     @Override
     public void deleteByToken(String token) {
-        whitelistTokenRepository.deleteByToken(token);
+        whitelistTokenRepository.deleteByTokenHash(TokenHashUtils.sha256(token));
+        invalidate(() -> tokenCache.invalidate(token));
+    }
+
+    @Override
+    public int deleteAllByEmail(String email) {
+        int deleted = whitelistTokenRepository.deleteByEmail(email);
+        invalidate(() -> tokenCache.invalidateIf((token, cached) -> email.equals(cached.email())));
+        return deleted;
     }
 
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean existsByToken(String token) {
-        return whitelistTokenRepository.existsByToken(token);
+        if (tokenCache.get(token) != null) {
+            return true;
+        }
+        long loadedAt = version.get();
+        Optional<TokenEntry> entry = whitelistTokenRepository.findEntryByTokenHash(TokenHashUtils.sha256(token));
+        if (entry.isEmpty()) {
+            return false;
+        }
+        TokenEntry found = entry.get();
+        cacheIfUnchanged(loadedAt, token, new CachedToken(found.getEmail(), found.getSessionId(), found.getTokenType()),
+                found.getExpiredTime());
+        return true;
+    }
+
+    @Override
+    public CacheStatsResponse getCacheStats() {
+        return tokenCache.stats("whitelistToken");
+    }
+
+    private void deleteSessions(String email, List<String> sessionIds) {
+        whitelistTokenRepository.deleteByEmailAndSessionIdIn(email, sessionIds);
+        Set<String> evicted = new HashSet<>(sessionIds);
+        invalidate(() -> tokenCache.invalidateIf((token, cached) -> email.equals(cached.email())
+                && evicted.contains(cached.sessionId())));
+    }
+
+    // BaseEntity ids are IDENTITY, which turns off Hibernate's JDBC batching,
+    // so the rows go out as one multi-row INSERT instead of saveAll.
+    private void insertTokens(String sessionId, List<IssuedToken> tokens, String email) {
+        if (tokens.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Object> args = new ArrayList<>(tokens.size() * 7);
+        for (IssuedToken token : tokens) {
+            args.add(email);
+            args.add(TokenHashUtils.sha256(token.token()));
+            args.add(sessionId);
+            args.add(token.tokenType().name());
+            args.add(toLocalDateTime(token.expiration()));
+            args.add(now);
+            args.add(now);
+        }
+        String values = String.join(",", Collections.nCopies(tokens.size(), "(?, ?, ?, ?, ?, ?, ?)"));
+        jdbcTemplate.update("INSERT INTO whitelist_token (email, token_hash, session_id, token_type, expired_time, "
+                + "created_at, updated_at) VALUES " + values, args.toArray());
+        for (IssuedToken token : tokens) {
+            cacheAfterCommit(token.token(), new CachedToken(email, sessionId, token.tokenType()),
+                    toLocalDateTime(token.expiration()));
+        }
+    }
+
+    private LocalDateTime toLocalDateTime(Date date) {
+        return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
+    }
+
+    // Invalidates now and again once the surrounding transaction ends, so a
+    // lookup that read the row before the DELETE committed cannot leave it cached.
+    private void invalidate(Runnable invalidation) {
+        version.incrementAndGet();
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    version.incrementAndGet();
+                    invalidation.run();
+                }
+            });
+        }
+    }
+
+    // New tokens are only cached once their rows are committed; a rollback leaves nothing behind.
+    private void cacheAfterCommit(String token, CachedToken cached, LocalDateTime expiredTime) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cacheToken(token, cached, expiredTime);
+                }
+            });
+        } else {
+            cacheToken(token, cached, expiredTime);
+        }
+    }
+
+    private void cacheIfUnchanged(long loadedAt, String token, CachedToken cached, LocalDateTime expiredTime) {
+        if (version.get() != loadedAt)
+            return;
+        cacheToken(token, cached, expiredTime);
+        if (version.get() != loadedAt)
+            tokenCache.invalidate(token);
+    }
+
+    private void cacheToken(String token, CachedToken cached, LocalDateTime expiredTime) {
+        long expiresAt = expiredTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        tokenCache.put(token, cached, Math.min(expiresAt, System.currentTimeMillis() + maxTtlMillis));
+    }
+
+    // Kept with each cached token so per-user and per-session revocations can
+    // drop the matching entries without knowing the raw tokens.
+    private record CachedToken(String email, String sessionId, TokenType tokenType) {
     }
 
 }
@@ -2,8 +2,7 @@ package elearningspringboot.util;
 
 import elearningspringboot.entity.Chapter;
 import elearningspringboot.entity.Course;
-import org.jsoup.Jsoup;
-import elearningspringboot.entity.User;
+import elearningspringboot.configuration.AuthenticatedUser;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -17,31 +16,33 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class AppUtils {
+    // Single pass over the code points: letters, digits and '_' are kept,
+    // whitespace and '-' runs become one '-', separators at either end are
+    // dropped and everything else is removed.
     public static String toSlug(String input) {
         if (input == null || input.isEmpty())
             return "";
-        String slug = input.trim();
-        slug = slug.replaceAll("\\s+", "-");
-        slug = slug.replaceAll("[^\\p{L}\\p{Nd}-_]", "");
-        slug = slug.replaceAll("-{2,}", "-");
-        slug = slug.replaceAll("^-|-$", "");
-        return slug.toLowerCase();
+        StringBuilder slug = new StringBuilder(input.length());
+        boolean pendingDash = false;
+        for (int i = 0; i < input.length();) {
+            int c = input.codePointAt(i);
+            i += Character.charCount(c);
+            if (c == '-' || c == ' ' || (c >= '\t' && c <= '\r')) {
+                pendingDash = true;
+            } else if (c == '_' || Character.isLetter(c) || Character.getType(c) == Character.DECIMAL_DIGIT_NUMBER) {
+                if (pendingDash && !slug.isEmpty())
+                    slug.append('-');
+                pendingDash = false;
+                slug.appendCodePoint(c);
+            }
+        }
+        return slug.toString().toLowerCase();
     }
 
     public static boolean isValidSortParam(String input) {
         return input.matches("^[a-zA-Z][a-zA-Z0-9_]*:(asc|desc)$");
     }
 
-    public static int countWords(String html) {
-        if (html == null || html.isBlank())
-            return 0;
-        String text = Jsoup.parse(html).text();
-        if (text.isBlank())
-            return 0;
-        String[] parts = text.trim().split("\\s+");
-        return parts.length;
-    }
-
     public static Pageable generatePageableWithSort(List<String> sorts, List<String> whileListFieldSorts,
             int pageNumber, int pageSize) {
         Pageable pageable;
@@ -72,7 +73,7 @@ public class AppUtils {
     public static Long getUserIdFromSecurityContext() {
         SecurityContext securityContext = SecurityContextHolder.getContext();
         Authentication authentication = securityContext.getAuthentication();
-        User user = (User) authentication.getPrincipal();
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
         return user.getId();
     }
 
@@ -1,68 +1,298 @@
 package elearningspringboot.util;
 
-import lombok.RequiredArgsConstructor;
+import elearningspringboot.enumeration.ErrorCode;
+import elearningspringboot.exception.AppException;
+import elearningspringboot.exception.ServiceBusyException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.safety.Cleaner;
+import org.jsoup.safety.Safelist;
 import org.jsoup.select.Elements;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+import java.util.ArrayList;
 import java.util.Base64;
 import elearningspringboot.service.StorageService; // Đổi sang interface mới
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component; // Thêm @Component
 
+import java.net.URI;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import net.coobird.thumbnailator.Thumbnails;
 
 @Component // Biến nó thành một Spring Bean
-@RequiredArgsConstructor
+@Slf4j
 public class HtmlImageProcessor {
 
+    private static final int WORDS_PER_MINUTE = 200;
+    private static final int EXCERPT_LENGTH = 200;
+    // Relaxed formatting tags plus what the Quill editor writes: ql-* classes,
+    // inline colours and alignment, link targets and video embeds. Scripts,
+    // svg/math, event handlers and any URL that is not http(s), mailto or ftp
+    // still go. Relative and fragment links are kept as written; BASE_URI only
+    // lets the protocol check resolve them.
+    private static final String BASE_URI = "https://localhost/";
+    private static final Cleaner CLEANER = new Cleaner(Safelist.relaxed()
+            .addTags("s", "iframe")
+            .addAttributes(":all", "class", "style")
+            .addAttributes("a", "target", "rel")
+            .addAttributes("li", "data-list")
+            .addAttributes("img", "loading")
+            .addAttributes("iframe", "src", "frameborder", "allowfullscreen", "width", "height")
+            .addProtocols("iframe", "src", "https")
+            .preserveRelativeLinks(true));
+    // CSS the editor sets inline; anything else in a style attribute is dropped.
+    private static final Set<String> STYLE_PROPERTIES = Set.of("color", "background-color", "text-align");
+    private static final Pattern STYLE_VALUE = Pattern.compile("[#a-zA-Z0-9(),.%\\s-]+");
+    private static final Set<String> EMBED_HOSTS = Set.of("www.youtube.com", "youtube.com",
+            "www.youtube-nocookie.com", "player.vimeo.com");
+
     // Tiêm (inject) qua hàm khởi tạo (constructor)
     private final StorageService storageService;
+    private final ThreadPoolExecutor uploadExecutor;
+    private final long timeBudgetMillis;
+
+    public HtmlImageProcessor(StorageService storageService,
+            @Value("${image-upload.threads:4}") int threads,
+            @Value("${image-upload.queue-capacity:64}") int queueCapacity,
+            @Value("${image-upload.time-budget-seconds:60}") long timeBudgetSeconds) {
+        this.storageService = storageService;
+        this.timeBudgetMillis = timeBudgetSeconds * 1000;
+        AtomicInteger threadCount = new AtomicInteger();
+        // When the queue is full the post is rejected with a 503 rather than
+        // uploading on the request thread outside the time budget.
+        this.uploadExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "image-upload-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        uploadExecutor.shutdownNow();
+    }
 
     public String process(String html) {
         if (html == null || html.isBlank())
             return html;
         Document doc = Jsoup.parseBodyFragment(html);
-        Elements imgs = doc.select("img");
-        for (Element img : imgs) {
+        uploadInlineImages(doc);
+        return doc.body().html();
+    }
+
+    /**
+     * Parses the HTML once, uploads inline images, cleans the result against
+     * the safelist, then derives everything else a post stores in a single
+     * walk: its plain text, hashtags, word count, reading time and a plain-text
+     * excerpt. Images are uploaded first because the safelist drops data: URLs.
+     */
+    public ProcessedContent processContent(String html) {
+        if (html == null || html.isBlank())
+            return new ProcessedContent(html, "", "", 0, 1, "");
+        Document doc = Jsoup.parseBodyFragment(html, BASE_URI);
+        uploadInlineImages(doc);
+        Document clean = CLEANER.clean(doc);
+        restrictStylesAndEmbeds(clean.body());
+        TextCollector collector = new TextCollector();
+        NodeTraversor.traverse(collector, clean.body());
+        String text = collector.text.toString();
+        return new ProcessedContent(clean.body().html(), text, TagUtils.extractTagsAsPipe(text), collector.words,
+                Math.max(1, collector.words / WORDS_PER_MINUTE), excerpt(text));
+    }
+
+    /**
+     * Uploads every data: image on the shared pool. Identical images (same
+     * bytes and type) are uploaded once and all their tags get the same URL.
+     * All uploads of one document must finish within the time budget.
+     */
+    private void uploadInlineImages(Document doc) {
+        Map<String, InlineImage> images = new LinkedHashMap<>();
+        for (Element img : doc.select("img")) {
             String src = img.attr("src");
             if (src != null && src.startsWith("data:")) {
                 int comma = src.indexOf(',');
                 if (comma > 0) {
                     String meta = src.substring(5, comma);
-                    String base64 = src.substring(comma + 1);
-                    byte[] data = Base64.getDecoder().decode(base64);
+                    byte[] data = Base64.getDecoder().decode(src.substring(comma + 1));
                     String ext = "png";
                     if (meta.contains("image/")) {
                         ext = meta.substring(meta.indexOf("image/") + 6);
                         if (ext.contains(";"))
                             ext = ext.substring(0, ext.indexOf(';'));
                     }
-                    byte[] uploadBytes = data;
-                    try {
-                        ByteArrayInputStream in = new ByteArrayInputStream(data);
-                        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                        Thumbnails.of(in)
-                                .size(900, 900)
-                                .outputFormat(ext.equalsIgnoreCase("png") ? "png" : "jpg")
-                                .outputQuality(0.80)
-                                .toOutputStream(baos);
-                        uploadBytes = baos.toByteArray();
-                    } catch (Exception e) {
-                        uploadBytes = data;
-                    }
+                    String key = HexFormat.of().formatHex(TokenHashUtils.sha256(data)) + "." + ext;
+                    String imageExt = ext;
+                    images.computeIfAbsent(key, k -> new InlineImage(data, imageExt, new ArrayList<>()))
+                            .elements().add(img);
+                }
+            }
+        }
+        if (images.isEmpty())
+            return;
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis);
+        Map<InlineImage, Future<String>> uploads = new LinkedHashMap<>();
+        try {
+            for (InlineImage image : images.values()) {
+                uploads.put(image, uploadExecutor.submit(() -> upload(image.data(), image.ext())));
+            }
+            for (Map.Entry<InlineImage, Future<String>> upload : uploads.entrySet()) {
+                String url = upload.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                upload.getKey().elements().forEach(img -> img.attr("src", url));
+            }
+        } catch (RejectedExecutionException e) {
+            log.warn("Image upload queue is full ({} pending), rejecting a post with {} inline images",
+                    uploadExecutor.getQueue().size(), images.size());
+            throw new ServiceBusyException("Image upload queue is full", e);
+        } catch (TimeoutException e) {
+            log.warn("Uploading {} inline images exceeded the {} ms budget", images.size(), timeBudgetMillis);
+            throw new AppException(ErrorCode.UPLOAD_FILE_FAILED);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AppException(ErrorCode.UPLOAD_FILE_FAILED);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException)
+                throw runtimeException;
+            throw new AppException(ErrorCode.UPLOAD_FILE_FAILED);
+        } finally {
+            uploads.values().forEach(future -> future.cancel(true));
+        }
+    }
 
-                    String filename = UUID.randomUUID().toString() + "." + ext;
+    // The safelist checks attribute names and URL protocols only, so style
+    // declarations and iframe hosts are narrowed here.
+    private static void restrictStylesAndEmbeds(Element body) {
+        for (Element element : body.select("[style]")) {
+            StringBuilder kept = new StringBuilder();
+            for (String declaration : element.attr("style").split(";")) {
+                int colon = declaration.indexOf(':');
+                if (colon < 0)
+                    continue;
+                String property = declaration.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+                String value = declaration.substring(colon + 1).trim();
+                if (STYLE_PROPERTIES.contains(property) && STYLE_VALUE.matcher(value).matches())
+                    kept.append(kept.isEmpty() ? "" : " ").append(property).append(": ").append(value).append(';');
+            }
+            if (kept.isEmpty())
+                element.removeAttr("style");
+            else
+                element.attr("style", kept.toString());
+        }
+        for (Element iframe : body.select("iframe")) {
+            if (!EMBED_HOSTS.contains(hostOf(iframe.attr("src"))))
+                iframe.remove();
+        }
+    }
 
-                    // Gọi hàm uploadBytes của service
-                    String url = storageService.uploadBytes(uploadBytes, filename, "image/" + ext);
-                    img.attr("src", url);
+    private static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host == null ? "" : host.toLowerCase(Locale.ROOT);
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+
+    private String upload(byte[] data, String ext) {
+        byte[] uploadBytes = data;
+        try {
+            ByteArrayInputStream in = new ByteArrayInputStream(data);
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            Thumbnails.of(in)
+                    .size(900, 900)
+                    .outputFormat(ext.equalsIgnoreCase("png") ? "png" : "jpg")
+                    .outputQuality(0.80)
+                    .toOutputStream(baos);
+            uploadBytes = baos.toByteArray();
+        } catch (Exception e) {
+            uploadBytes = data;
+        }
+
+        String filename = UUID.randomUUID().toString() + "." + ext;
+
+        // Gọi hàm uploadBytes của service
+        return storageService.uploadBytes(uploadBytes, filename, "image/" + ext);
+    }
+
+    private static String excerpt(String text) {
+        if (text.length() <= EXCERPT_LENGTH)
+            return text;
+        int cut = text.lastIndexOf(' ', EXCERPT_LENGTH);
+        return text.substring(0, cut > 0 ? cut : EXCERPT_LENGTH) + "...";
+    }
+
+    private record InlineImage(byte[] data, String ext, List<Element> elements) {
+    }
+
+    public record ProcessedContent(String html, String text, String tags, int wordCount, int readingTimeMinutes,
+            String excerpt) {
+    }
+
+    // Collects text the way Element.text() does: whitespace collapsed, block
+    // boundaries as spaces.
+    private static final class TextCollector implements NodeVisitor {
+        private final StringBuilder text = new StringBuilder();
+        private int words;
+        private boolean pendingSpace;
+
+        @Override
+        public void head(Node node, int depth) {
+            if (node instanceof Element element) {
+                if (element.isBlock() || "br".equals(element.normalName()))
+                    pendingSpace = true;
+            } else if (node instanceof TextNode textNode) {
+                append(textNode.getWholeText());
+            }
+        }
+
+        @Override
+        public void tail(Node node, int depth) {
+            if (node instanceof Element element && element.isBlock())
+                pendingSpace = true;
+        }
+
+        private void append(String s) {
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (Character.isWhitespace(c) || c == '\u00a0') {
+                    pendingSpace = true;
+                    continue;
                 }
+                if (text.isEmpty() || pendingSpace) {
+                    if (!text.isEmpty())
+                        text.append(' ');
+                    words++;
+                    pendingSpace = false;
+                }
+                text.append(c);
             }
         }
-        return doc.body().html();
     }
 }
 
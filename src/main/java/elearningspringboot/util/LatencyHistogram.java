@@ -0,0 +1,68 @@
+package elearningspringboot.util;
+
+import elearningspringboot.dto.response.LatencyHistogramResponse;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with fixed buckets from 10us to 2.5s. Each
+ * bucket counts samples less than or equal to its bound; the last one is
+ * unbounded.
+ */
+public class LatencyHistogram {
+
+    private static final long[] BOUNDS_MICROS = {
+            10, 25, 50, 100, 250, 500,
+            1_000, 2_500, 5_000, 10_000, 25_000, 50_000,
+            100_000, 250_000, 500_000, 1_000_000, 2_500_000 };
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_MICROS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        long micros = nanos / 1_000;
+        int i = 0;
+        while (i < BOUNDS_MICROS.length && micros > BOUNDS_MICROS[i]) {
+            i++;
+        }
+        buckets[i].increment();
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public LatencyHistogramResponse snapshot(String name) {
+        long samples = count.sum();
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < BOUNDS_MICROS.length; i++) {
+            counts.put("<=" + label(BOUNDS_MICROS[i]), buckets[i].sum());
+        }
+        counts.put(">" + label(BOUNDS_MICROS[BOUNDS_MICROS.length - 1]), buckets[BOUNDS_MICROS.length].sum());
+        return LatencyHistogramResponse.builder()
+                .name(name)
+                .count(samples)
+                .meanMillis(samples == 0 ? 0.0 : totalNanos.sum() / 1_000_000.0 / samples)
+                .maxMillis(maxNanos.get() / 1_000_000.0)
+                .buckets(counts)
+                .build();
+    }
+
+    private static String label(long micros) {
+        if (micros < 1_000)
+            return micros + "us";
+        if (micros % 1_000 == 0)
+            return micros / 1_000 + "ms";
+        return micros / 1_000.0 + "ms";
+    }
+}
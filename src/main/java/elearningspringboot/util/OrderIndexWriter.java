@@ -0,0 +1,119 @@
+package elearningspringboot.util;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes order_index for the rows of one parent (the lessons of a chapter, the
+ * chapters of a course) in a single CASE update. New and renumbered rows are
+ * ORDER_GAP apart, so moving one row between two others normally rewrites
+ * only that row; when its new neighbours have no room left between them the
+ * whole parent is renumbered with fresh gaps, still in one statement.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderIndexWriter {
+
+    public static final int ORDER_GAP = 1024;
+
+    public static final Target LESSONS = new Target("lessons", "chapter_id");
+    public static final Target CHAPTERS = new Target("chapters", "course_id");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Set<Long> childIds(Target target, Long parentId) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM " + target.table() + " WHERE " + target.parentColumn() + " = ?", Long.class,
+                parentId));
+    }
+
+    // Only rows of parentId are touched, whatever ids the map holds.
+    public int write(Target target, Long parentId, Map<Long, Integer> indexes) {
+        if (indexes.isEmpty())
+            return 0;
+        StringBuilder cases = new StringBuilder();
+        List<Object> args = new ArrayList<>(indexes.size() * 3 + 2);
+        indexes.forEach((id, index) -> {
+            cases.append(" WHEN ? THEN ?");
+            args.add(id);
+            args.add(index);
+        });
+        args.add(LocalDateTime.now());
+        args.add(parentId);
+        args.addAll(indexes.keySet());
+        String ids = String.join(",", Collections.nCopies(indexes.size(), "?"));
+        return jdbcTemplate.update("UPDATE " + target.table() + " SET order_index = CASE id" + cases
+                + " END, updated_at = ? WHERE " + target.parentColumn() + " = ? AND id IN (" + ids + ")",
+                args.toArray());
+    }
+
+    /**
+     * Moves a row of the parent right after afterId, or to the front when
+     * afterId is null. The parent's rows are locked for the rest of the
+     * transaction so concurrent moves do not pick the same free index.
+     * Returns false when id or afterId is not a row of the parent.
+     */
+    public boolean move(Target target, Long parentId, Long id, Long afterId) {
+        List<long[]> rows = new ArrayList<>(jdbcTemplate.query("SELECT id, COALESCE(order_index, 0) FROM "
+                + target.table() + " WHERE " + target.parentColumn() + " = ? ORDER BY 2, id FOR UPDATE",
+                (rs, rowNum) -> new long[] { rs.getLong(1), rs.getLong(2) }, parentId));
+        int from = indexOf(rows, id);
+        if (from < 0)
+            return false;
+        long[] moved = rows.remove(from);
+        int to = 0;
+        if (afterId != null) {
+            int after = indexOf(rows, afterId);
+            if (after < 0)
+                return false;
+            to = after + 1;
+        }
+
+        Long previous = to > 0 ? rows.get(to - 1)[1] : null;
+        Long next = to < rows.size() ? rows.get(to)[1] : null;
+        long index;
+        if (previous == null)
+            index = next == null ? ORDER_GAP : next - ORDER_GAP;
+        else
+            index = next == null ? previous + ORDER_GAP : previous + (next - previous) / 2;
+        boolean fits = (previous == null || index > previous) && (next == null || index < next)
+                && index > Integer.MIN_VALUE && index < Integer.MAX_VALUE;
+        if (fits) {
+            if (index != moved[1])
+                write(target, parentId, Map.of(id, (int) index));
+            return true;
+        }
+
+        rows.add(to, moved);
+        Map<Long, Integer> renumbered = new LinkedHashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            renumbered.put(rows.get(i)[0], (i + 1) * ORDER_GAP);
+        }
+        write(target, parentId, renumbered);
+        return true;
+    }
+
+    private static int indexOf(List<long[]> rows, Long id) {
+        if (id == null)
+            return -1;
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i)[0] == id)
+                return i;
+        }
+        return -1;
+    }
+
+    // A table whose rows are ordered within a parent row; names are fixed here, never taken from a request.
+    public record Target(String table, String parentColumn) {
+    }
+}
@@ -0,0 +1,60 @@
+package elearningspringboot.util;
+
+import elearningspringboot.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Position in a newest-first listing ordered by (field desc, id desc). It goes
+ * to clients as an opaque base64url token, and the next page starts strictly
+ * after the row it was taken from, so neither OFFSET nor COUNT is needed.
+ */
+public record PageCursor(String field, LocalDateTime time, Long id) {
+
+    public static final String CREATED_AT = "createdAt";
+    public static final String UPDATED_AT = "updatedAt";
+
+    public static PageCursor of(String field, LocalDateTime time, Long id) {
+        return new PageCursor(field, time, id);
+    }
+
+    // Blank means the first page.
+    public static PageCursor decode(String token, List<String> allowedFields) {
+        if (token == null || token.isBlank())
+            return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3 || !allowedFields.contains(parts[0]))
+                throw new InvalidCursorException("Unknown cursor: " + raw);
+            return new PageCursor(parts[0], LocalDateTime.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Malformed cursor", e);
+        }
+    }
+
+    public String encode() {
+        String raw = field + "|" + time + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Key field for a first page: the first "field:desc" sort naming one of
+     * the allowed fields, otherwise the default. Later pages take the field
+     * from the cursor.
+     */
+    public static String sortField(List<String> sorts, List<String> allowedFields, String defaultField) {
+        if (sorts != null) {
+            for (String sort : sorts) {
+                String[] sortPart = sort.split(":");
+                if (allowedFields.contains(sortPart[0]))
+                    return sortPart[0];
+            }
+        }
+        return defaultField;
+    }
+}
@@ -0,0 +1,47 @@
+package elearningspringboot.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Text folding for search: lower-cases, strips Vietnamese diacritics
+ * ("Tiếng Việt" -> "tieng viet", "đ" -> "d") and splits on anything that is
+ * not a letter or digit, so each syllable becomes one token.
+ */
+public final class SearchTextUtils {
+
+    private SearchTextUtils() {
+    }
+
+    public static String fold(String text) {
+        if (text == null || text.isEmpty())
+            return "";
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK)
+                continue;
+            sb.append(c == 'đ' ? 'd' : c);
+        }
+        return sb.toString();
+    }
+
+    public static List<String> tokenize(String text) {
+        String folded = fold(text);
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
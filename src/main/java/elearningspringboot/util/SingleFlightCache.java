@@ -0,0 +1,138 @@
+package elearningspringboot.util;
+
+import elearningspringboot.dto.response.CacheStatsResponse;
+
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache with a fixed TTL where at most one caller per key runs
+ * the loader; concurrent callers wait for that load instead of starting their
+ * own, and count as hits. invalidate(key) and invalidateAll() also discard
+ * loads that were already running, so a value read before a change never
+ * outlives it. When a bound is given, a full cache drops expired slots first
+ * and then an arbitrary batch of the rest.
+ */
+public class SingleFlightCache<K, V> {
+
+    private final ConcurrentHashMap<K, Slot<V>> slots = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxSize;
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public SingleFlightCache(long ttlMillis) {
+        this(ttlMillis, Integer.MAX_VALUE);
+    }
+
+    public SingleFlightCache(long ttlMillis, int maxSize) {
+        if (maxSize <= 0)
+            throw new IllegalArgumentException("maxSize must be positive");
+        this.ttlMillis = ttlMillis;
+        this.maxSize = maxSize;
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        while (true) {
+            Slot<V> slot = slots.get(key);
+            if (slot != null && !slot.isExpired()) {
+                hits.increment();
+                return join(slot.future);
+            }
+            if (slot == null && slots.size() >= maxSize)
+                makeRoom();
+            Slot<V> fresh = new Slot<>(generation.get());
+            boolean installed = slot == null
+                    ? slots.putIfAbsent(key, fresh) == null
+                    : slots.replace(key, slot, fresh);
+            if (!installed)
+                continue;
+            misses.increment();
+            V value;
+            try {
+                value = loader.get();
+            } catch (RuntimeException e) {
+                slots.remove(key, fresh);
+                fresh.future.completeExceptionally(e);
+                throw e;
+            }
+            fresh.expiresAt = System.currentTimeMillis() + ttlMillis;
+            fresh.future.complete(value);
+            if (fresh.generation != generation.get() || fresh.invalidated)
+                slots.remove(key, fresh);
+            return value;
+        }
+    }
+
+    public void invalidate(K key) {
+        Slot<V> slot = slots.remove(key);
+        if (slot != null)
+            slot.invalidated = true;
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        slots.clear();
+    }
+
+    public CacheStatsResponse stats(String name) {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        return CacheStatsResponse.builder()
+                .name(name)
+                .size(slots.size())
+                .maxSize(maxSize == Integer.MAX_VALUE ? null : maxSize)
+                .hitCount(hitCount)
+                .missCount(missCount)
+                .hitRatio(total == 0 ? 0.0 : (double) hitCount / total)
+                .build();
+    }
+
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        slots.values().removeIf(slot -> slot.expiresAt <= now);
+        if (slots.size() < maxSize)
+            return;
+        int toEvict = Math.max(1, maxSize / 10);
+        Iterator<Slot<V>> it = slots.values().iterator();
+        while (toEvict > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+            toEvict--;
+        }
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException)
+                throw runtimeException;
+            throw e;
+        }
+    }
+
+    private static final class Slot<V> {
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private final long generation;
+        // Stays at MAX_VALUE while loading so waiters join the running load.
+        private volatile long expiresAt = Long.MAX_VALUE;
+        // Set when the key is invalidated mid-load so the result is not kept.
+        private volatile boolean invalidated;
+
+        private Slot(long generation) {
+            this.generation = generation;
+        }
+
+        private boolean isExpired() {
+            return expiresAt <= System.currentTimeMillis();
+        }
+    }
+}
@@ -23,4 +23,16 @@ public class TagUtils {
         }
         return tags.stream().map(s -> "|" + s + "|").collect(Collectors.joining(""));
     }
+
+    // Inverse of extractTagsAsPipe: "|java||spring|" -> [java, spring]
+    public static Set<String> parsePipe(String tags) {
+        Set<String> result = new LinkedHashSet<>();
+        if (tags == null)
+            return result;
+        for (String tag : tags.split("\\|")) {
+            if (!tag.isBlank())
+                result.add(tag.toLowerCase());
+        }
+        return result;
+    }
 }
@@ -0,0 +1,26 @@
+package elearningspringboot.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+public class TokenHashUtils {
+
+    public static final int HASH_LENGTH = 32;
+
+    /**
+     * SHA-256 of the raw token. Matches MySQL's UNHEX(SHA2(token, 256)), which
+     * the whitelist migration uses to backfill existing rows.
+     */
+    public static byte[] sha256(String token) {
+        return sha256(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package elearningspringboot.service.impl;
+
+import elearningspringboot.dto.response.FacetCountResponse;
+import elearningspringboot.enumeration.CatalogSort;
+import elearningspringboot.enumeration.DurationBucket;
+import elearningspringboot.enumeration.PriceBucket;
+import elearningspringboot.enumeration.StatusCourse;
+import elearningspringboot.event.CourseChangedEvent;
+import elearningspringboot.event.EnrollmentChangedEvent;
+import elearningspringboot.repository.CourseRepository;
+import elearningspringboot.repository.CourseRepository.CatalogSource;
+import elearningspringboot.service.CourseCatalogService.CatalogHits;
+import elearningspringboot.service.CourseCatalogService.CatalogQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CourseCatalogServiceImplTest {
+
+    private CourseRepository courseRepository;
+    private CourseCatalogServiceImpl catalogService;
+
+    @BeforeEach
+    void setUp() {
+        courseRepository = mock(CourseRepository.class);
+        catalogService = new CourseCatalogServiceImpl(courseRepository, 500, 3_600_000, 60_000);
+    }
+
+    @Test
+    void selectedFacetStillCountsItsAlternatives() {
+        load(course(1L, "Spring Boot", 10L, 100_000, 4.6, 30, 5),
+                course(2L, "Spring Data", 10L, 300_000, 4.1, 120, 3),
+                course(3L, "Kotlin", 20L, 300_000, 3.2, 400, 9));
+
+        CatalogHits hits = search(query(null, 10L, null, null, CatalogSort.POPULAR, 0));
+
+        assertThat(hits.ids()).containsExactly(1L, 2L);
+        assertThat(counts(hits, "category")).isEqualTo(Map.of("10", 2, "20", 1));
+        // The other facets only see the rows of the selected category.
+        assertThat(counts(hits, "price")).containsEntry(PriceBucket.UNDER_200K.name(), 1)
+                .containsEntry(PriceBucket.FROM_200K_TO_500K.name(), 1);
+        assertThat(counts(hits, "duration")).containsEntry(DurationBucket.FROM_6H_TO_17H.name(), 0);
+    }
+
+    @Test
+    void rowFailingTwoFiltersCountsInNoFacet() {
+        load(course(1L, "Spring Boot", 10L, 100_000, 4.6, 30, 5),
+                course(2L, "Kotlin", 20L, 300_000, 4.1, 120, 3));
+
+        CatalogHits hits = search(query(null, 10L, PriceBucket.UNDER_200K, null, CatalogSort.POPULAR, 0));
+
+        assertThat(hits.ids()).containsExactly(1L);
+        assertThat(counts(hits, "category")).isEqualTo(Map.of("10", 1));
+        assertThat(counts(hits, "price")).containsEntry(PriceBucket.FROM_200K_TO_500K.name(), 0);
+    }
+
+    @Test
+    void ratingFacetCountsEveryThresholdReached() {
+        load(course(1L, "A", 10L, 100_000, 4.6, 30, 0),
+                course(2L, "B", 10L, 100_000, 3.7, 30, 0),
+                course(3L, "C", 10L, 100_000, 2.0, 30, 0));
+
+        CatalogHits hits = search(query(null, null, null, 4.0, CatalogSort.POPULAR, 0));
+
+        assertThat(hits.ids()).containsExactly(1L);
+        assertThat(counts(hits, "rating")).isEqualTo(Map.of("4.5", 1, "4.0", 1, "3.5", 2, "3.0", 2));
+    }
+
+    @Test
+    void priceBucketUsesDiscountAndZeroPriceIsFree() {
+        TestSource discounted = course(1L, "A", 10L, 600_000, 4.0, 30, 0);
+        discounted.discountPrice = 150_000.0;
+        load(discounted, course(2L, "B", 10L, 0, 4.0, 30, 0));
+
+        CatalogHits hits = search(query(null, null, null, null, CatalogSort.PRICE_ASC, 0));
+
+        assertThat(hits.ids()).containsExactly(2L, 1L);
+        assertThat(counts(hits, "price")).containsEntry(PriceBucket.UNDER_200K.name(), 2)
+                .containsEntry(PriceBucket.FROM_500K_TO_1M.name(), 0);
+        assertThat(counts(hits, "free")).isEqualTo(Map.of("true", 1, "false", 1));
+    }
+
+    @Test
+    void keywordNarrowsHitsAndFacets() {
+        load(course(1L, "Tiếng Anh giao tiếp", 10L, 100_000, 4.0, 30, 0),
+                course(2L, "Spring Boot", 20L, 100_000, 4.0, 30, 0));
+
+        CatalogHits hits = search(query("tieng an", null, null, null, CatalogSort.POPULAR, 0));
+
+        assertThat(hits.ids()).containsExactly(1L);
+        assertThat(counts(hits, "category")).isEqualTo(Map.of("10", 1));
+    }
+
+    @Test
+    void pagesInSortOrderAndToleratesOffsetPastTheEnd() {
+        load(course(1L, "A", 10L, 100_000, 4.0, 30, 1),
+                course(2L, "B", 10L, 100_000, 4.0, 30, 7),
+                course(3L, "C", 10L, 100_000, 4.0, 30, 4));
+
+        assertThat(search(query(null, null, null, null, CatalogSort.POPULAR, 1)).ids()).containsExactly(3L, 1L);
+        CatalogHits past = search(query(null, null, null, null, CatalogSort.POPULAR, Integer.MAX_VALUE));
+        assertThat(past.ids()).isEmpty();
+        assertThat(past.total()).isEqualTo(3);
+    }
+
+    @Test
+    void enrollmentChangeReordersPopularSort() {
+        load(course(1L, "A", 10L, 100_000, 4.0, 30, 2),
+                course(2L, "B", 10L, 100_000, 4.0, 30, 2));
+        assertThat(search(query(null, null, null, null, CatalogSort.POPULAR, 0)).ids()).containsExactly(2L, 1L);
+
+        catalogService.onEnrollmentChanged(new EnrollmentChangedEvent(1L, 500L, true));
+
+        assertThat(search(query(null, null, null, null, CatalogSort.POPULAR, 0)).ids()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void failedBuildIsRetriedUntilTheCatalogLoads() {
+        AtomicBoolean databaseDown = new AtomicBoolean(true);
+        when(courseRepository.findCatalogSourcesAfter(eq(StatusCourse.PUBLIC), anyLong(), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    if (databaseDown.get())
+                        throw new IllegalStateException("database down");
+                    return List.of(course(1L, "A", 10L, 100_000, 4.0, 30, 0));
+                });
+
+        catalogService.rebuild();
+        assertThat(catalogService.isReady()).isFalse();
+
+        databaseDown.set(false);
+        catalogService.rebuildWhenDue();
+        assertThat(catalogService.isReady()).isTrue();
+        assertThat(search(query(null, null, null, null, CatalogSort.POPULAR, 0)).ids()).containsExactly(1L);
+    }
+
+    @Test
+    void courseChangedDuringRebuildWinsOverTheSnapshot() {
+        load(course(1L, "A", 10L, 100_000, 4.0, 30, 0));
+        // The change commits while the rebuild is still reading its (now stale) batch.
+        when(courseRepository.findCatalogSourcesAfter(eq(StatusCourse.PUBLIC), anyLong(), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    catalogService.onCourseChanged(new CourseChangedEvent(1L));
+                    return List.of(course(1L, "A", 10L, 100_000, 4.0, 30, 0));
+                });
+        when(courseRepository.findCatalogSource(eq(StatusCourse.PUBLIC), anyLong()))
+                .thenReturn(Optional.of(course(1L, "A", 20L, 100_000, 4.0, 30, 0)));
+
+        catalogService.rebuild();
+
+        assertThat(search(query(null, 20L, null, null, CatalogSort.POPULAR, 0)).ids()).containsExactly(1L);
+    }
+
+    private void load(CatalogSource... sources) {
+        when(courseRepository.findCatalogSourcesAfter(eq(StatusCourse.PUBLIC), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(sources));
+        catalogService.rebuild();
+        assertThat(catalogService.isReady()).isTrue();
+    }
+
+    private CatalogHits search(CatalogQuery query) {
+        return catalogService.search(query);
+    }
+
+    private static CatalogQuery query(String keyword, Long categoryId, PriceBucket priceBucket, Double minRating,
+            CatalogSort sort, int offset) {
+        return new CatalogQuery(keyword, categoryId, null, priceBucket, null, minRating, null, sort, offset, 2);
+    }
+
+    private static Map<String, Integer> counts(CatalogHits hits, String facet) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (FacetCountResponse count : hits.facets().get(facet)) {
+            counts.put(count.getValue(), count.getCount());
+        }
+        return counts;
+    }
+
+    private static TestSource course(Long id, String title, Long categoryId, double price, double rating,
+            int duration, long enrollments) {
+        TestSource source = new TestSource();
+        source.id = id;
+        source.title = title;
+        source.categoryId = categoryId;
+        source.price = price;
+        source.rating = rating;
+        source.duration = duration;
+        source.enrollments = enrollments;
+        return source;
+    }
+
+    private static final class TestSource implements CatalogSource {
+        private Long id;
+        private String title;
+        private Long categoryId;
+        private double price;
+        private Double discountPrice;
+        private double rating;
+        private int duration;
+        private long enrollments;
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getTitle() {
+            return title;
+        }
+
+        @Override
+        public String getShortDescription() {
+            return null;
+        }
+
+        @Override
+        public Long getCategoryId() {
+            return categoryId;
+        }
+
+        @Override
+        public Long getTeacherId() {
+            return 100L;
+        }
+
+        @Override
+        public Double getPrice() {
+            return price;
+        }
+
+        @Override
+        public Double getDiscountPrice() {
+            return discountPrice;
+        }
+
+        @Override
+        public Boolean getIsFree() {
+            return false;
+        }
+
+        @Override
+        public Double getAverageRating() {
+            return rating;
+        }
+
+        @Override
+        public Integer getRatingCount() {
+            return 1;
+        }
+
+        @Override
+        public Integer getTotalDuration() {
+            return duration;
+        }
+
+        @Override
+        public LocalDateTime getCreatedAt() {
+            return LocalDateTime.of(2025, 1, 1, 0, 0);
+        }
+
+        @Override
+        public Long getEnrollmentCount() {
+            return enrollments;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package elearningspringboot.service.impl;
+
+import elearningspringboot.event.EnrollmentChangedEvent;
+import elearningspringboot.repository.EnrollmentRepository;
+import elearningspringboot.repository.EnrollmentRepository.EnrollmentSignal;
+import elearningspringboot.service.impl.CourseRecommendationServiceImpl.CoCounts;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CourseRecommendationServiceImplTest {
+
+    private static final int NEIGHBOURS = 3;
+
+    @Test
+    void coCountsSumsDeltasAndDropsEntriesThatReachZero() {
+        CoCounts counts = new CoCounts();
+        counts.add(4, 1.5);
+        counts.add(4, 0.5);
+        counts.add(9, 1.0);
+
+        assertThat(counts.get(4)).isEqualTo(2.0);
+        assertThat(counts.get(7)).isZero();
+        assertThat(counts.size()).isEqualTo(2);
+
+        counts.add(4, -2.0);
+        assertThat(counts.get(4)).isZero();
+        assertThat(counts.get(9)).isEqualTo(1.0);
+        assertThat(counts.size()).isEqualTo(1);
+
+        // A zero delta for an absent course takes no slot.
+        counts.add(12, 0.0);
+        assertThat(counts.size()).isEqualTo(1);
+    }
+
+    @Test
+    void coCountsKeepsEveryCourseReachableThroughResizeAndRemoval() {
+        CoCounts counts = new CoCounts();
+        int initialCapacity = counts.capacity();
+        for (int course = 0; course < 200; course++) {
+            counts.add(course, course + 1);
+        }
+        assertThat(counts.capacity()).isGreaterThan(initialCapacity);
+        assertThat(counts.size()).isEqualTo(200);
+
+        // Removing entries shifts later ones back along their probe chains.
+        for (int course = 0; course < 200; course += 3) {
+            counts.add(course, -(course + 1));
+        }
+        for (int course = 0; course < 200; course++) {
+            assertThat(counts.get(course)).isEqualTo(course % 3 == 0 ? 0.0 : course + 1.0);
+        }
+        assertThat(counts.size()).isEqualTo(200 - 67);
+    }
+
+    @Test
+    void neighboursAreTheTopKByScore() {
+        // Course 1 shares k students with course 10 + k; more shared students score higher.
+        List<EnrollmentSignal> signals = new ArrayList<>();
+        long student = 100;
+        for (int k = 1; k <= 6; k++) {
+            for (int i = 0; i < k; i++, student++) {
+                signals.add(signal(signals.size() + 1, student, 1L, null));
+                signals.add(signal(signals.size() + 1, student, 10L + k, null));
+            }
+        }
+        CourseRecommendationServiceImpl service = rebuilt(signals);
+
+        assertThat(service.getAlsoTakenIds(1L, NEIGHBOURS)).containsExactly(16L, 15L, 14L);
+        // Past the top K the list is padded with the most enrolled courses.
+        assertThat(service.getAlsoTakenIds(1L, NEIGHBOURS + 1)).containsExactly(16L, 15L, 14L, 13L);
+    }
+
+    @Test
+    void enrollmentChangesMatchAFullRebuild() {
+        Random random = new Random(42);
+        List<EnrollmentSignal> signals = new ArrayList<>();
+        for (long student = 1; student <= 40; student++) {
+            for (long course = 1; course <= 8; course++) {
+                if (course == 1 + student % 8 || random.nextInt(3) == 0)
+                    signals.add(signal(signals.size() + 1, student, course, 1 + random.nextInt(5)));
+            }
+        }
+        CourseRecommendationServiceImpl incremental = rebuilt(signals);
+
+        long added = firstCourseNotTakenBy(signals, 5L);
+        incremental.onEnrollmentChanged(new EnrollmentChangedEvent(added, 5L, true));
+        signals.add(signal(signals.size() + 1, 5L, added, null));
+        assertBasketMatchesFullRebuild(incremental, signals, coursesOf(signals, 5L));
+
+        List<Long> leaving = coursesOf(signals, 7L);
+        incremental.onEnrollmentChanged(new EnrollmentChangedEvent(leaving.get(0), 7L, false));
+        signals.removeIf(s -> s.getStudentId() == 7L && s.getCourseId().equals(leaving.get(0)));
+        assertBasketMatchesFullRebuild(incremental, signals, leaving);
+    }
+
+    // A change re-ranks only the courses in the changed basket; lists of other
+    // courses keep their old scores until the next rebuild.
+    private static void assertBasketMatchesFullRebuild(CourseRecommendationServiceImpl incremental,
+            List<EnrollmentSignal> signals, List<Long> basket) {
+        CourseRecommendationServiceImpl full = rebuilt(signals);
+        for (long course : basket) {
+            assertThat(incremental.getAlsoTakenIds(course, NEIGHBOURS))
+                    .as("course %d", course)
+                    .isEqualTo(full.getAlsoTakenIds(course, NEIGHBOURS));
+        }
+    }
+
+    private static CourseRecommendationServiceImpl rebuilt(List<EnrollmentSignal> signals) {
+        EnrollmentRepository enrollmentRepository = mock(EnrollmentRepository.class);
+        when(enrollmentRepository.findSignalsAfter(anyLong(), any(Pageable.class))).thenReturn(signals);
+        CourseRecommendationServiceImpl service =
+                new CourseRecommendationServiceImpl(enrollmentRepository, NEIGHBOURS, 100, 1000, 2);
+        service.rebuild();
+        assertThat(service.isReady()).isTrue();
+        return service;
+    }
+
+    private static List<Long> coursesOf(List<EnrollmentSignal> signals, long studentId) {
+        return signals.stream()
+                .filter(s -> s.getStudentId() == studentId)
+                .map(EnrollmentSignal::getCourseId)
+                .toList();
+    }
+
+    private static long firstCourseNotTakenBy(List<EnrollmentSignal> signals, long studentId) {
+        List<Long> taken = coursesOf(signals, studentId);
+        long course = 1;
+        while (taken.contains(course)) {
+            course++;
+        }
+        return course;
+    }
+
+    private static EnrollmentSignal signal(long id, long studentId, long courseId, Integer rating) {
+        return new Signal(id, studentId, courseId, rating);
+    }
+
+    private record Signal(Long id, Long studentId, Long courseId, Integer rating) implements EnrollmentSignal {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public Long getStudentId() {
+            return studentId;
+        }
+
+        @Override
+        public Long getCourseId() {
+            return courseId;
+        }
+
+        @Override
+        public Integer getRating() {
+            return rating;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package elearningspringboot.service.impl;
+
+import elearningspringboot.entity.CategoryPost;
+import elearningspringboot.entity.Post;
+import elearningspringboot.entity.User;
+import elearningspringboot.enumeration.StatusPost;
+import elearningspringboot.repository.PostRepository;
+import elearningspringboot.repository.PostRepository.PostSearchSource;
+import elearningspringboot.service.PostSearchService.SearchHits;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PostSearchServiceImplTest {
+
+    private PostRepository postRepository;
+    private PostSearchServiceImpl searchService;
+
+    @BeforeEach
+    void setUp() {
+        postRepository = mock(PostRepository.class);
+        searchService = new PostSearchServiceImpl(postRepository, 500);
+    }
+
+    @Test
+    void titleMatchOutranksContentMatch() {
+        index(post(1L, "Notes", "spring is in the air"));
+        index(post(2L, "Spring in practice", "notes"));
+
+        assertThat(search("spring").ids()).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void shorterDocumentOutranksLongerOneWithSameTermFrequency() {
+        index(post(1L, "Notes", "java " + "filler ".repeat(50)));
+        index(post(2L, "Notes", "java filler"));
+
+        assertThat(search("java").ids()).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void rarerTermOutweighsCommonOne() {
+        index(post(1L, "Grammar", "english english tenses"));
+        index(post(2L, "Grammar", "english tenses tenses"));
+        index(post(3L, "Vocabulary", "english"));
+        index(post(4L, "Listening", "english"));
+
+        // Same length and the same terms; "tenses" is rarer, so its repeats weigh more.
+        assertThat(search("english tenses").ids()).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void everyTermMustMatch() {
+        index(post(1L, "Spring Boot", "intro"));
+        index(post(2L, "Spring Security", "intro"));
+
+        assertThat(search("spring boot").ids()).containsExactly(1L);
+        assertThat(search("spring kotlin").total()).isZero();
+    }
+
+    @Test
+    void onlyLastTermMatchesAsPrefix() {
+        index(post(1L, "Spring Boot", "intro"));
+
+        assertThat(search("boot spr").ids()).containsExactly(1L);
+        assertThat(search("spr boot").ids()).isEmpty();
+    }
+
+    @Test
+    void foldsDiacritics() {
+        index(post(1L, "Học tiếng Việt", "đọc hiểu"));
+
+        assertThat(search("tieng viet").ids()).containsExactly(1L);
+        assertThat(search("DOC hieu").ids()).containsExactly(1L);
+    }
+
+    @Test
+    void reindexReplacesOldTermsAndRemoveDropsPost() {
+        Post post = post(1L, "Spring", "intro");
+        index(post);
+        post.setTitle("Kotlin");
+        index(post);
+
+        assertThat(search("spring").ids()).isEmpty();
+        assertThat(search("kotlin").ids()).containsExactly(1L);
+
+        searchService.remove(1L);
+        assertThat(search("kotlin").ids()).isEmpty();
+    }
+
+    @Test
+    void filtersByStatusAndPages() {
+        for (long id = 1; id <= 5; id++) {
+            Post post = post(id, "Java " + id, "intro");
+            post.setStatus(id % 2 == 0 ? StatusPost.DRAFT : StatusPost.PUBLIC);
+            index(post);
+        }
+
+        SearchHits page = searchService.search("java", null, null, StatusPost.PUBLIC, null, 1, 1);
+        assertThat(page.total()).isEqualTo(3);
+        assertThat(page.ids()).hasSize(1).allMatch(id -> id % 2 == 1);
+    }
+
+    @Test
+    void explicitSortOverridesRelevance() {
+        Post older = post(1L, "Java Java Java", "java");
+        older.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+        Post newer = post(2L, "Notes", "java");
+        newer.setCreatedAt(LocalDateTime.of(2025, 1, 1, 0, 0));
+        index(older);
+        index(newer);
+
+        assertThat(search("java").ids()).containsExactly(1L, 2L);
+        assertThat(searchService.search("java", null, null, null, Sort.by(Sort.Direction.DESC, "createdAt"), 0, 10)
+                .ids()).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void changesCommittedDuringRebuildSurviveTheSwap() {
+        index(post(1L, "Spring", "intro"));
+        PostSearchSource stale = source(1L, "Spring");
+        // Post 2 is saved and post 1 deleted while the rebuild reads its (older) snapshot.
+        when(postRepository.findSearchSourcesAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            index(post(2L, "Kotlin", "intro"));
+            searchService.remove(1L);
+            return List.of(stale);
+        });
+
+        searchService.rebuild();
+
+        assertThat(searchService.isReady()).isTrue();
+        assertThat(search("kotlin").ids()).containsExactly(2L);
+        assertThat(search("spring").ids()).isEmpty();
+    }
+
+    private SearchHits search(String keyword) {
+        return searchService.search(keyword, null, null, null, null, 0, 10);
+    }
+
+    // No transaction is active, so the index is updated right away.
+    private void index(Post post) {
+        searchService.index(post);
+    }
+
+    private static PostSearchSource source(Long id, String title) {
+        PostSearchSource source = mock(PostSearchSource.class);
+        when(source.getId()).thenReturn(id);
+        when(source.getTitle()).thenReturn(title);
+        when(source.getStatus()).thenReturn(StatusPost.PUBLIC);
+        return source;
+    }
+
+    private static Post post(Long id, String title, String contentText) {
+        User author = new User();
+        author.setId(100L);
+        author.setFullName("Author");
+        CategoryPost category = new CategoryPost();
+        category.setId(10L);
+
+        Post post = new Post();
+        post.setId(id);
+        post.setTitle(title);
+        post.setContentText(contentText);
+        post.setStatus(StatusPost.PUBLIC);
+        post.setAuthor(author);
+        post.setCategory(category);
+        return post;
+    }
+}
@@ -0,0 +1,56 @@
+package elearningspringboot.service.impl;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationServiceImplTest {
+
+    private static final long NOW = System.currentTimeMillis() / 1000 * 1000;
+
+    private final TokenRevocationServiceImpl service = new TokenRevocationServiceImpl(1000, 1);
+
+    @Test
+    void revokedJtiIsRejectedUntilItExpires() {
+        service.revoke("a", new Date(NOW + 60_000));
+        service.revoke("b", new Date(NOW - 1));
+
+        assertThat(service.isRevoked(claims("a", "u@example.com", NOW))).isTrue();
+        assertThat(service.isRevoked(claims("b", "u@example.com", NOW))).isFalse();
+    }
+
+    @Test
+    void watermarkRevokesEveryTokenTheUserWasIssuedUpToIt() {
+        service.revokeAllIssuedBefore("u@example.com", new Date(NOW + 500));
+
+        assertThat(service.isRevoked(claims("a", "u@example.com", NOW - 60_000))).isTrue();
+        // Same second as the watermark: iat cannot tell before from after.
+        assertThat(service.isRevoked(claims("b", "u@example.com", NOW))).isTrue();
+        assertThat(service.isRevoked(claims("c", "u@example.com", NOW + 1000))).isFalse();
+        assertThat(service.isRevoked(claims("d", "other@example.com", NOW - 60_000))).isFalse();
+    }
+
+    @Test
+    void purgeKeepsAWatermarkForOneAccessTokenLifetime() {
+        service.revokeAllIssuedBefore("recent@example.com", new Date(NOW));
+        service.revokeAllIssuedBefore("old@example.com", new Date(NOW - 2 * 60 * 60 * 1000));
+
+        service.purgeExpired();
+
+        assertThat(service.isRevoked(claims("a", "recent@example.com", NOW - 1000))).isTrue();
+        assertThat(service.isRevoked(claims("b", "old@example.com", NOW - 3 * 60 * 60 * 1000))).isFalse();
+    }
+
+    private static Claims claims(String jti, String subject, long issuedAt) {
+        Claims claims = mock(Claims.class);
+        when(claims.getId()).thenReturn(jti);
+        when(claims.getSubject()).thenReturn(subject);
+        when(claims.getIssuedAt()).thenReturn(new Date(issuedAt));
+        return claims;
+    }
+}
@@ -0,0 +1,120 @@
+package elearningspringboot.util;
+
+import elearningspringboot.exception.ServiceBusyException;
+import elearningspringboot.service.StorageService;
+import elearningspringboot.util.HtmlImageProcessor.ProcessedContent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HtmlImageProcessorTest {
+
+    // Saved by the Quill editor: alignment and indent classes, inline colours,
+    // a code block, a bullet list, relative and fragment links and a video.
+    private static final String EDITOR_HTML = """
+            <h2 class="ql-align-center">Thì hiện tại đơn</h2>\
+            <p class="ql-align-justify"><span style="color: rgb(230, 0, 0);">Xem</span> \
+            <a href="/courses/3" rel="noopener noreferrer" target="_blank">khoá học</a> và \
+            <a href="#top">đầu trang</a>, <strong>đậm</strong> <em>nghiêng</em> <s>gạch</s></p>\
+            <pre class="ql-syntax" spellcheck="false">int x = 1;</pre>\
+            <ol><li data-list="bullet" class="ql-indent-1">\
+            <span style="background-color: rgb(255, 255, 0);">một</span></li></ol>\
+            <iframe class="ql-video" frameborder="0" allowfullscreen="true" \
+            src="https://www.youtube.com/embed/abc"></iframe><p><br></p>""";
+
+    private StorageService storageService;
+    private HtmlImageProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        storageService = mock(StorageService.class);
+        processor = new HtmlImageProcessor(storageService, 2, 8, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        processor.shutdown();
+    }
+
+    @Test
+    void keepsWhatTheEditorWrites() {
+        String html = processor.processContent(EDITOR_HTML).html();
+
+        assertThat(html).contains(
+                "<h2 class=\"ql-align-center\">",
+                "<p class=\"ql-align-justify\">",
+                "<span style=\"color: rgb(230, 0, 0);\">Xem</span>",
+                "<a href=\"/courses/3\" rel=\"noopener noreferrer\" target=\"_blank\">khoá học</a>",
+                "<a href=\"#top\">đầu trang</a>",
+                "<s>gạch</s>",
+                "<pre class=\"ql-syntax\">int x = 1;</pre>",
+                "<li data-list=\"bullet\" class=\"ql-indent-1\">",
+                "<span style=\"background-color: rgb(255, 255, 0);\">một</span>",
+                "<iframe class=\"ql-video\" frameborder=\"0\" allowfullscreen=\"true\" "
+                        + "src=\"https://www.youtube.com/embed/abc\"></iframe>");
+    }
+
+    @Test
+    void derivesTextFromTheCleanedHtml() {
+        ProcessedContent content = processor.processContent(EDITOR_HTML);
+
+        assertThat(content.text()).isEqualTo(
+                "Thì hiện tại đơn Xem khoá học và đầu trang, đậm nghiêng gạch int x = 1; một");
+        assertThat(content.wordCount()).isEqualTo(18);
+    }
+
+    @Test
+    void dropsScriptsHandlersAndForeignEmbeds() {
+        String html = processor.processContent("""
+                <p onclick="steal()" style="position: fixed; color: red; background: url(x)">a</p>\
+                <a href="javascript:alert(1)">b</a><script>alert(1)</script>\
+                <iframe src="https://evil.example/embed"></iframe>\
+                <img src="x.png" onerror="alert(1)">""").html();
+
+        assertThat(html).contains("<p style=\"color: red;\">a</p>", "<a>b</a>", "<img src=\"x.png\">");
+        assertThat(html).doesNotContain("script", "onclick", "onerror", "position", "url(", "iframe");
+    }
+
+    @Test
+    void uploadsInlineImagesOnceBeforeCleaning() {
+        when(storageService.uploadBytes(any(byte[].class), anyString(), anyString()))
+                .thenReturn("https://cdn.example/a.png");
+        String image = "<img class=\"ql-image\" src=\"data:image/png;base64,iVBORw0KGgo=\">";
+
+        String html = processor.processContent("<p>" + image + image + "</p>").html();
+
+        assertThat(html).isEqualTo("<p><img class=\"ql-image\" src=\"https://cdn.example/a.png\">"
+                + "<img class=\"ql-image\" src=\"https://cdn.example/a.png\"></p>");
+        verify(storageService, times(1)).uploadBytes(any(byte[].class), anyString(), anyString());
+    }
+
+    @Test
+    void fullUploadQueueRejectsThePostInsteadOfUploadingOnTheCaller() {
+        CountDownLatch release = new CountDownLatch(1);
+        when(storageService.uploadBytes(any(byte[].class), anyString(), anyString())).thenAnswer(invocation -> {
+            release.await();
+            return "https://cdn.example/a.png";
+        });
+        HtmlImageProcessor saturated = new HtmlImageProcessor(storageService, 1, 1, 10);
+        // One upload running, one queued, the third has nowhere to go.
+        String html = "<p><img src=\"data:image/png;base64,AAAA\"><img src=\"data:image/png;base64,AAAB\">"
+                + "<img src=\"data:image/png;base64,AAAC\"></p>";
+        try {
+            assertThatThrownBy(() -> saturated.processContent(html)).isInstanceOf(ServiceBusyException.class);
+        } finally {
+            release.countDown();
+            saturated.shutdown();
+        }
+    }
+}